@@ -0,0 +1,149 @@
+package com.example.reactivepractice.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * {@code Mono}를 돌려주는 loader 앞에 두는 키 단위 캐시.
+ * <p>
+ * Mono.just 는 값을 한 번만 잡아서 계속 오래된 값을 주고, Mono.defer / fromCallable 은 구독할 때마다 다시 호출한다.
+ * 이 캐시는 그 중간으로, TTL 동안은 저장된 값을 주고 refreshAfter 가 지나면 저장된 값을 주면서 뒤에서 미리 다시 불러온다.
+ * 같은 키로 동시에 들어온 구독자들은 진행 중인 호출 하나를 함께 기다린다.
+ * <p>
+ * 저장과 eviction 은 Caffeine(W-TinyLFU)에 맡긴다. loader 가 빈 Mono 나 에러로 끝나면 저장하지 않는다.
+ *
+ * @param <K> 키 타입
+ * @param <V> 값 타입
+ */
+public final class ReactiveCache<K, V> {
+
+    private final AsyncLoadingCache<K, V> cache;
+    private final LongAdder loads = new LongAdder();
+
+    private ReactiveCache(Builder<K, V> builder) {
+        final Caffeine<Object, Object> caffeine = Caffeine.newBuilder().maximumSize(builder.maximumSize);
+        if (builder.ttl != null) {
+            caffeine.expireAfterWrite(builder.ttl);
+        }
+        if (builder.refreshAfter != null) {
+            caffeine.refreshAfterWrite(builder.refreshAfter);
+        }
+        if (builder.clock != null) {
+            final Scheduler clock = builder.clock;
+            caffeine.ticker(() -> clock.now(TimeUnit.NANOSECONDS));
+        } else {
+            caffeine.ticker(Ticker.systemTicker());
+        }
+        if (builder.executor != null) {
+            caffeine.executor(builder.executor);
+        }
+        final Function<? super K, ? extends Mono<? extends V>> loader = builder.loader;
+        this.cache = caffeine.buildAsync((key, executor) -> {
+            loads.increment();
+            // toFuture 가 바로 구독하므로 같은 키의 다음 요청들은 이 future 를 함께 기다린다.
+            return Mono.<V>from(loader.apply(key)).toFuture();
+        });
+    }
+
+    public static <K, V> Builder<K, V> builder(Function<? super K, ? extends Mono<? extends V>> loader) {
+        return new Builder<>(loader);
+    }
+
+    /**
+     * 캐시된 값 또는 loader 결과. 구독할 때 조회하므로 재구독하면 그때의 캐시 상태를 본다.
+     */
+    public Mono<V> get(K key) {
+        // copy 를 넘겨서 한 구독자가 취소해도 다른 구독자가 기다리는 공유 future 는 취소되지 않게 한다.
+        return Mono.fromCompletionStage(() -> cache.get(key).copy());
+    }
+
+    public void invalidate(K key) {
+        cache.synchronous().invalidate(key);
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * loader 를 실제로 호출한 횟수. (refresh 포함)
+     */
+    public long loadCount() {
+        return loads.sum();
+    }
+
+    /**
+     * loader 를 부르지 않고, 저장된 값(또는 진행 중인 호출)이 있을 때만 돌려준다.
+     */
+    public Mono<V> getIfPresent(K key) {
+        return Mono.defer(() -> {
+            final CompletableFuture<V> future = cache.getIfPresent(key);
+            return future == null ? Mono.empty() : Mono.fromCompletionStage(future.copy());
+        });
+    }
+
+    public static final class Builder<K, V> {
+        private final Function<? super K, ? extends Mono<? extends V>> loader;
+        private Duration ttl;
+        private Duration refreshAfter;
+        private long maximumSize = 10_000;
+        private Scheduler clock;
+        private Executor executor;
+
+        private Builder(Function<? super K, ? extends Mono<? extends V>> loader) {
+            this.loader = Objects.requireNonNull(loader, "loader");
+        }
+
+        /**
+         * 저장 후 이 시간이 지나면 만료된다.
+         */
+        public Builder<K, V> ttl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * 저장 후 이 시간이 지난 값을 읽으면 그 값을 주면서 뒤에서 다시 불러온다. ttl 보다 짧아야 의미가 있다.
+         */
+        public Builder<K, V> refreshAfter(Duration refreshAfter) {
+            this.refreshAfter = refreshAfter;
+            return this;
+        }
+
+        public Builder<K, V> maximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * 만료 계산에 쓸 시계. 테스트에서 VirtualTimeScheduler 를 넘기면 가상 시간으로 만료를 확인할 수 있다.
+         */
+        public Builder<K, V> clock(Scheduler clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * refresh 와 eviction 같은 정리 작업을 돌릴 Executor. 기본은 ForkJoinPool.commonPool().
+         */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public ReactiveCache<K, V> build() {
+            return new ReactiveCache<>(this);
+        }
+    }
+}
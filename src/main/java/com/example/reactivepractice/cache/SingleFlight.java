@@ -0,0 +1,60 @@
+package com.example.reactivepractice.cache;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 같은 키로 동시에 들어온 구독자들이 {@code Mono} 하나의 실행을 함께 기다리게 한다. (single-flight)
+ * <p>
+ * switchIfEmpty(Mono.defer(...))로 fallback 을 lazy 하게 만들어도, 캐시 miss 가 한꺼번에 몰리면 구독자마다 fallback 이 실행된다.
+ * 여기서는 키마다 진행 중인 실행을 하나만 두고, 그 실행이 끝나면(값, 빈 완료, 에러 모두) 지운다.
+ * 따라서 완료 뒤에 들어온 다음 miss 는 다시 실행한다. 결과를 오래 들고 있으려면 {@link ReactiveCache}를 쓴다.
+ * <p>
+ * 한 구독자가 취소해도 실행은 취소되지 않고 끝까지 진행한다. 다른 구독자가 같은 결과를 기다리고 있을 수 있기 때문이다.
+ *
+ * @param <K> 키 타입
+ * @param <V> 값 타입
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+
+    /**
+     * 구독할 때 key 로 진행 중인 실행이 있으면 거기에 합류하고, 없으면 supplier 의 Mono 를 구독해서 새로 시작한다.
+     */
+    public Mono<V> execute(K key, Supplier<? extends Mono<? extends V>> supplier) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> flight(k, supplier)));
+    }
+
+    /**
+     * 지금까지 supplier 를 실제로 구독한 횟수.
+     */
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    /**
+     * 지금 진행 중인 키의 수.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Mono<V> flight(K key, Supplier<? extends Mono<? extends V>> supplier) {
+        @SuppressWarnings("unchecked") final Mono<V>[] self = new Mono[1];
+        self[0] = Mono.<V>defer(() -> {
+                    executions.increment();
+                    return supplier.get();
+                })
+                // 첫 신호에서 지워야 결과를 받은 구독자가 바로 다시 요청했을 때 끝난 실행에 합류하지 않는다.
+                .doOnEach(signal -> inFlight.remove(key, self[0]))
+                .doOnCancel(() -> inFlight.remove(key, self[0]))
+                .cache();
+        return self[0];
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.reactivepractice.event;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Sinks.Many} 위에 만든 이벤트 버스. Deprecated 된 DirectProcessor, UnicastProcessor, EmitterProcessor,
+ * ReplayProcessor 를 대신한다.
+ * <ul>
+ *     <li>multicast: 여러 구독자에게 전달. 구독자가 없을 때 들어온 이벤트는 첫 구독자가 올 때까지 버퍼에 둔다.</li>
+ *     <li>unicast: 구독자 하나만 허용하고 구독 전 이벤트도 버퍼에 둔다.</li>
+ *     <li>replay(n): 마지막 n개를 기억했다가 늦게 온 구독자에게 먼저 보내준다.</li>
+ * </ul>
+ * {@link #emit(Object)}는 여러 스레드에서 동시에 호출해도 된다. Sinks 는 동시 호출을 FAIL_NON_SERIALIZED 로 알려주는데,
+ * 이 경우 다른 생산자가 끝날 때까지 잠깐 spin 하고 다시 시도한다. (DirectProcessor 처럼 생산자를 한 스레드로 묶을 필요가 없다)
+ * <p>
+ * bufferSize 는 Reactor 큐 규칙대로 8 이상의 2의 거듭제곱으로 올림된다.
+ *
+ * @param <T> 이벤트 타입
+ */
+public final class EventBus<T> {
+
+    /**
+     * 구독자가 따라오지 못해서 버퍼가 가득 찼을 때의 동작.
+     */
+    public enum BackpressureStrategy {
+        /** 크기 제한 없이 버퍼에 쌓는다. */
+        BUFFER,
+        /** 버퍼가 가득 차면 지금 들어온 이벤트를 버린다. */
+        DROP_LATEST,
+        /** 버퍼가 가득 차면 overflow 에러로 버스를 종료한다. */
+        FAIL
+    }
+
+    // 여러 스레드가 동시에 emit 하다가 FAIL_NON_SERIALIZED 가 나면 다시 시도한다. OffHeapReplaySink 도 같이 쓴다.
+    static final Sinks.EmitFailureHandler RETRY_NON_SERIALIZED = (signalType, result) -> {
+        if (result == Sinks.EmitResult.FAIL_NON_SERIALIZED) {
+            Thread.onSpinWait();
+            return true;
+        }
+        return false;
+    };
+
+    private final Sinks.Many<T> sink;
+    private final BackpressureStrategy strategy;
+    private final LongAdder dropped = new LongAdder();
+
+    private EventBus(Sinks.Many<T> sink, BackpressureStrategy strategy) {
+        this.sink = sink;
+        this.strategy = strategy;
+    }
+
+    public static <T> EventBus<T> multicast(BackpressureStrategy strategy, int bufferSize) {
+        final int capacity = strategy == BackpressureStrategy.BUFFER ? Integer.MAX_VALUE : bufferSize;
+        // 구독자가 모두 취소해도 버스는 닫지 않는다.
+        return new EventBus<>(Sinks.many().multicast().onBackpressureBuffer(capacity, false), strategy);
+    }
+
+    public static <T> EventBus<T> unicast(BackpressureStrategy strategy, int bufferSize) {
+        final Sinks.Many<T> sink = strategy == BackpressureStrategy.BUFFER
+                ? Sinks.many().unicast().onBackpressureBuffer()
+                : Sinks.many().unicast().onBackpressureBuffer(Queues.<T>get(bufferSize).get());
+        return new EventBus<>(sink, strategy);
+    }
+
+    /**
+     * 마지막 history 개의 이벤트를 늦게 온 구독자에게 다시 보내준다.
+     * 구독자마다 자기 위치를 따로 들고 있어서 버퍼가 넘치는 일이 없으므로 backpressure 전략은 BUFFER 와 같다.
+     */
+    public static <T> EventBus<T> replay(int history) {
+        return new EventBus<>(Sinks.many().replay().limit(history), BackpressureStrategy.BUFFER);
+    }
+
+    /**
+     * 이벤트를 보낸다. 구독자에게 전달되거나 버퍼에 들어가면 true, 버려지거나 버스가 이미 종료됐으면 false.
+     */
+    public boolean emit(T event) {
+        for (;;) {
+            final Sinks.EmitResult result = sink.tryEmitNext(event);
+            switch (result) {
+                case OK:
+                    return true;
+                case FAIL_NON_SERIALIZED:
+                    Thread.onSpinWait();
+                    continue;
+                case FAIL_OVERFLOW:
+                    dropped.increment();
+                    if (strategy == BackpressureStrategy.FAIL) {
+                        error(Exceptions.failWithOverflow("EventBus buffer is full"));
+                    }
+                    return false;
+                case FAIL_ZERO_SUBSCRIBER:
+                    dropped.increment();
+                    return false;
+                default:
+                    // FAIL_TERMINATED, FAIL_CANCELLED
+                    return false;
+            }
+        }
+    }
+
+    public void complete() {
+        sink.emitComplete(RETRY_NON_SERIALIZED);
+    }
+
+    public void error(Throwable error) {
+        sink.emitError(error, RETRY_NON_SERIALIZED);
+    }
+
+    public Flux<T> events() {
+        return sink.asFlux();
+    }
+
+    public int subscriberCount() {
+        return sink.currentSubscriberCount();
+    }
+
+    /**
+     * 버퍼가 가득 찼거나 받을 구독자가 없어서 버려진 이벤트 수.
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+}
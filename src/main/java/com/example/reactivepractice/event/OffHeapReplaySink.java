@@ -0,0 +1,244 @@
+package com.example.reactivepractice.event;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 최근 이벤트를 힙 밖(direct {@link ByteBuffer} 또는 memory-mapped 파일)의 고정 크기 링 버퍼에 직렬화해 두고,
+ * 늦게 온 구독자에게 먼저 다시 보내주는 replay sink.
+ * <p>
+ * ReplayProcessor 처럼 박싱된 객체를 힙에 들고 있지 않으므로 기록이 수십만 건이어도 old gen 에 쌓이지 않는다.
+ * 기록은 바이트 수({@code capacityBytes})와 건수({@code maxItems}) 두 가지로 제한하며, 넘치면 가장 오래된 것부터 덮어쓴다.
+ * <p>
+ * 쓰기는 write lock 안에서, 읽기는 {@link StampedLock}의 optimistic read 로 한다. 구독자는 링 버퍼에서 직접
+ * 읽기 때문에 구독자별 큐가 없고, 새 이벤트가 들어왔다는 신호만 받는다. 구독자가 너무 느려서 읽기 전에 덮어써진
+ * 이벤트는 건너뛰고 {@link #skippedCount()}에 센다.
+ * <p>
+ * 구독자에게 가는 onNext 는 새 이벤트를 쓴 스레드에서 바로 호출될 수 있으므로, 느린 구독자는 publishOn 을 붙이는 게 좋다.
+ *
+ * @param <T> 이벤트 타입
+ */
+public final class OffHeapReplaySink<T> implements Closeable {
+
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+    private final ReplaySerializer<T> serializer;
+    private final int capacityBytes;
+    private final int maxItems;
+    // sequence % maxItems 위치에 레코드의 시작 offset 과 길이를 둔다.
+    private final int[] offsets;
+    private final int[] lengths;
+    private final StampedLock lock = new StampedLock();
+    private final Sinks.Many<Long> appended = Sinks.many().multicast().directBestEffort();
+    private final LongAdder skipped = new LongAdder();
+
+    // 가장 오래된 레코드의 sequence, 다음에 쓸 sequence, 다음에 쓸 바이트 위치
+    private long head;
+    private long tail;
+    private int writePosition;
+
+    private OffHeapReplaySink(ByteBuffer buffer, FileChannel channel, int maxItems, ReplaySerializer<T> serializer) {
+        if (maxItems <= 0) {
+            throw new IllegalArgumentException("maxItems must be positive: " + maxItems);
+        }
+        this.buffer = buffer;
+        this.channel = channel;
+        this.serializer = serializer;
+        this.capacityBytes = buffer.capacity();
+        this.maxItems = maxItems;
+        this.offsets = new int[maxItems];
+        this.lengths = new int[maxItems];
+    }
+
+    /**
+     * direct {@link ByteBuffer}에 기록을 둔다.
+     */
+    public static <T> OffHeapReplaySink<T> direct(int capacityBytes, int maxItems, ReplaySerializer<T> serializer) {
+        return new OffHeapReplaySink<>(ByteBuffer.allocateDirect(capacityBytes), null, maxItems, serializer);
+    }
+
+    /**
+     * file 을 capacityBytes 크기로 memory-map 해서 기록을 둔다. 파일은 페이지 캐시를 쓰기 위한 저장 공간일 뿐이라
+     * 다시 열어도 이전 기록을 복원하지 않는다.
+     */
+    public static <T> OffHeapReplaySink<T> mapped(Path file, int capacityBytes, int maxItems, ReplaySerializer<T> serializer) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new OffHeapReplaySink<>(channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes), channel, maxItems, serializer);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 이벤트를 기록하고 구독자들에게 알린다. 여러 스레드에서 호출해도 된다.
+     *
+     * @throws IllegalArgumentException 직렬화한 크기가 capacityBytes 보다 클 때
+     */
+    public void emit(T value) {
+        final int length = serializer.sizeOf(value);
+        if (length > capacityBytes) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds capacity " + capacityBytes);
+        }
+        final long sequence;
+        final long stamp = lock.writeLock();
+        try {
+            final int offset = reserve(length);
+            final ByteBuffer target = buffer.duplicate();
+            target.position(offset).limit(offset + length);
+            serializer.write(value, target);
+            sequence = tail;
+            final int index = (int) (sequence % maxItems);
+            offsets[index] = offset;
+            lengths[index] = length;
+            writePosition = offset + length;
+            tail = sequence + 1;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        appended.emitNext(sequence, EventBus.RETRY_NON_SERIALIZED);
+    }
+
+    /**
+     * 더 이상 기록하지 않는다. 구독자들은 남은 기록을 모두 읽은 뒤 완료된다.
+     */
+    public void complete() {
+        appended.emitComplete(EventBus.RETRY_NON_SERIALIZED);
+    }
+
+    /**
+     * 지금 남아 있는 기록부터 시작해서 이후 이벤트까지 이어서 받는다.
+     */
+    public Flux<T> asFlux() {
+        return Flux.defer(() -> {
+            final long[] cursor = {oldestSequence()};
+            // 새 이벤트 신호를 먼저 구독한 뒤 초기 drain(0L)을 하므로 그 사이에 들어온 이벤트도 놓치지 않는다.
+            // 신호는 여러 개가 밀려도 하나로 합쳐지고, 신호 하나마다 그 시점까지 쌓인 기록을 모두 읽는다.
+            return Flux.merge(appended.asFlux().onBackpressureLatest(), Mono.just(0L))
+                    .concatMap(signal -> Flux.<T>generate(sink -> {
+                        final T value = readNext(cursor);
+                        if (value == null) {
+                            sink.complete();
+                        } else {
+                            sink.next(value);
+                        }
+                    }), 1);
+        });
+    }
+
+    public long oldestSequence() {
+        final long stamp = lock.readLock();
+        try {
+            return head;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 지금 링 버퍼에 남아 있는 기록 수.
+     */
+    public int size() {
+        final long stamp = lock.readLock();
+        try {
+            return (int) (tail - head);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * 구독자가 읽기 전에 덮어써져서 건너뛴 기록 수. (구독자 전체 합)
+     */
+    public long skippedCount() {
+        return skipped.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        complete();
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    // cursor[0] 위치의 기록을 읽고 cursor 를 옮긴다. 더 읽을 게 없으면 null.
+    private T readNext(long[] cursor) {
+        final long stamp = lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                final long next = cursor[0];
+                final long from = Math.max(next, head);
+                final T value = from < tail ? readAt(from) : null;
+                if (lock.validate(stamp)) {
+                    return advance(cursor, next, from, value);
+                }
+            } catch (RuntimeException e) {
+                // 쓰는 중인 레코드를 읽어서 깨진 값이 나온 경우. 아래에서 read lock 으로 다시 읽는다.
+            }
+        }
+        final long readStamp = lock.readLock();
+        try {
+            final long next = cursor[0];
+            final long from = Math.max(next, head);
+            return advance(cursor, next, from, from < tail ? readAt(from) : null);
+        } finally {
+            lock.unlockRead(readStamp);
+        }
+    }
+
+    private T advance(long[] cursor, long next, long from, T value) {
+        if (value != null) {
+            if (from > next) {
+                skipped.add(from - next);
+            }
+            cursor[0] = from + 1;
+        }
+        return value;
+    }
+
+    private T readAt(long sequence) {
+        final int index = (int) (sequence % maxItems);
+        final ByteBuffer source = buffer.asReadOnlyBuffer();
+        source.position(offsets[index]).limit(offsets[index] + lengths[index]);
+        return serializer.read(source.slice());
+    }
+
+    // length 바이트를 쓸 자리를 만들고 그 offset 을 돌려준다. 필요하면 오래된 기록을 지운다.
+    private int reserve(int length) {
+        for (;;) {
+            if (tail - head == maxItems) {
+                head++;
+                continue;
+            }
+            if (head == tail) {
+                writePosition = 0;
+                return 0;
+            }
+            final int headOffset = offsets[(int) (head % maxItems)];
+            if (writePosition > headOffset) {
+                // 기록이 [headOffset, writePosition) 에 연속으로 있다.
+                if (capacityBytes - writePosition >= length) {
+                    return writePosition;
+                }
+                writePosition = 0;
+            } else if (writePosition < headOffset && headOffset - writePosition >= length) {
+                // 기록이 끝에서 앞으로 감겨 있고 [writePosition, headOffset) 이 비어 있다.
+                return writePosition;
+            } else {
+                head++;
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.reactivepractice.event;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link OffHeapReplaySink}에 값을 바이트로 쓰고 읽는 방법.
+ *
+ * @param <T> 값 타입
+ */
+public interface ReplaySerializer<T> {
+
+    /**
+     * value를 쓰는 데 필요한 바이트 수.
+     */
+    int sizeOf(T value);
+
+    /**
+     * target의 현재 위치부터 정확히 {@link #sizeOf(Object)} 바이트를 쓴다.
+     */
+    void write(T value, ByteBuffer target);
+
+    /**
+     * source는 레코드 하나만 보이는 읽기 전용 slice다. 버퍼를 복사하지 않고 바로 읽는다.
+     */
+    T read(ByteBuffer source);
+
+    static ReplaySerializer<Long> longs() {
+        return LongSerializer.INSTANCE;
+    }
+
+    static ReplaySerializer<String> strings() {
+        return Utf8StringSerializer.INSTANCE;
+    }
+
+    final class LongSerializer implements ReplaySerializer<Long> {
+        static final LongSerializer INSTANCE = new LongSerializer();
+
+        @Override
+        public int sizeOf(Long value) {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(Long value, ByteBuffer target) {
+            target.putLong(value);
+        }
+
+        @Override
+        public Long read(ByteBuffer source) {
+            return source.getLong();
+        }
+    }
+
+    /**
+     * 쓰기는 중간 byte[] 없이 버퍼에 바로 UTF-8로 인코딩한다.
+     */
+    final class Utf8StringSerializer implements ReplaySerializer<String> {
+        static final Utf8StringSerializer INSTANCE = new Utf8StringSerializer();
+
+        @Override
+        public int sizeOf(String value) {
+            int size = 0;
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    size += 1;
+                } else if (c < 0x800) {
+                    size += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    size += 4;
+                    i++;
+                } else {
+                    size += 3;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public void write(String value, ByteBuffer target) {
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c < 0x80) {
+                    target.put((byte) c);
+                } else if (c < 0x800) {
+                    target.put((byte) (0xC0 | (c >> 6)));
+                    target.put((byte) (0x80 | (c & 0x3F)));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    final int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    target.put((byte) (0xF0 | (codePoint >> 18)));
+                    target.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    target.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    target.put((byte) (0x80 | (codePoint & 0x3F)));
+                } else {
+                    // 짝이 없는 surrogate 도 3바이트로 쓴다. (읽을 때는 대체 문자가 된다)
+                    target.put((byte) (0xE0 | (c >> 12)));
+                    target.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                    target.put((byte) (0x80 | (c & 0x3F)));
+                }
+            }
+        }
+
+        @Override
+        public String read(ByteBuffer source) {
+            return StandardCharsets.UTF_8.decode(source).toString();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.reactivepractice.fruit;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * {@link FruitSketches}가 만드는 {@link FruitInfo} 모양의 근사 요약.
+ * 과일 목록 전체 대신 서로 다른 과일 수의 추정값과 많이 나온 과일 상위 k 개를 오차 한도와 함께 담는다.
+ */
+public final class ApproximateFruitInfo {
+
+    private final long total;
+    private final long distinctEstimate;
+    private final double distinctRelativeError;
+    private final Map<String, Long> heavyHitters;
+    private final long countErrorBound;
+    private final double confidence;
+
+    ApproximateFruitInfo(long total, long distinctEstimate, double distinctRelativeError,
+                         Map<String, Long> heavyHitters, long countErrorBound, double confidence) {
+        this.total = total;
+        this.distinctEstimate = distinctEstimate;
+        this.distinctRelativeError = distinctRelativeError;
+        this.heavyHitters = Collections.unmodifiableMap(heavyHitters);
+        this.countErrorBound = countErrorBound;
+        this.confidence = confidence;
+    }
+
+    /**
+     * 지금까지 받은 과일 수.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * distinctFruits.size() 의 추정값.
+     */
+    public long getDistinctEstimate() {
+        return distinctEstimate;
+    }
+
+    /**
+     * distinctEstimate 의 상대 표준 오차.
+     */
+    public double getDistinctRelativeError() {
+        return distinctRelativeError;
+    }
+
+    /**
+     * 추정 개수가 큰 순서의 상위 k 개 과일. 개수는 실제보다 작지 않고, confidence 의 확률로 countErrorBound 이상 크지 않다.
+     */
+    public Map<String, Long> getHeavyHitters() {
+        return heavyHitters;
+    }
+
+    public long getCountErrorBound() {
+        return countErrorBound;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    @Override
+    public String toString() {
+        return "ApproximateFruitInfo{" +
+                "total=" + total +
+                ", distinctEstimate=" + distinctEstimate +
+                " (±" + Math.round(distinctRelativeError * 1000) / 10.0 + "%)" +
+                ", heavyHitters=" + heavyHitters +
+                " (+" + countErrorBound + " @" + confidence + ")" +
+                '}';
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.reactivepractice.fruit;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.stream.Collector;
+
+/**
+ * 과일 스트림을 한 번만 순회하면서 {@link FruitInfo}를 만든다.
+ * <p>
+ * distinct()와 groupBy → concatMap(count) → reduce 조합은 바구니를 두 번 구독하고 그룹/병합 단계마다 Map을 새로 만든다.
+ * 여기서는 삽입 순서를 유지하는 {@link FruitCounts} 하나에 누적하므로 distinctFruits는 처음 등장한 순서,
+ * countFruits는 같은 순서의 과일별 개수가 되어 기존 파이프라인과 같은 결과를 낸다.
+ */
+public final class FruitAggregator {
+
+    private FruitAggregator() {
+    }
+
+    /**
+     * 과일 Publisher를 한 번 구독해서 집계한다. 빈 바구니는 빈 {@link FruitInfo}가 된다.
+     */
+    public static Mono<FruitInfo> aggregate(Publisher<String> fruits) {
+        return Flux.from(fruits).collect(collector());
+    }
+
+    /**
+     * 이미 메모리에 있는 바구니를 동기적으로 집계한다.
+     */
+    public static FruitInfo summarize(Iterable<String> basket) {
+        final FruitCounts counts = new FruitCounts();
+        for (String fruit : basket) {
+            counts.increment(fruit);
+        }
+        return new FruitInfo(counts);
+    }
+
+    /**
+     * {@link Flux#collect(Collector)}나 Java Stream에서 그대로 쓸 수 있는 Collector.
+     * combiner는 왼쪽 결과가 앞선 구간이라고 보고 순서를 유지하며 합친다.
+     */
+    public static Collector<String, ?, FruitInfo> collector() {
+        return Collector.of(FruitCounts::new, FruitCounts::increment, FruitCounts::addAll, FruitInfo::new);
+    }
+}
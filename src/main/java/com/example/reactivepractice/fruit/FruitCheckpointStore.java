@@ -0,0 +1,317 @@
+package com.example.reactivepractice.fruit;
+
+import com.example.reactivepractice.event.ReplaySerializer;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.zip.CRC32;
+
+/**
+ * 과일 누적 개수와 "어디까지 셌는지"(source offset)를 디렉터리에 저장해 두고, 다시 시작할 때 그대로 읽어 온다.
+ * <p>
+ * 디렉터리에는 두 파일이 있다.
+ * <ul>
+ *     <li>{@code snapshot.bin}: 어느 offset 까지의 전체 개수 테이블. memory-map 으로 쓰고 읽으며, 임시 파일에 다 쓴 뒤
+ *     rename 으로 바꾸므로 항상 온전한 이전 스냅샷이나 새 스냅샷 중 하나다.</li>
+ *     <li>{@code deltas.log}: 스냅샷 이후 체크포인트마다 그 사이에 늘어난 개수와 새 offset 을 CRC 를 붙여 덧붙인 로그.</li>
+ * </ul>
+ * 체크포인트는 바뀐 과일만 쓰므로 테이블이 커도 비용은 그 사이 들어온 과일 종류 수에 비례한다. 로그가 스냅샷보다 커지면
+ * 새 스냅샷을 쓰고 로그를 비운다.
+ * <p>
+ * 개수와 offset 은 같은 레코드에 함께 기록되므로 복구한 개수는 항상 {@link #resumeOffset()} 앞의 바구니까지를 정확히 센 값이다.
+ * 마지막 체크포인트 뒤에 센 바구니는 개수와 offset 모두에서 빠지므로, source 를 resumeOffset 부터 다시 읽으면 빠짐도 중복도 없다.
+ * 쓰다가 죽어서 끝이 잘리거나 CRC 가 맞지 않는 로그 레코드는 버리고 그 앞까지만 복구한다.
+ * <p>
+ * 한 스레드에서만 쓰는 구조라 동기화하지 않는다. {@link #aggregate}도 바구니와 체크포인트 틱을 merge 로 한 줄로 세워서 처리한다.
+ */
+public final class FruitCheckpointStore implements Closeable {
+
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+    static final String LOG_FILE = "deltas.log";
+
+    private static final int SNAPSHOT_MAGIC = 0x46525453; // "FRTS"
+    // 로그 레코드 헤더: payload 길이(int) + payload 의 CRC32(int)
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES * 2;
+    private static final long MIN_COMPACTION_BYTES = 1 << 20;
+    private static final ReplaySerializer<String> NAMES = ReplaySerializer.strings();
+
+    private final Path directory;
+    private final FileChannel log;
+    private FruitCounts counts;
+    // 마지막 체크포인트 뒤에 늘어난 개수
+    private FruitCounts pending = new FruitCounts();
+    private long offset;
+    private long checkpointedOffset;
+    private long logBytes;
+    private long snapshotBytes;
+
+    private FruitCheckpointStore(Path directory, FileChannel log) {
+        this.directory = directory;
+        this.log = log;
+    }
+
+    /**
+     * directory 의 스냅샷과 로그를 읽어서 연다. 디렉터리나 파일이 없으면 빈 상태로 시작한다.
+     *
+     * @throws IOException 스냅샷이 손상되었거나 파일을 열 수 없을 때
+     */
+    public static FruitCheckpointStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        final FileChannel log = FileChannel.open(directory.resolve(LOG_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            final FruitCheckpointStore store = new FruitCheckpointStore(directory, log);
+            store.recover();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 지금까지 센 바구니 수. source 의 이 위치부터 이어서 읽으면 된다. 체크포인트 전이면 아직 디스크에 없는 바구니도 포함한다.
+     */
+    public long offset() {
+        return offset;
+    }
+
+    /**
+     * 마지막 체크포인트의 offset. 다시 열면 {@link #offset()}이 이 값이 된다.
+     */
+    public long resumeOffset() {
+        return checkpointedOffset;
+    }
+
+    /**
+     * 지금 개수의 복사본.
+     */
+    public FruitInfo snapshot() {
+        return new FruitInfo(counts.copy());
+    }
+
+    /**
+     * 다음 offset 의 바구니를 센다.
+     */
+    public void apply(Iterable<String> basket) {
+        for (String fruit : basket) {
+            counts.increment(fruit);
+            pending.increment(fruit);
+        }
+        offset++;
+    }
+
+    /**
+     * 마지막 체크포인트 뒤에 센 바구니를 로그에 쓰고 fsync 한다. 로그가 커졌으면 스냅샷으로 합친다.
+     *
+     * @return 새로 쓴 게 있으면 true
+     */
+    public boolean checkpoint() throws IOException {
+        if (offset == checkpointedOffset) {
+            return false;
+        }
+        final ByteBuffer payload = ByteBuffer.allocate(Long.BYTES + entriesSize(pending));
+        payload.putLong(offset);
+        putEntries(pending, payload);
+        payload.flip();
+        final ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+        header.putInt(payload.remaining()).putInt(crc(payload.duplicate())).flip();
+
+        long position = logBytes;
+        for (ByteBuffer buffer : new ByteBuffer[]{header, payload}) {
+            while (buffer.hasRemaining()) {
+                position += log.write(buffer, position);
+            }
+        }
+        log.force(false);
+        logBytes = position;
+        checkpointedOffset = offset;
+        pending = new FruitCounts();
+
+        if (logBytes > Math.max(MIN_COMPACTION_BYTES, snapshotBytes)) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * 지금까지 센 개수를 새 스냅샷으로 쓰고 로그를 비운다. 체크포인트하지 않은 바구니도 스냅샷에 들어간다.
+     */
+    public void compact() throws IOException {
+        final Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        final int total = Integer.BYTES + Long.BYTES + entriesSize(counts) + Integer.BYTES;
+        Files.deleteIfExists(temporary);
+        try (FileChannel channel = FileChannel.open(temporary,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, total);
+            buffer.putInt(SNAPSHOT_MAGIC);
+            buffer.putLong(offset);
+            putEntries(counts, buffer);
+            buffer.putInt(crc(buffer.duplicate().flip()));
+            buffer.force();
+        }
+        Files.move(temporary, directory.resolve(SNAPSHOT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // rename 은 디렉터리 항목을 바꾸는 것이라 디렉터리를 fsync 해야 남는다. 그 전에 로그를 비우면 전원이 나갔을 때
+        // 이전 스냅샷과 빈 로그만 남아서 그 사이의 개수를 잃는다.
+        forceDirectory(directory);
+        // 여기서 죽으면 로그에 스냅샷보다 오래된 레코드가 남지만, 복구할 때 offset 으로 걸러낸다.
+        log.truncate(0);
+        log.force(true);
+        logBytes = 0;
+        snapshotBytes = total;
+        checkpointedOffset = offset;
+        pending = new FruitCounts();
+    }
+
+    /**
+     * resumeOffset 부터 다시 읽은 바구니들을 세면서 interval 마다 체크포인트하고, 끝나면 마지막 체크포인트를 한 뒤 전체 개수를 내보낸다.
+     * 취소되거나 에러가 나면 마지막 체크포인트까지만 남는다.
+     * <p>
+     * 체크포인트는 fsync 를 하므로 clock 스레드를 잠깐 막는다. 틱이 바구니 처리와 겹치지 않게 merge 로 직렬화한다.
+     */
+    public Mono<FruitInfo> aggregate(Flux<? extends Iterable<String>> baskets, Duration interval) {
+        return aggregate(baskets, interval, Schedulers.boundedElastic());
+    }
+
+    public Mono<FruitInfo> aggregate(Flux<? extends Iterable<String>> baskets, Duration interval, Scheduler clock) {
+        final Object tick = new Object();
+        return baskets.publish(shared -> Flux.<Object>merge(
+                        shared,
+                        Flux.interval(interval, clock).takeUntilOther(shared.then()).map(i -> tick)))
+                .doOnNext(signal -> {
+                    if (signal == tick) {
+                        checkpointUnchecked();
+                    } else {
+                        @SuppressWarnings("unchecked") final Iterable<String> basket = (Iterable<String>) signal;
+                        apply(basket);
+                    }
+                })
+                .then(Mono.fromCallable(() -> {
+                    checkpoint();
+                    return snapshot();
+                }));
+    }
+
+    /**
+     * 체크포인트하지 않고 파일만 닫는다. 닫기 전에 남기려면 {@link #checkpoint()}를 먼저 부른다.
+     */
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    private void checkpointUnchecked() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private void recover() throws IOException {
+        counts = new FruitCounts();
+        final Path snapshotFile = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshotFile)) {
+            try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+                snapshotBytes = channel.size();
+                readSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, snapshotBytes), snapshotFile);
+            }
+        }
+        final ByteBuffer records = log.map(FileChannel.MapMode.READ_ONLY, 0, log.size());
+        while (records.remaining() >= RECORD_HEADER_BYTES) {
+            final int start = records.position();
+            final int length = records.getInt();
+            final int expectedCrc = records.getInt();
+            if (length < Long.BYTES || length > records.remaining()) {
+                records.position(start);
+                break;
+            }
+            final ByteBuffer payload = records.slice().limit(length);
+            if (crc(payload.duplicate()) != expectedCrc) {
+                records.position(start);
+                break;
+            }
+            records.position(records.position() + length);
+            final long recordOffset = payload.getLong();
+            if (recordOffset > offset) {
+                addEntries(payload, counts);
+                offset = recordOffset;
+            }
+        }
+        logBytes = records.position();
+        if (logBytes < log.size()) {
+            // 쓰다가 잘린 꼬리. 다음 레코드를 그 자리에 쓴다.
+            log.truncate(logBytes);
+            log.force(true);
+        }
+        checkpointedOffset = offset;
+    }
+
+    private void readSnapshot(ByteBuffer buffer, Path file) throws IOException {
+        if (buffer.remaining() < Integer.BYTES * 2 + Long.BYTES || buffer.getInt(0) != SNAPSHOT_MAGIC) {
+            throw new IOException("Not a fruit snapshot: " + file);
+        }
+        final int crcPosition = buffer.limit() - Integer.BYTES;
+        if (crc(buffer.duplicate().limit(crcPosition)) != buffer.getInt(crcPosition)) {
+            throw new IOException("Corrupt fruit snapshot: " + file);
+        }
+        buffer.position(Integer.BYTES).limit(crcPosition);
+        offset = buffer.getLong();
+        counts = new FruitCounts(buffer.getInt(buffer.position()));
+        addEntries(buffer, counts);
+    }
+
+    // 과일 수(int) 뒤에 과일마다 이름 바이트 수(int), UTF-8 이름, 개수(long)
+    private static int entriesSize(FruitCounts counts) {
+        int size = Integer.BYTES;
+        for (int i = 0; i < counts.size(); i++) {
+            size += Integer.BYTES + NAMES.sizeOf(counts.fruitAt(i)) + Long.BYTES;
+        }
+        return size;
+    }
+
+    private static void putEntries(FruitCounts counts, ByteBuffer target) {
+        target.putInt(counts.size());
+        for (int i = 0; i < counts.size(); i++) {
+            final String fruit = counts.fruitAt(i);
+            target.putInt(NAMES.sizeOf(fruit));
+            NAMES.write(fruit, target);
+            target.putLong(counts.countAt(i));
+        }
+    }
+
+    private static void addEntries(ByteBuffer source, FruitCounts counts) {
+        final int entries = source.getInt();
+        for (int i = 0; i < entries; i++) {
+            final int length = source.getInt();
+            final String fruit = NAMES.read(source.slice().limit(length));
+            source.position(source.position() + length);
+            counts.add(fruit, source.getLong());
+        }
+    }
+
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    private static int crc(ByteBuffer buffer) {
+        final CRC32 crc = new CRC32();
+        crc.update(buffer);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,326 @@
+package com.example.reactivepractice.fruit;
+
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+
+/**
+ * 과일 이름 → 개수를 담는 open addressing 해시 테이블.
+ * <p>
+ * 과일 이름과 개수는 처음 들어온 순서대로 배열에 한 번만 저장하고(long 그대로, 박싱 없음),
+ * 해시 슬롯에는 그 배열의 인덱스만 둔다. 그래서 distinct 목록은 이름 배열을 그대로 보여주는 view가 되고,
+ * {@link #asMap()}도 복사 없이 같은 배열을 읽는다. HashMap$Node와 Long이 과일 종류마다 생기지 않는다.
+ * <p>
+ * 한 스레드에서만 쓰는 누적용 구조라 동기화하지 않는다.
+ */
+public final class FruitCounts {
+
+    private static final int DEFAULT_EXPECTED_FRUITS = 8;
+
+    private String[] fruits;
+    private long[] counts;
+    private int[] hashes;
+    // 0은 빈 슬롯, 그 외에는 (배열 인덱스 + 1)
+    private int[] slots;
+    private int size;
+
+    public FruitCounts() {
+        this(DEFAULT_EXPECTED_FRUITS);
+    }
+
+    public FruitCounts(int expectedFruits) {
+        final int capacity = Math.max(2, expectedFruits);
+        fruits = new String[capacity];
+        counts = new long[capacity];
+        hashes = new int[capacity];
+        slots = new int[tableSizeFor(capacity)];
+    }
+
+    public void increment(String fruit) {
+        add(fruit, 1L);
+    }
+
+    /**
+     * 과일 개수에 delta를 더하고 그 과일의 삽입 순서 인덱스를 돌려준다.
+     */
+    public int add(String fruit, long delta) {
+        final int hash = hash(fruit);
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            final int index = entry - 1;
+            if (hashes[index] == hash && fruits[index].equals(fruit)) {
+                counts[index] += delta;
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (size == fruits.length) {
+            grow();
+            return add(fruit, delta);
+        }
+        final int index = size++;
+        fruits[index] = fruit;
+        counts[index] = delta;
+        hashes[index] = hash;
+        slots[slot] = index + 1;
+        return index;
+    }
+
+    /**
+     * other의 과일들을 other의 순서대로 더한다. 왼쪽(this)이 앞선 구간이라고 보면 순서가 유지되므로 결합법칙이 성립한다.
+     */
+    public FruitCounts addAll(FruitCounts other) {
+        for (int i = 0; i < other.size; i++) {
+            add(other.fruits[i], other.counts[i]);
+        }
+        return this;
+    }
+
+    public int indexOf(String fruit) {
+        final int hash = hash(fruit);
+        final int mask = slots.length - 1;
+        int slot = hash & mask;
+        int entry;
+        while ((entry = slots[slot]) != 0) {
+            final int index = entry - 1;
+            if (hashes[index] == hash && fruits[index].equals(fruit)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    public long count(String fruit) {
+        final int index = indexOf(fruit);
+        return index < 0 ? 0L : counts[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public String fruitAt(int index) {
+        checkIndex(index);
+        return fruits[index];
+    }
+
+    public long countAt(int index) {
+        checkIndex(index);
+        return counts[index];
+    }
+
+    public FruitCounts copy() {
+        final int capacity = Math.max(2, size);
+        final int tableSize = tableSizeFor(capacity);
+        final FruitCounts copy = new FruitCounts(0);
+        copy.fruits = Arrays.copyOf(fruits, capacity);
+        copy.counts = Arrays.copyOf(counts, capacity);
+        copy.hashes = Arrays.copyOf(hashes, capacity);
+        copy.slots = slots.length == tableSize ? slots.clone() : rehash(copy.hashes, size, tableSize);
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * 개수가 0인 과일을 뺀 복사본. 순서는 그대로이고, 슬롯은 저장해 둔 해시로 다시 채우므로 문자열 해시를 다시 계산하지 않는다.
+     */
+    FruitCounts withoutZeros() {
+        int nonZero = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] != 0) {
+                nonZero++;
+            }
+        }
+        final int capacity = Math.max(2, nonZero);
+        final FruitCounts copy = new FruitCounts(0);
+        copy.fruits = new String[capacity];
+        copy.counts = new long[capacity];
+        copy.hashes = new int[capacity];
+        int next = 0;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] != 0) {
+                copy.fruits[next] = fruits[i];
+                copy.counts[next] = counts[i];
+                copy.hashes[next] = hashes[i];
+                next++;
+            }
+        }
+        copy.size = nonZero;
+        copy.slots = rehash(copy.hashes, nonZero, tableSizeFor(capacity));
+        return copy;
+    }
+
+    /**
+     * 처음 들어온 순서의 과일 목록. 복사본이 아닌 읽기 전용 view다.
+     */
+    public List<String> distinct() {
+        return new DistinctView();
+    }
+
+    /**
+     * 과일별 개수를 {@link Map}으로 보는 읽기 전용 view. 값은 읽을 때만 박싱된다.
+     */
+    public Map<String, Long> asMap() {
+        return new MapView();
+    }
+
+    /**
+     * 같은 과일이 같은 순서로 같은 개수를 가지면 같다.
+     * distinct 목록(List 순서 비교)과 개수 Map이 모두 같은 것과 동일하다.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FruitCounts other = (FruitCounts) o;
+        if (size != other.size) return false;
+        for (int i = 0; i < size; i++) {
+            if (counts[i] != other.counts[i] || hashes[i] != other.hashes[i] || !fruits[i].equals(other.fruits[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * {@code 31 * distinct().hashCode() + asMap().hashCode()} 와 같은 값을 박싱 없이 계산한다.
+     */
+    @Override
+    public int hashCode() {
+        int listHash = 1;
+        int mapHash = 0;
+        for (int i = 0; i < size; i++) {
+            final int fruitHash = fruits[i].hashCode();
+            listHash = 31 * listHash + fruitHash;
+            mapHash += fruitHash ^ Long.hashCode(counts[i]);
+        }
+        return 31 * listHash + mapHash;
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private void grow() {
+        final int capacity = fruits.length * 2;
+        fruits = Arrays.copyOf(fruits, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        slots = rehash(hashes, size, tableSizeFor(capacity));
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static int[] rehash(int[] hashes, int size, int tableSize) {
+        final int[] table = new int[tableSize];
+        final int mask = tableSize - 1;
+        for (int index = 0; index < size; index++) {
+            int slot = hashes[index] & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = index + 1;
+        }
+        return table;
+    }
+
+    // load factor 0.5 이하를 유지하는 2의 거듭제곱 크기
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(Math.max(2, capacity) * 4 - 1);
+    }
+
+    private static int hash(String fruit) {
+        final int h = fruit.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private final class DistinctView extends AbstractList<String> implements RandomAccess {
+        @Override
+        public String get(int index) {
+            return fruitAt(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String && indexOf((String) o) >= 0;
+        }
+
+        @Override
+        public int indexOf(Object o) {
+            return o instanceof String ? FruitCounts.this.indexOf((String) o) : -1;
+        }
+    }
+
+    private final class MapView extends AbstractMap<String, Long> {
+        @Override
+        public Long get(Object key) {
+            if (!(key instanceof String)) return null;
+            final int index = indexOf((String) key);
+            return index < 0 ? null : counts[index];
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key instanceof String && indexOf((String) key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Set<Entry<String, Long>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Long>> iterator() {
+                    return new Iterator<>() {
+                        int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < size;
+                        }
+
+                        @Override
+                        public Entry<String, Long> next() {
+                            if (next >= size) throw new NoSuchElementException();
+                            final int index = next++;
+                            return new SimpleImmutableEntry<>(fruits[index], counts[index]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return size;
+                }
+            };
+        }
+    }
+}
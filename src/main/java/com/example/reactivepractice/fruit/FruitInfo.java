@@ -0,0 +1,66 @@
+package com.example.reactivepractice.fruit;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+public class FruitInfo {
+    // distinctFruits와 countFruits는 모두 이 테이블의 view다. 과일 이름과 개수를 한 번씩만 들고 있는다.
+    private final FruitCounts counts;
+
+    public FruitInfo(FruitCounts counts) {
+        this.counts = counts;
+    }
+
+    /**
+     * distinct 목록과 개수 Map으로 만든다. countFruits의 키는 distinctFruits와 같아야 한다.
+     */
+    @JsonCreator
+    public FruitInfo(@JsonProperty("distinctFruits") List<String> distinctFruits,
+                     @JsonProperty("countFruits") Map<String, Long> countFruits) {
+        if (distinctFruits.size() != countFruits.size()) {
+            throw new IllegalArgumentException("distinctFruits " + distinctFruits + " do not match countFruits " + countFruits);
+        }
+        this.counts = new FruitCounts(distinctFruits.size());
+        for (String fruit : distinctFruits) {
+            final Long count = countFruits.get(fruit);
+            if (count == null) {
+                throw new IllegalArgumentException("No count for fruit '" + fruit + "' in " + countFruits);
+            }
+            counts.add(fruit, count);
+        }
+    }
+
+    public List<String> getDistinctFruits() {
+        return counts.distinct();
+    }
+
+    public Map<String, Long> getCountFruits() {
+        return counts.asMap();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        FruitInfo fruitInfo = (FruitInfo) o;
+
+        return counts.equals(fruitInfo.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        return counts.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "FruitInfo{" +
+                "distinctFruits=" + getDistinctFruits() +
+                ", countFruits=" + getCountFruits() +
+                '}';
+    }
+}
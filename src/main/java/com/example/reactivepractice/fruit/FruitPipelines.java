@@ -0,0 +1,100 @@
+package com.example.reactivepractice.fruit;
+
+import com.example.reactivepractice.operator.FanOut;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * ReactiveFruit 예제에서 쓰던 바구니 집계 파이프라인들을 같은 입력/출력으로 비교할 수 있게 모아 둔 클래스.
+ * <p>
+ * groupBy를 쓰는 예전 파이프라인은 concatMap이 첫 그룹을 다 셀 때까지 나머지 그룹이 groupBy 버퍼(기본 256)에 쌓이므로
+ * 큰 바구니에서는 멈춘다. 여기서는 groupBy prefetch를 바구니 크기 이상으로 잡아 비교가 가능하도록 했다.
+ */
+public final class FruitPipelines {
+
+    private static final int DEFAULT_GROUP_PREFETCH = 256;
+
+    private FruitPipelines() {
+    }
+
+    /**
+     * ReactiveFruit.Fruit_Basket: distinct()와 groupBy → concatMap(count) → reduce 로 바구니를 두 번 구독한다.
+     */
+    public static Flux<FruitInfo> groupByReduce(Flux<List<String>> baskets) {
+        return baskets.concatMap(basket -> Mono.zip(
+                Flux.fromIterable(basket).distinct().collectList(),
+                countByGroup(Flux.fromIterable(basket), basket.size()),
+                FruitInfo::new));
+    }
+
+    /**
+     * ReactiveFruit.Fruit_Parallel: 바구니 안의 두 파이프라인만 subscribeOn(scheduler)로 옮기고 바구니 사이는 순서대로 처리한다.
+     */
+    public static Flux<FruitInfo> subscribeOnParallel(Flux<List<String>> baskets, Scheduler scheduler) {
+        return baskets.concatMap(basket -> Mono.zip(
+                Flux.fromIterable(basket).distinct().collectList().subscribeOn(scheduler),
+                countByGroup(Flux.fromIterable(basket), basket.size()).subscribeOn(scheduler),
+                FruitInfo::new));
+    }
+
+    /**
+     * ReactiveFruit.Flux_Cold_To_Hot: publish().autoConnect(2)로 한 번의 구독을 distinct와 groupBy가 나눠 쓴다.
+     */
+    public static Flux<FruitInfo> coldToHot(Flux<List<String>> baskets) {
+        return baskets.concatMap(basket -> {
+            final Flux<String> source = Flux.fromIterable(basket).publish().autoConnect(2);
+            return Mono.zip(source.distinct().collectList(), countByGroup(source, basket.size()), FruitInfo::new);
+        });
+    }
+
+    /**
+     * coldToHot과 같은 distinct / groupingBy 계산을 {@link FanOut}으로 한 번의 구독 안에서 함께 한다.
+     */
+    public static Flux<FruitInfo> fanOut(Flux<List<String>> baskets) {
+        return baskets.concatMap(basket -> FanOut.collect(
+                        Flux.fromIterable(basket),
+                        Collectors.toCollection(LinkedHashSet::new),
+                        Collectors.groupingBy(fruit -> fruit, LinkedHashMap::new, Collectors.counting()))
+                .map(results -> new FruitInfo(new ArrayList<>(results.getT1()), results.getT2())));
+    }
+
+    /**
+     * {@link FruitAggregator}로 바구니를 한 번만 순회한다.
+     */
+    public static Flux<FruitInfo> singlePass(Flux<List<String>> baskets) {
+        return baskets.concatMap(basket -> FruitAggregator.aggregate(Flux.fromIterable(basket)));
+    }
+
+    /**
+     * {@link ParallelFruitAggregator}로 바구니를 rail에 나눠 처리한다.
+     */
+    public static Flux<FruitInfo> parallelPerBasket(Flux<List<String>> baskets, int parallelism, Scheduler scheduler) {
+        return ParallelFruitAggregator.perBasket(baskets, parallelism, scheduler);
+    }
+
+    private static Mono<Map<String, Long>> countByGroup(Flux<String> fruits, int basketSize) {
+        return fruits
+                .groupBy(fruit -> fruit, Math.max(DEFAULT_GROUP_PREFETCH, basketSize)) // 바구니로 부터 넘어온 과일 기준으로 group을 묶는다.
+                .concatMap(groupedFlux -> groupedFlux.count()
+                        .map(count -> {
+                            final Map<String, Long> fruitCount = new LinkedHashMap<>();
+                            fruitCount.put(groupedFlux.key(), count);
+                            return fruitCount;
+                        }) // 각 과일별로 개수를 Map으로 리턴
+                ) // concatMap으로 순서보장
+                .reduce((accumulatedMap, currentMap) -> new LinkedHashMap<>() {
+                    {
+                        putAll(accumulatedMap);
+                        putAll(currentMap);
+                    }
+                }); // 그동안 누적된 accumulatedMap에 현재 넘어오는 currentMap을 합쳐서 새로운 Map을 만든다.
+    }
+}
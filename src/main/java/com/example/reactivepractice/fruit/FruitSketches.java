@@ -0,0 +1,102 @@
+package com.example.reactivepractice.fruit;
+
+import com.example.reactivepractice.sketch.CountMinSketch;
+import com.example.reactivepractice.sketch.HeavyHitters;
+import com.example.reactivepractice.sketch.HyperLogLog;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * 끝나지 않는 과일 스트림을 고정 메모리로 요약한다.
+ * <p>
+ * distinct()는 본 값을 모두 HashSet 에, groupBy 는 키마다 GroupedFlux 를 스트림이 끝날 때까지 들고 있으므로 키 종류가
+ * 많은 무한 스트림에서는 메모리가 끝없이 는다. 여기서는 서로 다른 과일 수는 {@link HyperLogLog}로,
+ * 많이 나온 과일은 {@link CountMinSketch} + 상위 k 개 후보({@link HeavyHitters})로 센다.
+ * <pre>
+ * new FruitSketches(0.01, 0.001, 0.99, 10).snapshotEvery(fruits, 10_000)
+ * </pre>
+ */
+public final class FruitSketches {
+
+    private final double distinctError;
+    private final double countEpsilon;
+    private final double confidence;
+    private final int topK;
+
+    /**
+     * @param distinctError 서로 다른 과일 수의 상대 표준 오차
+     * @param countEpsilon  과일별 개수의 과대 추정 한도 (전체 개수에 대한 비율)
+     * @param confidence    countEpsilon 을 지킬 확률
+     * @param topK          들고 있을 상위 과일 수
+     */
+    public FruitSketches(double distinctError, double countEpsilon, double confidence, int topK) {
+        // 각 스케치 생성자와 같은 검사를 미리 해서 구독 전에 실패하게 한다.
+        HyperLogLog.withRelativeError(distinctError);
+        CountMinSketch.withError(countEpsilon, confidence);
+        if (topK <= 0) {
+            throw new IllegalArgumentException("topK must be positive: " + topK);
+        }
+        this.distinctError = distinctError;
+        this.countEpsilon = countEpsilon;
+        this.confidence = confidence;
+        this.topK = topK;
+    }
+
+    /**
+     * 끝나는 스트림을 요약 하나로 만든다.
+     */
+    public Mono<ApproximateFruitInfo> summarize(Publisher<String> fruits) {
+        return Flux.from(fruits).collect(this::newState, State::add).map(State::snapshot);
+    }
+
+    /**
+     * every 개마다 그때까지의 요약을 내보낸다. 원본이 끝나면 마지막 요약을 한 번 더 내보낸다. (every 의 배수면 생략)
+     */
+    public Flux<ApproximateFruitInfo> snapshotEvery(Publisher<String> fruits, int every) {
+        if (every <= 0) {
+            throw new IllegalArgumentException("every must be positive: " + every);
+        }
+        return Flux.defer(() -> {
+            final State state = newState();
+            return Flux.from(fruits)
+                    .<ApproximateFruitInfo>handle((fruit, sink) -> {
+                        state.add(fruit);
+                        if (state.total() % every == 0) {
+                            sink.next(state.snapshot());
+                        }
+                    })
+                    .concatWith(Mono.fromSupplier(() -> state.total() % every == 0 ? null : state.snapshot()));
+        });
+    }
+
+    private State newState() {
+        return new State(HyperLogLog.withRelativeError(distinctError),
+                new HeavyHitters(topK, CountMinSketch.withError(countEpsilon, confidence)));
+    }
+
+    private static final class State {
+        private final HyperLogLog distinct;
+        private final HeavyHitters heavyHitters;
+
+        State(HyperLogLog distinct, HeavyHitters heavyHitters) {
+            this.distinct = distinct;
+            this.heavyHitters = heavyHitters;
+        }
+
+        void add(String fruit) {
+            distinct.add(fruit);
+            heavyHitters.add(fruit);
+        }
+
+        long total() {
+            return heavyHitters.sketch().total();
+        }
+
+        ApproximateFruitInfo snapshot() {
+            final CountMinSketch counts = heavyHitters.sketch();
+            return new ApproximateFruitInfo(counts.total(), distinct.estimate(), distinct.relativeError(),
+                    heavyHitters.top(), counts.errorBound(), counts.confidence());
+        }
+    }
+}
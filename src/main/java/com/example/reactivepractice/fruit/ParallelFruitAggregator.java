@@ -0,0 +1,56 @@
+package com.example.reactivepractice.fruit;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.Comparator;
+
+/**
+ * 바구니 목록을 {@code parallel(n).runOn(scheduler)}로 rail마다 나눠서 집계한다.
+ * <p>
+ * concatMap은 바구니를 하나씩 처리하고, 바구니 안 파이프라인에 subscribeOn을 붙여도 바구니 사이는 병렬이 되지 않는다.
+ * 여기서는 바구니 자체를 rail에 분배하고, 각 바구니에 붙인 순번으로 결과 순서를 맞춘다.
+ */
+public final class ParallelFruitAggregator {
+
+    private ParallelFruitAggregator() {
+    }
+
+    /**
+     * 바구니마다 {@link FruitInfo}를 하나씩, 입력 순서대로 내보낸다.
+     */
+    public static Flux<FruitInfo> perBasket(Flux<? extends Iterable<String>> baskets) {
+        return perBasket(baskets, Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    public static Flux<FruitInfo> perBasket(Flux<? extends Iterable<String>> baskets, int parallelism, Scheduler scheduler) {
+        return baskets.index()
+                .parallel(parallelism)
+                .runOn(scheduler)
+                .map(basket -> Tuples.of(basket.getT1(), FruitAggregator.summarize(basket.getT2())))
+                // 각 rail 안에서는 순번이 증가하므로 rail의 머리끼리만 비교해서 합치면 전체 순서가 된다.
+                .ordered(Comparator.comparingLong(Tuple2::getT1))
+                .map(Tuple2::getT2);
+    }
+
+    /**
+     * 모든 바구니를 합친 {@link FruitInfo} 하나만 내보낸다.
+     * rail마다 중간 결과를 누적하고 마지막에 합치며, distinct 순서는 순차 처리와 같다.
+     */
+    public static Mono<FruitInfo> total(Flux<? extends Iterable<String>> baskets) {
+        return total(baskets, Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    public static Mono<FruitInfo> total(Flux<? extends Iterable<String>> baskets, int parallelism, Scheduler scheduler) {
+        return baskets.index()
+                .parallel(parallelism)
+                .runOn(scheduler)
+                .reduce(PartialFruitCounts::new, (partial, basket) -> partial.add(basket.getT1(), basket.getT2()))
+                .reduce(PartialFruitCounts::merge)
+                .map(PartialFruitCounts::toFruitInfo);
+    }
+}
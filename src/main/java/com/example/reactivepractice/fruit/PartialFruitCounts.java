@@ -0,0 +1,53 @@
+package com.example.reactivepractice.fruit;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * 여러 rail에서 나눠 센 중간 결과. 과일별 개수와 함께 "처음 본 위치"(바구니 번호, 바구니 안 위치)를 들고 있어서
+ * 어떤 순서로 합치더라도 순차 처리와 같은 distinct 순서를 복원할 수 있다. (결합법칙, 교환법칙 모두 성립)
+ */
+final class PartialFruitCounts {
+
+    private final FruitCounts counts = new FruitCounts();
+    private long[] firstSeen = new long[8];
+
+    PartialFruitCounts add(long basketIndex, Iterable<String> basket) {
+        long position = basketIndex << 32;
+        for (String fruit : basket) {
+            record(fruit, 1L, position++);
+        }
+        return this;
+    }
+
+    PartialFruitCounts merge(PartialFruitCounts other) {
+        for (int i = 0; i < other.counts.size(); i++) {
+            record(other.counts.fruitAt(i), other.counts.countAt(i), other.firstSeen[i]);
+        }
+        return this;
+    }
+
+    FruitInfo toFruitInfo() {
+        final int size = counts.size();
+        final FruitCounts ordered = new FruitCounts(size);
+        IntStream.range(0, size)
+                .boxed()
+                .sorted(Comparator.comparingLong(index -> firstSeen[index]))
+                .forEach(index -> ordered.add(counts.fruitAt(index), counts.countAt(index)));
+        return new FruitInfo(ordered);
+    }
+
+    private void record(String fruit, long count, long position) {
+        final int before = counts.size();
+        final int index = counts.add(fruit, count);
+        if (index == before) {
+            if (index == firstSeen.length) {
+                firstSeen = Arrays.copyOf(firstSeen, index * 2);
+            }
+            firstSeen[index] = position;
+        } else if (position < firstSeen[index]) {
+            firstSeen[index] = position;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.reactivepractice.fruit;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 최근 N 바구니, 또는 최근 T 시간 동안의 과일 개수를 이어서 센다.
+ * <p>
+ * 바구니마다 창 안의 바구니를 처음부터 다시 세지 않고, pane 단위로 들어온 개수를 더하고 창을 벗어난 pane 의 개수를 뺀다.
+ * 과일 하나는 pane 에 한 번 더해지고 창에서 한 번 빠지므로 요소당 비용은 상수다.
+ * <ul>
+ *     <li>{@link #ofBaskets(int)}: 바구니 하나가 pane 하나다.</li>
+ *     <li>{@link #ofDuration(Duration, Duration)}: 같은 pane 시간 안에 온 바구니를 한 pane 으로 합친다. 창은 pane 단위로 움직인다.</li>
+ * </ul>
+ * 개수가 0이 된 과일은 누적 테이블에 남겨 두었다가 절반을 넘으면 한꺼번에 지운다. 스냅샷({@link FruitInfo})은 바뀐 게 있을 때만
+ * 0 을 뺀 테이블을 배열 복사로 만들고, 바뀐 게 없으면 이전 스냅샷을 그대로 돌려준다. 비용은 창 안의 과일 수가 아니라 과일 종류 수에
+ * 비례하며, 대시보드가 100ms 마다 읽어도 그 사이에 들어온 게 없으면 복사하지 않는다.
+ * <p>
+ * distinctFruits 순서는 누적 테이블에 들어온 순서다. 창에서 빠졌다가 지워지기 전에 다시 들어온 과일은 원래 자리를 지킨다.
+ */
+public final class SlidingFruitWindow {
+
+    // sample 에서 틱을 바구니와 구분하는 표시
+    private static final Object TICK = new Object();
+    private static final int MIN_COMPACTION = 16;
+
+    private final int maxPanes;
+    private final long windowMillis;
+    private final long paneMillis;
+    private final Scheduler clock;
+
+    private SlidingFruitWindow(int maxPanes, long windowMillis, long paneMillis, Scheduler clock) {
+        this.maxPanes = maxPanes;
+        this.windowMillis = windowMillis;
+        this.paneMillis = paneMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * 최근 baskets 개의 바구니.
+     */
+    public static SlidingFruitWindow ofBaskets(int baskets) {
+        if (baskets <= 0) {
+            throw new IllegalArgumentException("baskets must be positive: " + baskets);
+        }
+        return new SlidingFruitWindow(baskets, 0L, 0L, Schedulers.parallel());
+    }
+
+    public static SlidingFruitWindow ofDuration(Duration window, Duration pane) {
+        return ofDuration(window, pane, Schedulers.parallel());
+    }
+
+    /**
+     * 최근 window 동안의 바구니. pane 은 window 를 나누어떨어지게 잡는다.
+     *
+     * @param clock 시간을 잴 scheduler. {@link #sample}의 틱도 여기서 돈다.
+     */
+    public static SlidingFruitWindow ofDuration(Duration window, Duration pane, Scheduler clock) {
+        final long windowMillis = window.toMillis();
+        final long paneMillis = pane.toMillis();
+        if (paneMillis <= 0 || windowMillis < paneMillis || windowMillis % paneMillis != 0) {
+            throw new IllegalArgumentException("pane " + pane + " must divide window " + window);
+        }
+        return new SlidingFruitWindow(Integer.MAX_VALUE, windowMillis, paneMillis, clock);
+    }
+
+    /**
+     * 바구니가 올 때마다 창의 스냅샷을 내보낸다.
+     */
+    public Flux<FruitInfo> rolling(Flux<? extends Iterable<String>> baskets) {
+        return Flux.defer(() -> {
+            final State state = new State();
+            return baskets.map(basket -> {
+                state.add(basket, now());
+                return state.snapshot();
+            });
+        });
+    }
+
+    /**
+     * tick 마다 창의 스냅샷을 내보낸다. 시간 창은 바구니가 오지 않아도 틱에서 오래된 pane 을 뺀다.
+     * 바구니와 틱은 merge 로 한 줄로 세워서 처리하므로 상태에 락이 없다. 바구니가 끝나면 틱도 멈춘다.
+     * <p>
+     * interval 은 요청량이 없으면 에러를 내므로 틱은 받는 쪽 요청과 상관없이 처리한다. 받는 쪽이 느리면 그 사이의 스냅샷은 버리고
+     * 다음 요청에 가장 최근 스냅샷을 넘긴다. 바구니도 요청을 기다리지 않고 계속 창에 더한다.
+     */
+    public Flux<FruitInfo> sample(Flux<? extends Iterable<String>> baskets, Duration tick) {
+        return Flux.defer(() -> {
+            final State state = new State();
+            return baskets.publish(shared -> Flux.<Object>merge(
+                            shared,
+                            Flux.interval(tick, clock).takeUntilOther(shared.then()).map(i -> TICK)))
+                    .<FruitInfo>handle((signal, sink) -> {
+                        if (signal == TICK) {
+                            state.expire(now());
+                            sink.next(state.snapshot());
+                        } else {
+                            @SuppressWarnings("unchecked") final Iterable<String> basket = (Iterable<String>) signal;
+                            state.add(basket, now());
+                        }
+                    })
+                    .onBackpressureLatest();
+        });
+    }
+
+    private long now() {
+        return clock.now(TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Pane {
+        final long start;
+        final FruitCounts counts = new FruitCounts();
+
+        Pane(long start) {
+            this.start = start;
+        }
+    }
+
+    // 구독마다 하나. rolling 은 바구니 순서대로, sample 은 merge 가 직렬화한 순서대로 불린다.
+    private final class State {
+        private final ArrayDeque<Pane> panes = new ArrayDeque<>();
+        private FruitCounts window = new FruitCounts();
+        private int zeros;
+        private long version;
+        private long snapshotVersion = -1L;
+        private FruitInfo snapshot;
+
+        void add(Iterable<String> basket, long now) {
+            final Pane pane = paneFor(now);
+            for (String fruit : basket) {
+                pane.counts.increment(fruit);
+                final int before = window.size();
+                final int index = window.add(fruit, 1L);
+                if (index < before && window.countAt(index) == 1L) {
+                    zeros--;
+                }
+            }
+            version++;
+            expire(now);
+        }
+
+        void expire(long now) {
+            while (panes.size() > maxPanes || (paneMillis > 0 && !panes.isEmpty() && panes.peekFirst().start <= now - windowMillis)) {
+                final FruitCounts expired = panes.pollFirst().counts;
+                for (int i = 0; i < expired.size(); i++) {
+                    final int index = window.add(expired.fruitAt(i), -expired.countAt(i));
+                    if (window.countAt(index) == 0L) {
+                        zeros++;
+                    }
+                }
+                version++;
+            }
+            if (zeros > MIN_COMPACTION && zeros * 2 > window.size()) {
+                window = window.withoutZeros();
+                zeros = 0;
+            }
+        }
+
+        FruitInfo snapshot() {
+            if (snapshotVersion != version) {
+                snapshot = new FruitInfo(zeros == 0 ? window.copy() : window.withoutZeros());
+                snapshotVersion = version;
+            }
+            return snapshot;
+        }
+
+        private Pane paneFor(long now) {
+            final Pane last = panes.peekLast();
+            if (paneMillis == 0) {
+                final Pane pane = new Pane(now);
+                panes.addLast(pane);
+                return pane;
+            }
+            final long start = now - Math.floorMod(now, paneMillis);
+            if (last != null && last.start == start) {
+                return last;
+            }
+            final Pane pane = new Pane(start);
+            panes.addLast(pane);
+            return pane;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.reactivepractice.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(TracingProperties.class)
+public class MetricsConfiguration {
+
+  @Bean
+  public SignalMetrics signalMetrics() {
+    return new SignalMetrics();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "reactive.tracing", name = "enabled", havingValue = "true")
+  public OperatorTracing operatorTracing(TracingProperties properties) {
+    return OperatorTracing.install(properties.getSampleRate(), properties.getTimingInterval());
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "reactive.tracing", name = "enabled", havingValue = "true")
+  public OperatorTracingEndpoint operatorTracingEndpoint(OperatorTracing tracing) {
+    return new OperatorTracingEndpoint(tracing);
+  }
+
+}
@@ -0,0 +1,80 @@
+package com.example.reactivepractice.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * 연산자 하나의 누적 기록. 시간은 마이크로초.
+ */
+public final class OperatorSnapshot {
+
+    private final String operator;
+    private final long hops;
+    private final Latency selfTime;
+    private final Latency queueWait;
+
+    OperatorSnapshot(String operator, long hops, Histogram selfTime, Histogram queueWait) {
+        this.operator = operator;
+        this.hops = hops;
+        this.selfTime = new Latency(selfTime);
+        this.queueWait = new Latency(queueWait);
+    }
+
+    /**
+     * Reactor 의 stepName. (map, publishOn, concatMap, source(FluxRange), lambda ...)
+     */
+    public String getOperator() {
+        return operator;
+    }
+
+    /**
+     * 이 연산자를 지나면서 다른 스레드로 넘어간 onNext 수.
+     */
+    public long getHops() {
+        return hops;
+    }
+
+    /**
+     * 이 연산자의 onNext 안에서 쓴 시간. 아래쪽 추적된 연산자에서 쓴 시간은 뺀다.
+     */
+    public Latency getSelfTime() {
+        return selfTime;
+    }
+
+    /**
+     * publishOn 큐에 들어간 뒤 worker 가 꺼내 아래로 보낼 때까지 기다린 시간. publishOn 이 아니면 비어 있다.
+     */
+    public Latency getQueueWait() {
+        return queueWait;
+    }
+
+    public static final class Latency {
+
+        private final long count;
+        private final double p50;
+        private final double p99;
+        private final double max;
+
+        Latency(Histogram histogram) {
+            this.count = histogram.getTotalCount();
+            this.p50 = histogram.getValueAtPercentile(50) / 1_000.0;
+            this.p99 = histogram.getValueAtPercentile(99) / 1_000.0;
+            this.max = histogram.getMaxValue() / 1_000.0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+}
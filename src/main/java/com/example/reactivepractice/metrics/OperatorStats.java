@@ -0,0 +1,49 @@
+package com.example.reactivepractice.metrics;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * {@link OperatorTracing}이 연산자 이름마다 하나씩 두는 누적 기록. {@link TracingSubscriber}가 구독마다 모은
+ * 값들을 가끔씩 한꺼번에 넣으므로 여기서는 lock 을 써도 onNext 마다 걸리지 않는다.
+ */
+final class OperatorStats {
+
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    final String name;
+    private Histogram selfTime = new Histogram(SIGNIFICANT_DIGITS);
+    private Histogram queueWait = new Histogram(SIGNIFICANT_DIGITS);
+    private long hops;
+
+    OperatorStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void addSelfTimes(long[] nanos, int count) {
+        record(selfTime, nanos, count);
+    }
+
+    synchronized void addQueueWaits(long[] nanos, int count) {
+        record(queueWait, nanos, count);
+    }
+
+    synchronized void addHops(long count) {
+        hops += count;
+    }
+
+    synchronized OperatorSnapshot snapshot() {
+        return new OperatorSnapshot(name, hops, selfTime, queueWait);
+    }
+
+    private static void record(Histogram histogram, long[] nanos, int count) {
+        for (int i = 0; i < count; i++) {
+            histogram.recordValue(Math.max(0L, nanos[i]));
+        }
+    }
+
+    synchronized void reset() {
+        selfTime = new Histogram(SIGNIFICANT_DIGITS);
+        queueWait = new Histogram(SIGNIFICANT_DIGITS);
+        hops = 0L;
+    }
+}
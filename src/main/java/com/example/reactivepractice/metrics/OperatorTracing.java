@@ -0,0 +1,149 @@
+package com.example.reactivepractice.metrics;
+
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Operators;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Hooks#onEachOperator}로 모든 연산자 출력에 {@link TracingSubscriber}를 끼워서, 연산자별 self time,
+ * publishOn 큐 대기 시간, 스레드 hop 수를 HdrHistogram 에 기록한다. 구독마다 모은 기록을 주기적으로 합치므로
+ * {@link #snapshot()}에는 진행 중인 구독의 최근 기록(최대 256 신호 또는 1초)이 빠져 있을 수 있다.
+ * <p>
+ * {@code .log()}나 doOnNext 로 스레드 이름을 찍는 대신 쓴다. 샘플링은 구독 단위로 한다. 구독 체인의 맨 끝 subscriber 를
+ * 기준으로 정하므로 한 체인의 연산자들은 모두 추적되거나 모두 추적되지 않는다. 추적되지 않는 구독에는 아무것도 끼우지
+ * 않아서 onNext 마다 드는 비용이 없고, 구독할 때 체인을 한 번 훑는 비용만 있다. 추적되는 구독은 fusion 이 꺼지고,
+ * 시간은 timingInterval 신호마다 한 번만 잰다.
+ * <p>
+ * hook 은 설치한 뒤에 조립한 연산자에만 걸린다. 동시에 하나만 설치할 수 있다.
+ */
+public final class OperatorTracing implements AutoCloseable {
+
+    static final String HOOK_KEY = OperatorTracing.class.getName();
+    static final int DEFAULT_TIMING_INTERVAL = 16;
+    // 체인의 끝을 찾을 때 따라가는 ACTUAL 의 최대 깊이
+    private static final int MAX_CHAIN_DEPTH = 256;
+    private static final int SAMPLE_BITS = 24;
+
+    private final double sampleRate;
+    private final int timingInterval;
+    private final int sampleThreshold;
+    private final Map<String, OperatorStats> operators = new ConcurrentHashMap<>();
+    private final LongAdder tracedSubscriptions = new LongAdder();
+
+    private OperatorTracing(double sampleRate, int timingInterval) {
+        this.sampleRate = sampleRate;
+        this.timingInterval = timingInterval;
+        this.sampleThreshold = (int) Math.round(sampleRate * (1 << SAMPLE_BITS));
+    }
+
+    /**
+     * hook 을 설치한다. sampleRate 는 추적할 구독의 비율. (0.0 ~ 1.0) 추적하는 구독에서도 시간은 16 신호에 하나만 잰다.
+     */
+    public static OperatorTracing install(double sampleRate) {
+        return install(sampleRate, DEFAULT_TIMING_INTERVAL);
+    }
+
+    /**
+     * timingInterval 은 추적하는 구독에서 시간을 잴 신호 간격. (스레드마다, 2의 거듭제곱) hop 은 간격과 관계없이 모두 센다.
+     */
+    public static OperatorTracing install(double sampleRate, int timingInterval) {
+        if (!(sampleRate >= 0.0 && sampleRate <= 1.0)) {
+            throw new IllegalArgumentException("sampleRate must be between 0 and 1: " + sampleRate);
+        }
+        if (timingInterval <= 0 || Integer.bitCount(timingInterval) != 1) {
+            throw new IllegalArgumentException("timingInterval must be a power of two: " + timingInterval);
+        }
+        final OperatorTracing tracing = new OperatorTracing(sampleRate, timingInterval);
+        Hooks.onEachOperator(HOOK_KEY, Operators.lift(tracing::trace));
+        return tracing;
+    }
+
+    public double sampleRate() {
+        return sampleRate;
+    }
+
+    public int timingInterval() {
+        return timingInterval;
+    }
+
+    /**
+     * 추적한 구독 수.
+     */
+    public long tracedSubscriptions() {
+        return tracedSubscriptions.sum();
+    }
+
+    /**
+     * 연산자 이름순 누적 기록.
+     */
+    public List<OperatorSnapshot> snapshot() {
+        final List<OperatorSnapshot> snapshots = new ArrayList<>(operators.size());
+        operators.values().forEach(stats -> snapshots.add(stats.snapshot()));
+        snapshots.sort(Comparator.comparing(OperatorSnapshot::getOperator));
+        return snapshots;
+    }
+
+    public void reset() {
+        operators.values().forEach(OperatorStats::reset);
+        tracedSubscriptions.reset();
+    }
+
+    /**
+     * hook 을 제거한다. 이미 조립된 연산자에는 계속 걸려 있지만 기록은 이 인스턴스에만 남는다.
+     */
+    @Override
+    public void close() {
+        Hooks.resetOnEachOperator(HOOK_KEY);
+    }
+
+    private <T> CoreSubscriber<? super T> trace(Scannable publisher, CoreSubscriber<? super T> actual) {
+        final Scannable consumer = Scannable.from(actual);
+        Object root = actual;
+        for (int depth = 0; depth < MAX_CHAIN_DEPTH; depth++) {
+            final Object parent = Scannable.from(root).scan(Scannable.Attr.ACTUAL);
+            if (parent == null) {
+                break;
+            }
+            root = parent;
+        }
+        if (!sampled(root)) {
+            return actual;
+        }
+        if (root == actual) {
+            tracedSubscriptions.increment();
+        }
+        final Object downstream = consumer.scan(Scannable.Attr.ACTUAL);
+        final String consumerName = consumer.stepName();
+        return new TracingSubscriber<>(actual,
+                stats(publisher.stepName()),
+                stats(consumerName),
+                timingInterval,
+                downstream instanceof TracingSubscriber ? (TracingSubscriber<?>) downstream : null,
+                "publishOn".equals(consumerName));
+    }
+
+    private boolean sampled(Object root) {
+        if (sampleThreshold >= 1 << SAMPLE_BITS) {
+            return true;
+        }
+        if (sampleThreshold <= 0) {
+            return false;
+        }
+        // identityHashCode 를 섞어서 [0, 2^24) 에 고르게 펼친다.
+        int hash = System.identityHashCode(root) * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (hash & ((1 << SAMPLE_BITS) - 1)) < sampleThreshold;
+    }
+
+    private OperatorStats stats(String name) {
+        return operators.computeIfAbsent(name, OperatorStats::new);
+    }
+}
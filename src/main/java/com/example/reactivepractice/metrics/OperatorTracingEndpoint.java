@@ -0,0 +1,36 @@
+package com.example.reactivepractice.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * GET /actuator/operatortracing 으로 {@link OperatorTracing}의 기록을 보여주고, DELETE 로 비운다.
+ */
+@Endpoint(id = "operatortracing")
+public class OperatorTracingEndpoint {
+
+    private final OperatorTracing tracing;
+
+    public OperatorTracingEndpoint(OperatorTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @ReadOperation
+    public Map<String, Object> operators() {
+        final Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sampleRate", tracing.sampleRate());
+        body.put("timingInterval", tracing.timingInterval());
+        body.put("tracedSubscriptions", tracing.tracedSubscriptions());
+        body.put("operators", tracing.snapshot());
+        return body;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracing.reset();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.reactivepractice.metrics;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * {@link SignalMetrics#stage(String)}가 끼워 넣는 subscriber. 신호를 세고 그대로 넘긴다.
+ * <p>
+ * Fuseable 원본에 lift 하면 아래 연산자가 Subscription 을 QueueSubscription 으로 캐스팅하므로 QueueSubscription 을 구현하되,
+ * fusion 은 항상 거절한다. fusion 된 poll 경로로는 onNext 가 오지 않아 셀 수 없기 때문이다.
+ */
+final class SignalCountingSubscriber<T> implements CoreSubscriber<T>, Fuseable.QueueSubscription<T>, Scannable {
+
+    private final CoreSubscriber<? super T> actual;
+    private final SignalMetrics.StageCounters counters;
+    private Subscription upstream;
+
+    SignalCountingSubscriber(CoreSubscriber<? super T> actual, SignalMetrics.StageCounters counters) {
+        this.actual = actual;
+        this.counters = counters;
+    }
+
+    @Override
+    public Context currentContext() {
+        return actual.currentContext();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.upstream = s;
+        actual.onSubscribe(this);
+    }
+
+    @Override
+    public void onNext(T t) {
+        counters.next.increment();
+        actual.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        counters.owner.recordError(counters, t);
+        actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+        counters.complete.increment();
+        actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+        upstream.request(n);
+    }
+
+    @Override
+    public void cancel() {
+        counters.cancel.increment();
+        upstream.cancel();
+    }
+
+    @Override
+    public int requestFusion(int requestedMode) {
+        return Fuseable.NONE;
+    }
+
+    @Override
+    @Nullable
+    public T poll() {
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.PARENT) {
+            return upstream;
+        }
+        if (key == Attr.ACTUAL) {
+            return actual;
+        }
+        if (key == Attr.NAME) {
+            return counters.name;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.reactivepractice.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Operators;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 파이프라인 단계(stage)별 onNext / onComplete / onError / cancel 개수와, 에러를 예외 클래스별,
+ * 그 에러를 처리한 복구 연산자별로 센다.
+ * <p>
+ * doOnEach(signal -> log.info(...))는 성공 경로에서도 요소마다 Signal 객체와 toString, SLF4J 포맷 비용을 낸다.
+ * 여기서는 단계의 카운터를 조립할 때 한 번 찾아두고, 신호마다 {@link LongAdder} 하나만 올린다.
+ * 예외 클래스별 카운터는 에러 경로에서만 찾는다.
+ * <p>
+ * {@link MeterBinder}이므로 빈으로 등록하면 actuator 의 /actuator/metrics 에 아래 이름으로 나온다.
+ * <ul>
+ *     <li>{@code reactor.signals} (stage, signal)</li>
+ *     <li>{@code reactor.signals.errors} (stage, exception)</li>
+ *     <li>{@code reactor.signals.recovered} (stage, operator, exception)</li>
+ * </ul>
+ */
+public final class SignalMetrics implements MeterBinder {
+
+    static final String SIGNALS = "reactor.signals";
+    static final String ERRORS = "reactor.signals.errors";
+    static final String RECOVERED = "reactor.signals.recovered";
+
+    private final Map<String, StageCounters> stages = new ConcurrentHashMap<>();
+    private final Map<Key, LongAdder> errors = new ConcurrentHashMap<>();
+    private final Map<Key, LongAdder> recovered = new ConcurrentHashMap<>();
+    private final List<MeterRegistry> registries = new CopyOnWriteArrayList<>();
+
+    /**
+     * {@code flux.transform(metrics.stage("parse"))} 처럼 붙여서 그 위치를 지나는 신호를 센다.
+     */
+    public <T> Function<Publisher<T>, Publisher<T>> stage(String name) {
+        final StageCounters counters = counters(name);
+        final Function<? super Publisher<T>, ? extends Publisher<T>> lift =
+                Operators.lift((scannable, actual) -> new SignalCountingSubscriber<>(actual, counters));
+        return lift::apply;
+    }
+
+    /**
+     * 모든 에러를 받아들이며 name 단계에서 operator 가 처리했다고 기록하는 predicate.
+     * onErrorResume / onErrorReturn / onErrorComplete / onErrorContinue 의 predicate 인자로 넘긴다.
+     */
+    public Predicate<Throwable> handledBy(String stage, String operator) {
+        return handledBy(stage, operator, Throwable.class);
+    }
+
+    /**
+     * type 의 에러만 받아들이는 {@link #handledBy(String, String)}. 받아들이지 않은 에러는 기록하지 않는다.
+     */
+    public Predicate<Throwable> handledBy(String stage, String operator, Class<? extends Throwable> type) {
+        return error -> {
+            if (!type.isInstance(error)) {
+                return false;
+            }
+            recovered.computeIfAbsent(new Key(stage, operator, error.getClass().getName()), this::registerRecovered).increment();
+            return true;
+        };
+    }
+
+    public long nextCount(String stage) {
+        return counters(stage).next.sum();
+    }
+
+    public long completeCount(String stage) {
+        return counters(stage).complete.sum();
+    }
+
+    public long errorCount(String stage) {
+        return counters(stage).error.sum();
+    }
+
+    public long cancelCount(String stage) {
+        return counters(stage).cancel.sum();
+    }
+
+    public long errorCount(String stage, Class<? extends Throwable> type) {
+        final LongAdder adder = errors.get(new Key(stage, null, type.getName()));
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long recoveredCount(String stage, String operator, Class<? extends Throwable> type) {
+        final LongAdder adder = recovered.get(new Key(stage, operator, type.getName()));
+        return adder == null ? 0 : adder.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        registries.add(registry);
+        stages.values().forEach(counters -> register(registry, counters));
+        errors.forEach((key, adder) -> registerError(registry, key, adder));
+        recovered.forEach((key, adder) -> registerRecovered(registry, key, adder));
+    }
+
+    void recordError(StageCounters counters, Throwable error) {
+        counters.error.increment();
+        errors.computeIfAbsent(new Key(counters.name, null, error.getClass().getName()), this::registerError).increment();
+    }
+
+    private StageCounters counters(String name) {
+        return stages.computeIfAbsent(name, this::registerStage);
+    }
+
+    // computeIfAbsent 안에서 한 번만 불리므로 registry 에 같은 meter 를 두 번 만들지 않는다.
+    private StageCounters registerStage(String name) {
+        final StageCounters counters = new StageCounters(this, name);
+        registries.forEach(registry -> register(registry, counters));
+        return counters;
+    }
+
+    private LongAdder registerError(Key key) {
+        final LongAdder adder = new LongAdder();
+        registries.forEach(registry -> registerError(registry, key, adder));
+        return adder;
+    }
+
+    private LongAdder registerRecovered(Key key) {
+        final LongAdder adder = new LongAdder();
+        registries.forEach(registry -> registerRecovered(registry, key, adder));
+        return adder;
+    }
+
+    private static void register(MeterRegistry registry, StageCounters counters) {
+        signal(registry, counters.name, "onNext", counters.next);
+        signal(registry, counters.name, "onComplete", counters.complete);
+        signal(registry, counters.name, "onError", counters.error);
+        signal(registry, counters.name, "cancel", counters.cancel);
+    }
+
+    private static void signal(MeterRegistry registry, String stage, String signal, LongAdder adder) {
+        FunctionCounter.builder(SIGNALS, adder, LongAdder::sum)
+                .tags("stage", stage, "signal", signal)
+                .register(registry);
+    }
+
+    private static void registerError(MeterRegistry registry, Key key, LongAdder adder) {
+        FunctionCounter.builder(ERRORS, adder, LongAdder::sum)
+                .tags("stage", key.stage, "exception", key.exception)
+                .register(registry);
+    }
+
+    private static void registerRecovered(MeterRegistry registry, Key key, LongAdder adder) {
+        FunctionCounter.builder(RECOVERED, adder, LongAdder::sum)
+                .tags("stage", key.stage, "operator", key.operator, "exception", key.exception)
+                .register(registry);
+    }
+
+    static final class StageCounters {
+        final SignalMetrics owner;
+        final String name;
+        final LongAdder next = new LongAdder();
+        final LongAdder complete = new LongAdder();
+        final LongAdder error = new LongAdder();
+        final LongAdder cancel = new LongAdder();
+
+        StageCounters(SignalMetrics owner, String name) {
+            this.owner = owner;
+            this.name = name;
+        }
+    }
+
+    private static final class Key {
+        final String stage;
+        final String operator;
+        final String exception;
+
+        Key(String stage, String operator, String exception) {
+            this.stage = stage;
+            this.operator = operator;
+            this.exception = exception;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return stage.equals(key.stage)
+                    && Objects.equals(operator, key.operator)
+                    && exception.equals(key.exception);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(stage, operator, exception);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.reactivepractice.metrics;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code reactive.tracing.*} 설정. enabled 면 {@link OperatorTracing}을 설치하고 /actuator/operatortracing 으로 보여준다.
+ */
+@ConfigurationProperties(prefix = "reactive.tracing")
+public class TracingProperties {
+
+    private boolean enabled;
+    private double sampleRate = 0.01;
+    private int timingInterval = OperatorTracing.DEFAULT_TIMING_INTERVAL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public int getTimingInterval() {
+        return timingInterval;
+    }
+
+    public void setTimingInterval(int timingInterval) {
+        this.timingInterval = timingInterval;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.reactivepractice.metrics;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OperatorTracing}이 샘플링된 구독의 연산자 출력마다 끼워 넣는 subscriber.
+ * <p>
+ * emitter 는 이 subscriber 앞의 연산자, consumer 는 {@code actual}의 연산자다. onNext 마다
+ * <ul>
+ *     <li>emitter 의 hop: 위쪽 TracingSubscriber 가 마지막으로 onNext 한 스레드와 지금 스레드가 다르면 1</li>
+ *     <li>consumer 의 self time: actual.onNext 전체 시간에서 그 안에서 불린 아래쪽 TracingSubscriber 들의 시간을 뺀 값</li>
+ *     <li>emitter 가 publishOn 이면 그 큐에서 기다린 시간</li>
+ * </ul>
+ * 를 기록한다. hop 은 모든 신호를 세고, 시간은 System.nanoTime 이 신호마다 두 번씩 들어가므로 스레드마다
+ * timingInterval 번째 신호만 잰다. 잴지는 스레드 스택의 맨 바깥 onNext 에서 정하고 그 안에 중첩된 onNext 는 따라가므로,
+ * self time 에서 아래쪽 시간을 뺄 때 빠지는 구간이 없다.
+ * <p>
+ * 값은 구독마다 가진 long 배열에 모았다가 {@link #FLUSH_SIGNALS}개마다, {@link #FLUSH_NANOS}마다, 그리고 끝나거나
+ * 취소될 때 {@link OperatorStats}의 히스토그램에 한꺼번에 넣는다. 신호마다 원자 연산을 여러 번 하는 Recorder 보다 싸고,
+ * 구독마다 히스토그램을 두면 자동 크기 조정이 잦아서 오히려 느리다.
+ * <p>
+ * fusion 된 poll 경로로는 onNext 가 오지 않으므로 SignalCountingSubscriber 처럼 fusion 은 거절한다.
+ */
+final class TracingSubscriber<T> implements CoreSubscriber<T>, Fuseable.QueueSubscription<T>, Scannable {
+
+    static final int FLUSH_SIGNALS = 256;
+    static final long FLUSH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+    // 재지 않은 신호가 publishOn 큐에 들어갔다는 표시. 큐의 순서를 맞추기 위해 넣는다.
+    private static final Long UNTIMED = -1L;
+
+    private final CoreSubscriber<? super T> actual;
+    private final OperatorStats emitter;
+    private final OperatorStats consumer;
+    private final int timingMask;
+    // consumer 뒤의 TracingSubscriber. consumer 가 publishOn 이면 handoff 로 enqueue 시각을 넘긴다.
+    @Nullable
+    private final TracingSubscriber<?> next;
+    private final boolean handoff;
+    private volatile Thread upstreamThread;
+    private volatile Queue<Long> pending;
+    private Subscription upstream;
+
+    // 아래는 this 로 잠그고 쓴다. onNext 는 순서대로 오지만 cancel 은 다른 스레드에서 올 수 있다.
+    private long[] selfTimes;
+    private int selfTimeCount;
+    private long[] queueWaits;
+    private int queueWaitCount;
+    private long hops;
+    private long lastFlush = System.nanoTime();
+
+    /**
+     * @param timingInterval 시간을 잴 신호 간격. 2의 거듭제곱.
+     */
+    TracingSubscriber(CoreSubscriber<? super T> actual, OperatorStats emitter, OperatorStats consumer, int timingInterval,
+                      @Nullable TracingSubscriber<?> next, boolean handoff) {
+        this.actual = actual;
+        this.emitter = emitter;
+        this.consumer = consumer;
+        this.timingMask = timingInterval - 1;
+        this.next = next;
+        this.handoff = handoff && next != null;
+        if (this.handoff) {
+            next.pending = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @Override
+    public Context currentContext() {
+        return actual.currentContext();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.upstream = s;
+        actual.onSubscribe(this);
+    }
+
+    @Override
+    public void onNext(T t) {
+        final Thread current = Thread.currentThread();
+        final Thread previous = upstreamThread;
+        final boolean hopped = previous != null && previous != current;
+        final Frames frames = FRAMES.get();
+        final boolean timed = frames.enter(timingMask);
+
+        long waited = -1L;
+        final Queue<Long> queue = pending;
+        if (queue != null) {
+            final Long enqueuedAt = queue.poll();
+            if (enqueuedAt != null && enqueuedAt >= 0L) {
+                waited = System.nanoTime() - enqueuedAt;
+            }
+        }
+        final long start = timed ? System.nanoTime() : 0L;
+        if (next != null) {
+            // 같은 스레드가 계속 보내는 동안은 volatile 쓰기를 하지 않는다.
+            if (next.upstreamThread != current) {
+                next.upstreamThread = current;
+            }
+            if (handoff) {
+                next.pending.offer(timed ? Long.valueOf(start) : UNTIMED);
+            }
+        }
+
+        try {
+            actual.onNext(t);
+        } finally {
+            if (timed) {
+                final long end = System.nanoTime();
+                final long inclusive = end - start;
+                record(true, inclusive - frames.exit(), waited, hopped, end);
+                frames.addToParent(inclusive);
+            } else {
+                frames.exit();
+                if (waited >= 0L || hopped) {
+                    record(false, 0L, waited, hopped, lastFlush);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        flush(System.nanoTime());
+        actual.onError(t);
+    }
+
+    @Override
+    public void onComplete() {
+        flush(System.nanoTime());
+        actual.onComplete();
+    }
+
+    @Override
+    public void request(long n) {
+        upstream.request(n);
+    }
+
+    @Override
+    public void cancel() {
+        flush(System.nanoTime());
+        upstream.cancel();
+    }
+
+    @Override
+    public int requestFusion(int requestedMode) {
+        return Fuseable.NONE;
+    }
+
+    @Override
+    @Nullable
+    public T poll() {
+        return null;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return true;
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    @Nullable
+    public Object scanUnsafe(Attr key) {
+        if (key == Attr.PARENT) {
+            return upstream;
+        }
+        if (key == Attr.ACTUAL) {
+            return actual;
+        }
+        return null;
+    }
+
+    // waitedNanos 가 음수면 publishOn 대기를 재지 않은 것
+    private synchronized void record(boolean timed, long selfNanos, long waitedNanos, boolean hopped, long now) {
+        if (timed) {
+            selfTimes = append(selfTimes, selfTimeCount++, selfNanos);
+        }
+        if (waitedNanos >= 0L) {
+            queueWaits = append(queueWaits, queueWaitCount++, waitedNanos);
+        }
+        if (hopped) {
+            hops++;
+        }
+        if (selfTimeCount >= FLUSH_SIGNALS || queueWaitCount >= FLUSH_SIGNALS || now - lastFlush >= FLUSH_NANOS) {
+            flush(now);
+        }
+    }
+
+    private synchronized void flush(long now) {
+        lastFlush = now;
+        if (selfTimeCount > 0) {
+            consumer.addSelfTimes(selfTimes, selfTimeCount);
+            selfTimeCount = 0;
+        }
+        if (queueWaitCount > 0) {
+            emitter.addQueueWaits(queueWaits, queueWaitCount);
+            queueWaitCount = 0;
+        }
+        if (hops > 0) {
+            emitter.addHops(hops);
+            hops = 0L;
+        }
+    }
+
+    // 짧은 구독이 큰 배열을 잡지 않도록 16 부터 FLUSH_SIGNALS 까지 늘린다.
+    private static long[] append(@Nullable long[] values, int index, long value) {
+        if (values == null) {
+            values = new long[16];
+        } else if (index == values.length) {
+            values = Arrays.copyOf(values, Math.min(index * 2, FLUSH_SIGNALS));
+        }
+        values[index] = value;
+        return values;
+    }
+
+    // 스레드마다 중첩된 onNext 의 "아래쪽에서 쓴 시간"을 쌓는 스택
+    private static final class Frames {
+        private long[] childNanos = new long[32];
+        private int depth;
+        private long signals;
+        private boolean timed;
+
+        // 맨 바깥 onNext 에서만 이번 신호를 잴지 정한다.
+        boolean enter(int timingMask) {
+            if (depth == 0) {
+                timed = (signals++ & timingMask) == 0;
+            }
+            if (depth == childNanos.length) {
+                childNanos = Arrays.copyOf(childNanos, depth * 2);
+            }
+            childNanos[depth++] = 0L;
+            return timed;
+        }
+
+        long exit() {
+            return childNanos[--depth];
+        }
+
+        void addToParent(long nanos) {
+            if (depth > 0) {
+                childNanos[depth - 1] += nanos;
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.reactivepractice.numeric;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * long 값을 박싱하지 않고 {@code long[]} 묶음(chunk) 단위로 흘려보내는 Flux.
+ * <p>
+ * {@code Flux<Long>}의 range → map → filter → count 는 요소마다 Long 을 만들고, 연산자마다 onNext 를 한 번씩 부른다.
+ * 여기서는 원본이 chunkSize 개씩 long[] 을 채워 보내고, map / filter 는 Flux 연산자를 만들지 않고 하나의 단계로 합쳐 두었다가
+ * chunk 마다 배열 위에서 순서대로 돈다. Reactor 신호는 chunk 당 한 번이고, map 은 제자리에서 값을 바꾸고 filter 는 남는 값을 앞으로
+ * 당긴다.
+ * <ul>
+ *     <li>chunk 배열은 원본이 새로 만든 것이라 단계가 고쳐 써도 된다. {@link #fromChunks}로 받은 배열은 복사해서 쓴다.</li>
+ *     <li>{@code Flux<Long>}과는 {@link #from(Publisher, int)}과 {@link #boxed()}로 오간다. 박싱은 그 경계에서만 일어난다.</li>
+ * </ul>
+ * LongFlux 는 Flux 처럼 불변이고 구독할 때마다 처음부터 다시 돈다.
+ */
+public final class LongFlux {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    private final Flux<Chunk> source;
+    // null 이면 단계 없음
+    private final Stage stage;
+
+    private LongFlux(Flux<Chunk> source, Stage stage) {
+        this.source = source;
+        this.stage = stage;
+    }
+
+    /**
+     * start 부터 count 개의 연속된 값.
+     */
+    public static LongFlux range(long start, long count) {
+        return range(start, count, DEFAULT_CHUNK_SIZE);
+    }
+
+    public static LongFlux range(long start, long count, int chunkSize) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        if (count > 0 && start > Long.MAX_VALUE - (count - 1)) {
+            throw new IllegalArgumentException("start + count overflows long: " + start + " + " + count);
+        }
+        checkChunkSize(chunkSize);
+        return new LongFlux(Flux.<Chunk, Long>generate(() -> 0L, (emitted, sink) -> {
+            if (emitted == count) {
+                sink.complete();
+                return emitted;
+            }
+            final int size = (int) Math.min(chunkSize, count - emitted);
+            final long[] values = new long[size];
+            final long first = start + emitted;
+            for (int i = 0; i < size; i++) {
+                values[i] = first + i;
+            }
+            sink.next(new Chunk(values, size));
+            return emitted + size;
+        }), null);
+    }
+
+    public static LongFlux fromArray(long... values) {
+        return fromArray(values, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * values 를 chunkSize 개씩 복사해서 보낸다. 구독한 뒤에 values 를 바꾸면 아직 보내지 않은 값에 반영된다.
+     */
+    public static LongFlux fromArray(long[] values, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return new LongFlux(Flux.<Chunk, Integer>generate(() -> 0, (from, sink) -> {
+            if (from >= values.length) {
+                sink.complete();
+                return from;
+            }
+            final int to = Math.min(values.length, from + chunkSize);
+            sink.next(new Chunk(Arrays.copyOfRange(values, from, to), to - from));
+            return to;
+        }), null);
+    }
+
+    /**
+     * 이미 묶여 있는 값들. 배열은 복사해서 쓰므로 넘긴 배열은 바뀌지 않는다.
+     */
+    public static LongFlux fromChunks(Publisher<long[]> chunks) {
+        return new LongFlux(Flux.from(chunks).map(values -> new Chunk(values.clone(), values.length)), null);
+    }
+
+    /**
+     * {@code Flux<Long>}을 chunkSize 개씩 모아서 푼다. 원본이 느리면 chunk 가 찰 때까지 기다린다.
+     */
+    public static LongFlux from(Publisher<Long> values, int chunkSize) {
+        checkChunkSize(chunkSize);
+        return new LongFlux(Flux.from(values).buffer(chunkSize).map(LongFlux::unbox), null);
+    }
+
+    public LongFlux map(LongUnaryOperator mapper) {
+        return then(new MapStage(mapper));
+    }
+
+    public LongFlux filter(LongPredicate predicate) {
+        return then(new FilterStage(predicate));
+    }
+
+    public Mono<Long> count() {
+        return chunks().reduce(0L, (count, chunk) -> count + chunk.size);
+    }
+
+    public Mono<Long> sum() {
+        return reduce(0L, Long::sum);
+    }
+
+    /**
+     * identity 에서 시작해서 값마다 accumulator 를 적용한다. 값이 없으면 identity 를 내보낸다.
+     */
+    public Mono<Long> reduce(long identity, LongBinaryOperator accumulator) {
+        return chunks().reduce(identity, (result, chunk) -> {
+            long accumulated = result;
+            final long[] values = chunk.values;
+            for (int i = 0; i < chunk.size; i++) {
+                accumulated = accumulator.applyAsLong(accumulated, values[i]);
+            }
+            return accumulated;
+        });
+    }
+
+    /**
+     * 단계를 거친 값들을 비어 있지 않은 long[] 으로 내보낸다. 배열 길이가 곧 값 개수다.
+     */
+    public Flux<long[]> asChunks() {
+        return chunks().map(chunk -> chunk.size == chunk.values.length ? chunk.values : Arrays.copyOf(chunk.values, chunk.size));
+    }
+
+    /**
+     * {@code Flux<Long>}으로 내보낸다. 여기서부터는 요소마다 박싱된다.
+     */
+    public Flux<Long> boxed() {
+        return chunks().concatMapIterable(chunk -> chunk);
+    }
+
+    private LongFlux then(Stage next) {
+        return new LongFlux(source, stage == null ? next : new ComposedStage(stage, next));
+    }
+
+    // map / filter 를 모두 거치고 값이 남은 chunk
+    private Flux<Chunk> chunks() {
+        if (stage == null) {
+            return source.filter(chunk -> chunk.size > 0);
+        }
+        final Stage stage = this.stage;
+        return source.handle((chunk, sink) -> {
+            chunk.size = stage.apply(chunk.values, chunk.size);
+            if (chunk.size > 0) {
+                sink.next(chunk);
+            }
+        });
+    }
+
+    private static Chunk unbox(List<Long> boxed) {
+        final long[] values = new long[boxed.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = boxed.get(i);
+        }
+        return new Chunk(values, values.length);
+    }
+
+    private static void checkChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+    }
+
+    /**
+     * values 의 앞 size 개가 값이다.
+     */
+    private static final class Chunk implements Iterable<Long> {
+        final long[] values;
+        int size;
+
+        Chunk(long[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        public Iterator<Long> iterator() {
+            return new Iterator<>() {
+                int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Long next() {
+                    if (next >= size) throw new NoSuchElementException();
+                    return values[next++];
+                }
+            };
+        }
+    }
+
+    // values 의 앞 size 개를 처리하고 남은 값 수를 돌려준다. 남은 값은 앞쪽에 둔다.
+    private interface Stage {
+        int apply(long[] values, int size);
+    }
+
+    private static final class MapStage implements Stage {
+        private final LongUnaryOperator mapper;
+
+        MapStage(LongUnaryOperator mapper) {
+            this.mapper = mapper;
+        }
+
+        @Override
+        public int apply(long[] values, int size) {
+            for (int i = 0; i < size; i++) {
+                values[i] = mapper.applyAsLong(values[i]);
+            }
+            return size;
+        }
+    }
+
+    private static final class FilterStage implements Stage {
+        private final LongPredicate predicate;
+
+        FilterStage(LongPredicate predicate) {
+            this.predicate = predicate;
+        }
+
+        @Override
+        public int apply(long[] values, int size) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                final long value = values[i];
+                if (predicate.test(value)) {
+                    values[kept++] = value;
+                }
+            }
+            return kept;
+        }
+    }
+
+    private static final class ComposedStage implements Stage {
+        private final Stage first;
+        private final Stage second;
+
+        ComposedStage(Stage first, Stage second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public int apply(long[] values, int size) {
+            final int remaining = first.apply(values, size);
+            return remaining == 0 ? 0 : second.apply(values, remaining);
+        }
+    }
+}
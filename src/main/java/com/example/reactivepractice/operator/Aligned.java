@@ -0,0 +1,66 @@
+package com.example.reactivepractice.operator;
+
+import reactor.util.annotation.Nullable;
+
+import java.util.Objects;
+
+/**
+ * {@link CombineAligned}가 내보내는 한 쌍. 짝을 못 찾은 요소를 PARTIAL 로 내보내면 한쪽이 null 이다.
+ *
+ * @param <A> 왼쪽 요소 타입
+ * @param <B> 오른쪽 요소 타입
+ */
+public final class Aligned<A, B> {
+
+    private final A left;
+    private final B right;
+
+    Aligned(@Nullable A left, @Nullable B right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    public static <A, B> Aligned<A, B> of(@Nullable A left, @Nullable B right) {
+        return new Aligned<>(left, right);
+    }
+
+    @Nullable
+    public A getLeft() {
+        return left;
+    }
+
+    @Nullable
+    public B getRight() {
+        return right;
+    }
+
+    /**
+     * 양쪽이 모두 있으면 true.
+     */
+    public boolean isComplete() {
+        return left != null && right != null;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Aligned<?, ?> aligned = (Aligned<?, ?>) o;
+
+        return Objects.equals(left, aligned.left) && Objects.equals(right, aligned.right);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(left) + Objects.hashCode(right);
+    }
+
+    @Override
+    public String toString() {
+        return "Aligned{" +
+                "left=" + left +
+                ", right=" + right +
+                '}';
+    }
+}
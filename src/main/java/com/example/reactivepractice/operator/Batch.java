@@ -0,0 +1,34 @@
+package com.example.reactivepractice.operator;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@link MicroBatcher}가 모은 요소 묶음. 다 쓰고 {@link #close()}하면 비워서 pool 로 돌아가 다음 묶음에 다시 쓰인다.
+ * 닫은 뒤에는 내용을 읽으면 안 된다. 여러 번 닫아도 pool 에는 한 번만 돌아간다.
+ *
+ * @param <T> 요소 타입
+ */
+public final class Batch<T> extends ArrayList<T> implements AutoCloseable {
+
+    private final transient BatchBufferPool<T> pool;
+    // 두 번 닫혀서 같은 버퍼가 pool 에 두 번 들어가면 두 묶음이 한 List 를 같이 채우게 된다.
+    private final transient AtomicBoolean released = new AtomicBoolean();
+
+    Batch(int capacity, BatchBufferPool<T> pool) {
+        super(capacity);
+        this.pool = pool;
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            pool.release(this);
+        }
+    }
+
+    // pool 에서 다시 빌려줄 때 부른다.
+    void reuse() {
+        released.set(false);
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.reactivepractice.operator;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 재사용할 {@link Batch} 버퍼를 최대 poolSize 개까지 보관한다. 비어 있으면 새로 만들고, 가득 차 있으면 돌려받은 버퍼를 버린다.
+ *
+ * @param <T> 요소 타입
+ */
+public final class BatchBufferPool<T> {
+
+    private final ArrayBlockingQueue<Batch<T>> free;
+    private final int batchCapacity;
+    private final LongAdder created = new LongAdder();
+
+    public BatchBufferPool(int poolSize, int batchCapacity) {
+        this.free = new ArrayBlockingQueue<>(poolSize);
+        this.batchCapacity = batchCapacity;
+    }
+
+    public Batch<T> acquire() {
+        final Batch<T> batch = free.poll();
+        if (batch != null) {
+            batch.reuse();
+            return batch;
+        }
+        created.increment();
+        return new Batch<>(batchCapacity, this);
+    }
+
+    void release(Batch<T> batch) {
+        batch.clear();
+        free.offer(batch);
+    }
+
+    /**
+     * 지금까지 새로 만든 버퍼 수. 재사용이 잘 되면 pool 크기 근처에서 멈춘다.
+     */
+    public long createdCount() {
+        return created.sum();
+    }
+}
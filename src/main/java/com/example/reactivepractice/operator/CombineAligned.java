@@ -0,0 +1,212 @@
+package com.example.reactivepractice.operator;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+
+/**
+ * 두 스트림을 순번이 아니라 키(타임스탬프 등)로 짝짓는다. 키 차이가 tolerance 이하인 요소끼리 한 쌍이 된다.
+ * <p>
+ * zipWith 는 n 번째끼리 묶으므로 주기가 다른 두 interval 을 묶으면 빠른 쪽이 끝없이 쌓인다. 여기서는 쪽마다
+ * bufferSize 개짜리 버퍼만 두고, 짝을 못 찾은 요소는 {@link Unmatched} 정책으로 처리한다.
+ * <ul>
+ *     <li>반대쪽 키가 이 요소의 키 + tolerance 를 넘어서면 더는 짝이 생길 수 없으므로 짝 없음으로 본다.</li>
+ *     <li>버퍼가 가득 차면 가장 오래된 요소를 짝 없음으로 본다.</li>
+ *     <li>반대쪽이 끝나면 남은 요소와 이후 요소는 모두 짝 없음이다.</li>
+ * </ul>
+ * 각 스트림의 키는 감소하지 않는다고 가정한다. 두 원본은 {@link Flux#mergeComparing}으로 키 순서대로 섞은 뒤 처리하므로 한쪽이 cold 이거나
+ * 더 빨라도 버퍼가 넘치지 않고, 상태에 락이 없다. 대신 반대쪽의 다음 키가 올 때까지 기다리므로, 한쪽이 조용하면 다른 쪽은
+ * prefetch 만큼만 요청받고 멈춘다. 요청을 따르지 않는 hot 원본(interval 등)에는 onBackpressure 전략을 붙인다.
+ *
+ * @param <A> 왼쪽 요소 타입
+ * @param <B> 오른쪽 요소 타입
+ */
+public final class CombineAligned<A, B> {
+
+    /**
+     * 짝을 못 찾은 요소를 다루는 방법.
+     */
+    public enum Unmatched {
+        /** 버리고 {@link #droppedCount()}에 센다. */
+        DROP,
+        /** 반대쪽을 null 로 해서 내보낸다. */
+        PARTIAL,
+        /** 반대쪽에서 마지막으로 받은 요소와 묶어 내보낸다. (zero-order hold) 반대쪽에서 받은 게 없으면 버린다. */
+        HOLD
+    }
+
+    private final ToLongFunction<? super A> leftKey;
+    private final ToLongFunction<? super B> rightKey;
+    private final long tolerance;
+    private final int bufferSize;
+    private final Unmatched policy;
+    private final LongAdder dropped = new LongAdder();
+
+    public CombineAligned(ToLongFunction<? super A> leftKey, ToLongFunction<? super B> rightKey,
+                          long tolerance, int bufferSize, Unmatched policy) {
+        if (tolerance < 0) {
+            throw new IllegalArgumentException("tolerance must not be negative: " + tolerance);
+        }
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.leftKey = leftKey;
+        this.rightKey = rightKey;
+        this.tolerance = tolerance;
+        this.bufferSize = bufferSize;
+        this.policy = policy;
+    }
+
+    public Flux<Aligned<A, B>> combine(Publisher<? extends A> left, Publisher<? extends B> right) {
+        return Flux.defer(() -> {
+            final State state = new State();
+            // 도착 순서가 아니라 키 순서로 섞는다. 양쪽 머리 중 키가 작은 쪽을 먼저 꺼내므로 한쪽이 cold 라도 앞서 달려 나가지 않는다.
+            return Flux.<Object>mergeComparing(Comparator.comparingLong(this::keyOf),
+                            Flux.from(left).<Object>map(Left::new).concatWith(Mono.just(Side.LEFT)),
+                            Flux.from(right).<Object>map(Right::new).concatWith(Mono.just(Side.RIGHT)))
+                    .concatMapIterable(state::onSignal);
+        });
+    }
+
+    /**
+     * 지금까지 DROP(또는 HOLD 에서 반대쪽이 없어) 버린 요소 수. 이 인스턴스로 만든 모든 구독의 합이다.
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    // 끝 표시는 가장 작은 키로 두어서, 그쪽 요소가 모두 나간 바로 다음에 나오게 한다.
+    @SuppressWarnings("unchecked")
+    private long keyOf(Object signal) {
+        if (signal instanceof Left) {
+            return leftKey.applyAsLong((A) ((Left) signal).value);
+        }
+        if (signal instanceof Right) {
+            return rightKey.applyAsLong((B) ((Right) signal).value);
+        }
+        return Long.MIN_VALUE;
+    }
+
+    private enum Side {
+        LEFT, RIGHT
+    }
+
+    private static final class Left {
+        final Object value;
+
+        Left(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Right {
+        final Object value;
+
+        Right(Object value) {
+            this.value = value;
+        }
+    }
+
+    // 구독 하나의 상태. mergeComparing 이 신호를 한 줄로 세우므로 한 번에 한 스레드만 들어온다.
+    private final class State {
+        final ArrayDeque<A> lefts = new ArrayDeque<>(bufferSize);
+        final ArrayDeque<B> rights = new ArrayDeque<>(bufferSize);
+        A lastLeft;
+        B lastRight;
+        boolean leftDone;
+        boolean rightDone;
+
+        @SuppressWarnings("unchecked")
+        List<Aligned<A, B>> onSignal(Object signal) {
+            final List<Aligned<A, B>> out = new ArrayList<>(2);
+            if (signal instanceof Left) {
+                onLeft((A) ((Left) signal).value, out);
+            } else if (signal instanceof Right) {
+                onRight((B) ((Right) signal).value, out);
+            } else if (signal == Side.LEFT) {
+                leftDone = true;
+                while (!rights.isEmpty()) {
+                    unmatchedRight(rights.poll(), out);
+                }
+            } else {
+                rightDone = true;
+                while (!lefts.isEmpty()) {
+                    unmatchedLeft(lefts.poll(), out);
+                }
+            }
+            return out.isEmpty() ? Collections.emptyList() : out;
+        }
+
+        void onLeft(A value, List<Aligned<A, B>> out) {
+            final long key = leftKey.applyAsLong(value);
+            while (!rights.isEmpty() && rightKey.applyAsLong(rights.peek()) < key - tolerance) {
+                unmatchedRight(rights.poll(), out);
+            }
+            if (!rights.isEmpty() && rightKey.applyAsLong(rights.peek()) <= key + tolerance) {
+                out.add(new Aligned<>(value, rights.poll()));
+            } else if (rightDone) {
+                unmatchedLeft(value, out);
+            } else {
+                if (lefts.size() == bufferSize) {
+                    unmatchedLeft(lefts.poll(), out);
+                }
+                lefts.offer(value);
+            }
+            // 이 요소 때문에 밀려난 오른쪽 요소는 그 전까지의 왼쪽 값과 묶이도록 마지막에 바꾼다.
+            lastLeft = value;
+        }
+
+        void onRight(B value, List<Aligned<A, B>> out) {
+            final long key = rightKey.applyAsLong(value);
+            while (!lefts.isEmpty() && leftKey.applyAsLong(lefts.peek()) < key - tolerance) {
+                unmatchedLeft(lefts.poll(), out);
+            }
+            if (!lefts.isEmpty() && leftKey.applyAsLong(lefts.peek()) <= key + tolerance) {
+                out.add(new Aligned<>(lefts.poll(), value));
+            } else if (leftDone) {
+                unmatchedRight(value, out);
+            } else {
+                if (rights.size() == bufferSize) {
+                    unmatchedRight(rights.poll(), out);
+                }
+                rights.offer(value);
+            }
+            lastRight = value;
+        }
+
+        void unmatchedLeft(A value, List<Aligned<A, B>> out) {
+            emitUnmatched(value, null, lastRight, true, out);
+        }
+
+        void unmatchedRight(B value, List<Aligned<A, B>> out) {
+            emitUnmatched(null, value, lastLeft, false, out);
+        }
+
+        @SuppressWarnings("unchecked")
+        void emitUnmatched(@Nullable A left, @Nullable B right, @Nullable Object held, boolean isLeft, List<Aligned<A, B>> out) {
+            switch (policy) {
+                case PARTIAL:
+                    out.add(new Aligned<>(left, right));
+                    return;
+                case HOLD:
+                    if (held != null) {
+                        out.add(isLeft ? new Aligned<>(left, (B) held) : new Aligned<>((A) held, right));
+                        return;
+                    }
+                    dropped.increment();
+                    return;
+                default:
+                    dropped.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.reactivepractice.operator;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * {@link DeadLetterRing}에 기록된 실패 요소 하나.
+ * <p>
+ * stack trace 를 남기지 않도록 설정하면 예외 객체는 들고 있지 않고 클래스 이름과 메시지만 남긴다.
+ *
+ * @param <T> 요소 타입
+ */
+public final class DeadLetter<T> {
+
+    private final long sequence;
+    private final T value;
+    private final String errorType;
+    private final String message;
+    private final Throwable error;
+
+    DeadLetter(long sequence, T value, String errorType, @Nullable String message, @Nullable Throwable error) {
+        this.sequence = sequence;
+        this.value = value;
+        this.errorType = errorType;
+        this.message = message;
+        this.error = error;
+    }
+
+    /**
+     * 기록된 순번. 0부터 증가하며, 링에서 밀려난 것까지 포함한 전체 순번이다.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public String getErrorType() {
+        return errorType;
+    }
+
+    @Nullable
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * stack trace 를 남기도록 했을 때만 원래 예외, 아니면 null.
+     */
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetter{" +
+                "sequence=" + sequence +
+                ", value=" + value +
+                ", errorType='" + errorType + '\'' +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
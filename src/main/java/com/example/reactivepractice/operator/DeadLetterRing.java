@@ -0,0 +1,205 @@
+package com.example.reactivepractice.operator;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 처리에 실패한 요소와 에러를 최근 capacity 개까지 들고 있는 링 버퍼. 여러 스레드에서 동시에 기록해도 된다.
+ * <p>
+ * 순번은 {@link AtomicLong} 하나로 매기고, 슬롯은 getAndSet 으로 바꾸므로 락이 없다.
+ * 링이 가득 차서 밀려난 기록은 spill 파일을 지정했으면 한 줄씩 덧붙이고, 아니면 버리고 {@link #evictedCount()}에 센다.
+ * 파일 쓰기는 기록하는 스레드(보통 Reactor 스레드)에서 하지 않는다. 밀려난 기록은 capacity 크기의 큐에 넣고
+ * boundedElastic worker 가 꺼내서 쓴다. 큐가 가득 찼거나 쓰다가 실패한 기록은 예외를 던지지 않고 {@link #spillFailedCount()}에 센다.
+ * <p>
+ * captureStackTraces 를 끄면 예외 객체를 들고 있지 않아서 stack trace 가 old gen 에 쌓이지 않는다.
+ * 예외를 만들 때의 stack trace 비용 자체를 없애려면 {@link SkipAndRecord#skipInvalid}처럼 예외 없이 실패를 알리거나,
+ * stack trace 를 채우지 않는 {@link PoisonMessageException}을 던진다.
+ *
+ * @param <T> 요소 타입
+ */
+public final class DeadLetterRing<T> implements Closeable {
+
+    private final AtomicReferenceArray<DeadLetter<T>> slots;
+    private final int mask;
+    private final boolean captureStackTraces;
+    private final FileChannel spill;
+    private final ArrayBlockingQueue<DeadLetter<T>> pending;
+    private final Scheduler spillWorker = Schedulers.boundedElastic();
+    private final AtomicInteger spillWip = new AtomicInteger();
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder spillFailed = new LongAdder();
+
+    private DeadLetterRing(int capacity, boolean captureStackTraces, @Nullable FileChannel spill) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.captureStackTraces = captureStackTraces;
+        this.spill = spill;
+        this.pending = spill == null ? null : new ArrayBlockingQueue<>(size);
+    }
+
+    /**
+     * 힙에만 기록한다. capacity 는 2의 거듭제곱으로 올림한다.
+     */
+    public static <T> DeadLetterRing<T> inMemory(int capacity, boolean captureStackTraces) {
+        return new DeadLetterRing<>(capacity, captureStackTraces, null);
+    }
+
+    /**
+     * 밀려난 기록을 file 끝에 {@code sequence \t errorType \t message \t value} 형식의 한 줄로 덧붙인다.
+     */
+    public static <T> DeadLetterRing<T> spillingTo(Path file, int capacity, boolean captureStackTraces) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return new DeadLetterRing<>(capacity, captureStackTraces, channel);
+    }
+
+    public void record(T value, Throwable error) {
+        store(value, error.getClass().getName(), error.getMessage(), captureStackTraces ? error : null);
+    }
+
+    /**
+     * 예외 없이 실패 이유만 기록한다.
+     */
+    public void record(T value, String reason) {
+        store(value, "invalid", reason, null);
+    }
+
+    /**
+     * 지금 링에 남아 있는 기록을 순번 순서로 복사해서 돌려준다.
+     */
+    public List<DeadLetter<T>> snapshot() {
+        final List<DeadLetter<T>> letters = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            final DeadLetter<T> letter = slots.get(i);
+            if (letter != null) {
+                letters.add(letter);
+            }
+        }
+        letters.sort(Comparator.comparingLong(DeadLetter::getSequence));
+        return letters;
+    }
+
+    /**
+     * 지금까지 기록된 전체 수. (밀려난 것 포함)
+     */
+    public long recordedCount() {
+        return sequence.get();
+    }
+
+    /**
+     * 링에서 밀려난 수. spill 파일이 있으면 파일에 쓴 수, 쓰지 못한 수({@link #spillFailedCount()}), 아직 쓰기를 기다리는 수의 합이다.
+     */
+    public long evictedCount() {
+        return evicted.sum();
+    }
+
+    /**
+     * spill 큐가 가득 차서 버렸거나 파일에 쓰다가 실패한 기록 수.
+     */
+    public long spillFailedCount() {
+        return spillFailed.sum();
+    }
+
+    /**
+     * 쓰기를 기다리는 밀려난 기록을 지금 스레드에서 파일에 쓴다. 파일을 읽기 전에 부른다. 블로킹하므로 Reactor 스레드에서 부르지 않는다.
+     */
+    public void flush() {
+        if (spill != null) {
+            synchronized (spill) {
+                writePending();
+            }
+        }
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (spill != null) {
+            synchronized (spill) {
+                writePending();
+                for (DeadLetter<T> letter : snapshot()) {
+                    spill(letter);
+                }
+                spill.close();
+            }
+        }
+    }
+
+    private void store(T value, String errorType, @Nullable String message, @Nullable Throwable error) {
+        final long seq = sequence.getAndIncrement();
+        final DeadLetter<T> previous = slots.getAndSet((int) (seq & mask), new DeadLetter<>(seq, value, errorType, message, error));
+        if (previous != null) {
+            evicted.increment();
+            if (spill != null) {
+                if (!pending.offer(previous)) {
+                    spillFailed.increment();
+                } else if (spillWip.getAndIncrement() == 0) {
+                    spillWorker.schedule(this::drainSpill);
+                }
+            }
+        }
+    }
+
+    // spillWorker 에서 돈다. 도는 동안 들어온 기록은 missed 로 이어서 쓴다.
+    private void drainSpill() {
+        int missed = 1;
+        do {
+            synchronized (spill) {
+                writePending();
+            }
+            missed = spillWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // spill 락 안에서 부른다.
+    private void writePending() {
+        DeadLetter<T> letter;
+        while ((letter = pending.poll()) != null) {
+            spill(letter);
+        }
+    }
+
+    private void spill(DeadLetter<T> letter) {
+        final String line = letter.getSequence() + "\t" + letter.getErrorType() + "\t" + escape(letter.getMessage())
+                + "\t" + escape(String.valueOf(letter.getValue())) + "\n";
+        final ByteBuffer bytes = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (bytes.hasRemaining()) {
+                spill.write(bytes);
+            }
+        } catch (IOException e) {
+            spillFailed.increment();
+        }
+    }
+
+    private static String escape(@Nullable String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.reactivepractice.operator;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuple3;
+import reactor.util.function.Tuples;
+
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+/**
+ * 한 번의 구독, 한 번의 순회로 여러 reducer(Collector)를 동시에 계산한다.
+ * <p>
+ * publish().autoConnect(n)은 구독자가 n개 모일 때까지 연결하지 않아서 한쪽만 구독하면 멈추고,
+ * 요소마다 publish 큐를 거쳐 구독자들 사이의 요청량을 맞춘다. 여기서는 onNext 하나에서 모든 누적기를 바로 갱신하므로
+ * 추가 큐가 없고 원본(예: WebClient 응답)은 정확히 한 번만 읽힌다.
+ */
+public final class FanOut {
+
+    private FanOut() {
+    }
+
+    public static <T, A, B> Mono<Tuple2<A, B>> collect(Publisher<T> source,
+                                                       Collector<? super T, ?, A> first,
+                                                       Collector<? super T, ?, B> second) {
+        return Flux.from(source)
+                .collect(combine(first, second))
+                .map(results -> Tuples.of(result(results, 0), result(results, 1)));
+    }
+
+    public static <T, A, B, C> Mono<Tuple3<A, B, C>> collect(Publisher<T> source,
+                                                             Collector<? super T, ?, A> first,
+                                                             Collector<? super T, ?, B> second,
+                                                             Collector<? super T, ?, C> third) {
+        return Flux.from(source)
+                .collect(combine(first, second, third))
+                .map(results -> Tuples.of(result(results, 0), result(results, 1), result(results, 2)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R result(Object[] results, int index) {
+        return (R) results[index];
+    }
+
+    /**
+     * 여러 Collector를 하나로 묶는다. 누적 상태는 Collector별 상태 배열 하나다.
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    static <T> Collector<T, Object[], Object[]> combine(Collector<? super T, ?, ?>... collectors) {
+        final int n = collectors.length;
+        final Supplier<Object>[] suppliers = new Supplier[n];
+        final BiConsumer<Object, T>[] accumulators = new BiConsumer[n];
+        final BinaryOperator<Object>[] combiners = new BinaryOperator[n];
+        final Function<Object, Object>[] finishers = new Function[n];
+        for (int i = 0; i < n; i++) {
+            final Collector<T, Object, Object> collector = (Collector<T, Object, Object>) collectors[i];
+            suppliers[i] = collector.supplier();
+            accumulators[i] = collector.accumulator();
+            combiners[i] = collector.combiner();
+            finishers[i] = collector.finisher();
+        }
+        return Collector.of(
+                () -> {
+                    final Object[] containers = new Object[n];
+                    for (int i = 0; i < n; i++) {
+                        containers[i] = suppliers[i].get();
+                    }
+                    return containers;
+                },
+                (containers, value) -> {
+                    for (int i = 0; i < n; i++) {
+                        accumulators[i].accept(containers[i], value);
+                    }
+                },
+                (left, right) -> {
+                    for (int i = 0; i < n; i++) {
+                        left[i] = combiners[i].apply(left[i], right[i]);
+                    }
+                    return left;
+                },
+                containers -> {
+                    final Object[] results = new Object[n];
+                    for (int i = 0; i < n; i++) {
+                        results[i] = finishers[i].apply(containers[i]);
+                    }
+                    return results;
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.reactivepractice.operator;
+
+import java.util.Objects;
+
+/**
+ * {@link KeyedProcess}가 내보내는 키와 그 키의 상태.
+ *
+ * @param <K> 키 타입
+ * @param <S> 상태 타입
+ */
+public final class Keyed<K, S> {
+
+    private final K key;
+    private final S state;
+
+    Keyed(K key, S state) {
+        this.key = key;
+        this.state = state;
+    }
+
+    public static <K, S> Keyed<K, S> of(K key, S state) {
+        return new Keyed<>(key, state);
+    }
+
+    public K getKey() {
+        return key;
+    }
+
+    public S getState() {
+        return state;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Keyed<?, ?> keyed = (Keyed<?, ?>) o;
+
+        return Objects.equals(key, keyed.key) && Objects.equals(state, keyed.state);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(key) + Objects.hashCode(state);
+    }
+
+    @Override
+    public String toString() {
+        return "Keyed{" +
+                "key=" + key +
+                ", state=" + state +
+                '}';
+    }
+}
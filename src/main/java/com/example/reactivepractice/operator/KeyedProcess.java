@@ -0,0 +1,103 @@
+package com.example.reactivepractice.operator;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 키별 상태를 갱신하는 처리를 키 수와 상관없이 고정된 수의 shard 로 나눠서 한다.
+ * <p>
+ * {@code groupBy(key).concatMap(group -> group.count())}는 키마다 GroupedFlux 와 큐를 만들고, concatMap 이 첫 그룹이 끝날
+ * 때까지 다음 그룹을 구독하지 않으므로 키가 groupBy 버퍼보다 많으면 멈춘다. 여기서는 키의 해시로 shard 를 정해서
+ * {@code groupBy(shard)}로 나누므로 그룹은 shards 개뿐이고 flatMap 이 처음부터 모두 구독한다. shard 마다 publishOn 으로 한
+ * worker 에서만 돌고 키별 상태는 shard 가 가진 평범한 {@link HashMap}에 둔다.
+ * <ul>
+ *     <li>같은 키는 항상 같은 shard 로 가고 shard 안에서는 순서대로 처리되므로 키별 순서가 유지된다.</li>
+ *     <li>서로 다른 shard 의 결과는 섞여서 나온다. 전체 순서는 보장하지 않는다.</li>
+ * </ul>
+ * 상태는 구독마다 새로 만든다. update 가 상태 객체를 고쳐서 그대로 돌려줘도 되지만, 그러면 이미 내보낸 {@link Keyed}의 상태도 바뀐다.
+ *
+ * @param <T> 요소 타입
+ * @param <K> 키 타입
+ * @param <S> 키별 상태 타입
+ */
+public final class KeyedProcess<T, K, S> {
+
+    private final Function<? super T, ? extends K> keySelector;
+    private final Function<? super K, ? extends S> initialState;
+    private final BiFunction<S, ? super T, S> update;
+    private final int shards;
+    private final Scheduler scheduler;
+
+    public KeyedProcess(Function<? super T, ? extends K> keySelector,
+                        Function<? super K, ? extends S> initialState,
+                        BiFunction<S, ? super T, S> update) {
+        this(keySelector, initialState, update, Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    public KeyedProcess(Function<? super T, ? extends K> keySelector,
+                        Function<? super K, ? extends S> initialState,
+                        BiFunction<S, ? super T, S> update,
+                        int shards, Scheduler scheduler) {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("shards must be positive: " + shards);
+        }
+        this.keySelector = keySelector;
+        this.initialState = initialState;
+        this.update = update;
+        this.shards = shards;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * 요소마다 갱신된 키의 상태를 내보낸다.
+     */
+    public Flux<Keyed<K, S>> process(Publisher<? extends T> source) {
+        return sharded(source, shard -> {
+            final Map<K, S> states = new HashMap<>();
+            return shard.map(value -> {
+                final K key = keySelector.apply(value);
+                final S state = update.apply(states.computeIfAbsent(key, initialState), value);
+                states.put(key, state);
+                return Keyed.of(key, state);
+            });
+        });
+    }
+
+    /**
+     * source 가 끝나면 키마다 마지막 상태를 한 번씩 내보낸다.
+     */
+    public Flux<Keyed<K, S>> finalStates(Publisher<? extends T> source) {
+        return sharded(source, shard -> shard
+                .reduceWith(HashMap<K, S>::new, (states, value) -> {
+                    final K key = keySelector.apply(value);
+                    states.put(key, update.apply(states.computeIfAbsent(key, initialState), value));
+                    return states;
+                })
+                .flatMapIterable(Map::entrySet)
+                .map(entry -> Keyed.of(entry.getKey(), entry.getValue())));
+    }
+
+    public int shards() {
+        return shards;
+    }
+
+    private <R> Flux<R> sharded(Publisher<? extends T> source, Function<Flux<T>, Flux<R>> perShard) {
+        return Flux.<T>from(source)
+                .groupBy(this::shardOf)
+                // 그룹은 최대 shards 개이므로 모두 동시에 구독해도 연산자 수가 키 수에 따라 늘지 않는다.
+                .flatMap(shard -> perShard.apply(shard.publishOn(scheduler)), shards, Queues.SMALL_BUFFER_SIZE);
+    }
+
+    private int shardOf(T value) {
+        final int h = keySelector.apply(value).hashCode() * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), shards);
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.reactivepractice.operator;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 빠르게 들어오는 요소를 크기(maxSize) 또는 시간(maxWait) 기준으로 묶어서 한 번에 넘긴다.
+ * <p>
+ * 요소마다 publishOn 큐를 거치고 delayElements 타이머를 거는 대신, 묶음마다 한 번만 스케줄링한다.
+ * 묶음 버퍼는 {@link BatchBufferPool}에서 빌려 쓰고 소비가 끝나면 돌려주므로 묶음마다 List 를 새로 만들지 않는다.
+ * <p>
+ * bufferTimeout 은 타이머가 묶음을 닫았을 때 받는 쪽 요청량이 없으면 에러를 내므로 쓰지 않는다. 여기서는 닫힌 묶음이 요청을
+ * 기다리고, 그동안 원본에는 더 요청하지 않는다. 원본에 요청해 둔 양은 채우는 중인 묶음의 남은 자리를 넘지 않는다.
+ *
+ * @param <T> 요소 타입
+ */
+public final class MicroBatcher<T> {
+
+    private final int maxSize;
+    private final Duration maxWait;
+    private final Scheduler timer;
+    private final BatchBufferPool<T> pool;
+
+    public MicroBatcher(int maxSize, Duration maxWait) {
+        this(maxSize, maxWait, Schedulers.parallel(), 16);
+    }
+
+    public MicroBatcher(int maxSize, Duration maxWait, Scheduler timer, int poolSize) {
+        this.maxSize = maxSize;
+        this.maxWait = maxWait;
+        this.timer = timer;
+        this.pool = new BatchBufferPool<>(poolSize, maxSize);
+    }
+
+    /**
+     * 묶음을 그대로 내보낸다. 받는 쪽에서 다 쓴 묶음은 반드시 {@link Batch#close()}해야 pool 로 돌아간다.
+     * 받는 쪽이 느리면 maxWait 이 지난 묶음도 요청이 올 때까지 기다린다. 기다리는 묶음은 둘, 채우는 중인 묶음은 하나를 넘지 않는다.
+     */
+    public Flux<Batch<T>> batch(Publisher<T> source) {
+        return Flux.create(sink -> {
+            final Batching batching = new Batching(sink);
+            sink.onDispose(batching::cancel);
+            Flux.from(source).subscribe(batching);
+            sink.onRequest(n -> batching.drain());
+        });
+    }
+
+    /**
+     * 묶음마다 consumer 를 호출하고 끝나면 버퍼를 돌려준다. consumer 에 넘긴 List 는 호출이 끝난 뒤에는 쓰면 안 된다.
+     */
+    public Mono<Void> consume(Publisher<T> source, Consumer<? super List<T>> consumer) {
+        return batch(source)
+                .doOnNext(batch -> {
+                    try {
+                        consumer.accept(batch);
+                    } finally {
+                        batch.close();
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * 비동기 consumer 용. 묶음 하나의 처리가 끝나야 다음 묶음을 넘기고, 끝나면 버퍼를 돌려준다.
+     * 처리 중인 묶음 외에는 하나만 미리 받아 두므로 빌려 간 버퍼 수가 늘어나지 않는다.
+     */
+    public Mono<Void> consumeAsync(Publisher<T> source, Function<? super List<T>, ? extends Publisher<?>> consumer) {
+        return batch(source)
+                .concatMap(batch -> Flux.from(consumer.apply(batch)).doFinally(signal -> batch.close()).then(), 1)
+                .then();
+    }
+
+    public BatchBufferPool<T> pool() {
+        return pool;
+    }
+
+    // 구독 하나의 묶음 상태. 상태는 this 락 안에서 바꾸고, 내보내기와 원본 요청은 wip 로 한 스레드만 락 밖에서 한다.
+    private final class Batching implements CoreSubscriber<T> {
+        private final FluxSink<Batch<T>> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        // 닫혀서 요청을 기다리는 묶음
+        private final ArrayDeque<Batch<T>> ready = new ArrayDeque<>();
+        private volatile Subscription upstream;
+        private Batch<T> current;
+        // current 의 maxWait 이 지났다. ready 가 비면 닫는다.
+        private boolean expired;
+        private Disposable timeout;
+        // 원본에 요청했지만 아직 받지 않은 수
+        private long outstanding;
+        private boolean done;
+        private Throwable error;
+        private boolean cancelled;
+
+        Batching(FluxSink<Batch<T>> sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            final boolean cancel;
+            synchronized (this) {
+                cancel = cancelled;
+                upstream = s;
+            }
+            if (cancel) {
+                s.cancel();
+            } else {
+                drain();
+            }
+        }
+
+        @Override
+        public void onNext(T value) {
+            final Batch<T> started;
+            synchronized (this) {
+                if (cancelled) {
+                    return;
+                }
+                outstanding--;
+                started = current == null ? current = pool.acquire() : null;
+                current.add(value);
+                if (current.size() == maxSize) {
+                    seal();
+                }
+            }
+            if (started != null) {
+                schedule(started);
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            synchronized (this) {
+                error = t;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (current != null) {
+                    seal();
+                }
+                done = true;
+            }
+            drain();
+        }
+
+        void cancel() {
+            final Subscription s;
+            synchronized (this) {
+                cancelled = true;
+                s = upstream;
+                releaseAll();
+            }
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                for (;;) {
+                    Batch<T> next = null;
+                    Throwable failed = null;
+                    boolean complete = false;
+                    long want = 0;
+                    synchronized (this) {
+                        if (cancelled) {
+                            break;
+                        }
+                        if (error != null) {
+                            failed = error;
+                            cancelled = true;
+                            releaseAll();
+                        } else {
+                            if (expired && ready.isEmpty()) {
+                                seal();
+                            }
+                            final boolean demand = sink.requestedFromDownstream() > 0;
+                            if (demand && !ready.isEmpty()) {
+                                next = ready.poll();
+                            } else if (done && ready.isEmpty()) {
+                                complete = true;
+                                cancelled = true;
+                            } else if (demand && ready.isEmpty() && upstream != null) {
+                                want = maxSize - (current == null ? 0 : current.size()) - outstanding;
+                                outstanding += Math.max(want, 0);
+                            }
+                        }
+                    }
+                    if (next != null) {
+                        sink.next(next);
+                        continue;
+                    }
+                    if (failed != null) {
+                        sink.error(failed);
+                    } else if (complete) {
+                        sink.complete();
+                    } else if (want > 0) {
+                        // 동기 원본이면 여기서 onNext 가 불리고, 그 drain 은 missed 로 이 루프가 이어받는다.
+                        upstream.request(want);
+                    }
+                    break;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void schedule(Batch<T> batch) {
+            final Disposable task = timer.schedule(() -> expire(batch), maxWait.toNanos(), TimeUnit.NANOSECONDS);
+            synchronized (this) {
+                if (current == batch && timeout == null) {
+                    timeout = task;
+                    return;
+                }
+            }
+            // 타이머를 거는 사이에 이미 닫혔다.
+            task.dispose();
+        }
+
+        private void expire(Batch<T> batch) {
+            synchronized (this) {
+                if (current != batch) {
+                    return;
+                }
+                expired = true;
+            }
+            drain();
+        }
+
+        // current 를 닫아서 ready 뒤에 붙인다. 락 안에서 부른다.
+        private void seal() {
+            ready.addLast(current);
+            current = null;
+            expired = false;
+            if (timeout != null) {
+                timeout.dispose();
+                timeout = null;
+            }
+        }
+
+        // 내보내지 못한 묶음을 pool 로 돌려준다. 락 안에서 부른다.
+        private void releaseAll() {
+            if (current != null) {
+                seal();
+            }
+            Batch<T> batch;
+            while ((batch = ready.poll()) != null) {
+                batch.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.reactivepractice.operator;
+
+/**
+ * stack trace 를 채우지 않는 가벼운 예외. 처리할 수 없는 요소를 알리는 데만 쓴다.
+ * <p>
+ * 예외를 만들 때 비용의 대부분은 fillInStackTrace 이므로, 요소마다 실패할 수 있는 경로에서는 이 예외를 던진다.
+ */
+public class PoisonMessageException extends RuntimeException {
+
+    public PoisonMessageException(String message) {
+        super(message, null, false, false);
+    }
+}
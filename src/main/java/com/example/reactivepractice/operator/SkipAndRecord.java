@@ -0,0 +1,50 @@
+package com.example.reactivepractice.operator;
+
+import reactor.core.publisher.Flux;
+
+import java.util.function.Function;
+
+/**
+ * onErrorContinue 대신 쓰는 연산자들. 실패한 요소는 그 자리에서 버리고 {@link DeadLetterRing}에 기록한 뒤 다음 요소를 처리한다.
+ * <p>
+ * onErrorContinue 는 위쪽 연산자가 지원해야 동작하고 Context 로 전략을 전달하므로 어디에 붙이느냐에 따라 결과가 달라진다.
+ * 여기서는 handle 하나 안에서 변환과 실패 처리를 함께 하므로 연산자 지원이나 Context 에 기대지 않는다.
+ */
+public final class SkipAndRecord {
+
+    private SkipAndRecord() {
+    }
+
+    /**
+     * {@code flux.transform(SkipAndRecord.skipAndRecord(mapper, ring))}. mapper 가 던진 RuntimeException 만 기록하고 건너뛴다.
+     * mapper 가 null 을 돌려주면 요소를 내보내지 않는다.
+     */
+    public static <T, R> Function<Flux<T>, Flux<R>> skipAndRecord(Function<? super T, ? extends R> mapper, DeadLetterRing<? super T> deadLetters) {
+        return flux -> flux.handle((value, sink) -> {
+            final R result;
+            try {
+                result = mapper.apply(value);
+            } catch (RuntimeException e) {
+                deadLetters.record(value, e);
+                return;
+            }
+            if (result != null) {
+                sink.next(result);
+            }
+        });
+    }
+
+    /**
+     * 예외 없이 검사한다. validator 는 통과면 null, 아니면 실패 이유를 돌려준다. 실패 경로에서 예외를 만들지 않는다.
+     */
+    public static <T> Function<Flux<T>, Flux<T>> skipInvalid(Function<? super T, String> validator, DeadLetterRing<? super T> deadLetters) {
+        return flux -> flux.handle((value, sink) -> {
+            final String reason = validator.apply(value);
+            if (reason == null) {
+                sink.next(value);
+            } else {
+                deadLetters.record(value, reason);
+            }
+        });
+    }
+}
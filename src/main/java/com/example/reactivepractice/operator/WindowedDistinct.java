@@ -0,0 +1,95 @@
+package com.example.reactivepractice.operator;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 메모리가 한정된 distinct. 본 키를 최대 maxSize 개, window 동안만 기억한다.
+ * <p>
+ * Flux.distinct()는 본 키를 스트림이 끝날 때까지 모두 들고 있다. 여기서는 오래된 키부터 잊으므로, 잊은 뒤에 같은 키가
+ * 다시 오면 한 번 더 내보낸다. 키가 maxSize 종류 이하이고 window 안에 다시 나타나는 한 Flux.distinct()와 결과가 같다.
+ * 키를 다시 보면 그 시각부터 window 를 다시 잰다.
+ *
+ * @param <T> 요소 타입
+ * @param <K> 중복을 판단할 키 타입
+ */
+public final class WindowedDistinct<T, K> {
+
+    private final Function<? super T, ? extends K> keySelector;
+    private final int maxSize;
+    private final long windowMillis;
+    private final Scheduler clock;
+
+    public WindowedDistinct(Function<? super T, ? extends K> keySelector, int maxSize, Duration window) {
+        this(keySelector, maxSize, window, Schedulers.parallel());
+    }
+
+    /**
+     * @param clock window 를 잴 시계. 테스트에서는 VirtualTimeScheduler 를 넘긴다.
+     */
+    public WindowedDistinct(Function<? super T, ? extends K> keySelector, int maxSize, Duration window, Scheduler clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("window must be positive: " + window);
+        }
+        this.keySelector = keySelector;
+        this.maxSize = maxSize;
+        this.windowMillis = window.toMillis();
+        this.clock = clock;
+    }
+
+    public static <T> WindowedDistinct<T, T> of(int maxSize, Duration window) {
+        return new WindowedDistinct<>(Function.identity(), maxSize, window);
+    }
+
+    public Flux<T> distinct(Publisher<? extends T> source) {
+        return Flux.defer(() -> {
+            final SeenKeys<K> seen = new SeenKeys<>(maxSize, windowMillis);
+            return Flux.<T>from(source).filter(value -> seen.firstTime(keySelector.apply(value), now()));
+        });
+    }
+
+    private long now() {
+        return clock.now(TimeUnit.MILLISECONDS);
+    }
+
+    // 마지막으로 본 시각 순서(access order)의 LinkedHashMap. 맨 앞이 가장 오래된 키다.
+    private static final class SeenKeys<K> extends LinkedHashMap<K, Long> {
+        private final int capacity;
+        private final long windowMillis;
+
+        SeenKeys(int capacity, long windowMillis) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+            this.windowMillis = windowMillis;
+        }
+
+        boolean firstTime(K key, long now) {
+            expire(now);
+            return put(key, now) == null;
+        }
+
+        private void expire(long now) {
+            final Iterator<Map.Entry<K, Long>> oldest = entrySet().iterator();
+            while (oldest.hasNext() && now - oldest.next().getValue() >= windowMillis) {
+                oldest.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, Long> eldest) {
+            return size() > capacity;
+        }
+    }
+}
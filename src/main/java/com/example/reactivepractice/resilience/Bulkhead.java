@@ -0,0 +1,162 @@
+package com.example.reactivepractice.resilience;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 동시에 구독 중인 원본 수를 maxConcurrent 로 제한하고, 넘치는 구독은 최대 maxWaiting 개까지 줄 세운다.
+ * 대기열까지 차면 원본을 구독하지 않고 바로 {@link BulkheadFullException}으로 끝난다.
+ * <p>
+ * 실행 수와 대기 수는 {@link AtomicInteger}, 대기열은 {@link ConcurrentLinkedQueue}라 락이 없다.
+ * 대기 중인 구독이 취소되면 상태를 CAS 로 바꿔두고, 대기열에서는 나중에 꺼낼 때 건너뛴다.
+ * 대기열은 한 번에 한 스레드만 꺼내는 work-in-progress 루프로 비우고, 줄 선 구독이 있으면 새 구독도 줄 뒤에 선다.
+ */
+public final class Bulkhead {
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int CANCELLED = 2;
+    private static final int RELEASED = 3;
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxWaiting;
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Queue<Permit> queue = new ConcurrentLinkedQueue<>();
+    // drain 을 한 스레드만 돌게 한다. 자리를 준 구독이 바로 끝나서 다시 drain 을 불러도 재귀하지 않고 바깥 루프가 이어서 돈다.
+    private final AtomicInteger wip = new AtomicInteger();
+
+    public Bulkhead(String name, int maxConcurrent, int maxWaiting) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("maxConcurrent must be positive: " + maxConcurrent);
+        }
+        if (maxWaiting < 0) {
+            throw new IllegalArgumentException("maxWaiting must not be negative: " + maxWaiting);
+        }
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWaiting = maxWaiting;
+    }
+
+    /**
+     * 자리가 나면 source 를 구독하고, source 가 끝나거나 취소되면 자리를 돌려준다.
+     * 자리는 완료/에러 신호를 아래로 넘기기 전에 돌려주므로, 아래쪽이 완료를 받은 시점에는 이미 비어 있다.
+     * <p>
+     * 자리를 받은 직후 source 를 구독하기 전에 취소되면 then 이 source 를 구독하지 않으므로 source 에 건 훅은 불리지 않는다.
+     * 그래서 취소는 acquire 부터 이어진 전체 체인의 doFinally 에서 돌려준다. release 는 한 번만 자리를 돌려준다.
+     */
+    public <T> Flux<T> protect(Publisher<T> source) {
+        return Flux.defer(() -> {
+            final Permit permit = new Permit();
+            return acquire(permit)
+                    .thenMany(Flux.from(source).doOnTerminate(permit::release))
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    public <T> Mono<T> protect(Mono<T> source) {
+        return Mono.defer(() -> {
+            final Permit permit = new Permit();
+            return acquire(permit)
+                    .then(source.doOnTerminate(permit::release))
+                    .doFinally(signal -> permit.release());
+        });
+    }
+
+    public int runningCount() {
+        return running.get();
+    }
+
+    public int waitingCount() {
+        return waiting.get();
+    }
+
+    private Mono<Void> acquire(Permit permit) {
+        // 줄 선 구독이 있으면 새치기하지 않는다.
+        if (queue.isEmpty() && tryAcquire()) {
+            permit.set(GRANTED);
+            return Mono.empty();
+        }
+        return Mono.create(sink -> {
+            if (waiting.incrementAndGet() > maxWaiting) {
+                waiting.decrementAndGet();
+                sink.error(new BulkheadFullException(name));
+                return;
+            }
+            permit.sink = sink;
+            sink.onCancel(permit::cancel);
+            queue.offer(permit);
+            // 줄을 서는 사이에 자리가 났을 수 있다.
+            drain();
+        });
+    }
+
+    private boolean tryAcquire() {
+        for (;;) {
+            final int current = running.get();
+            if (current >= maxConcurrent) {
+                return false;
+            }
+            if (running.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (!queue.isEmpty() && tryAcquire()) {
+                final Permit next = queue.poll();
+                if (next != null && next.grant()) {
+                    continue;
+                }
+                // 취소된 대기였다. 자리를 돌려주고 다시 확인한다.
+                running.decrementAndGet();
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void releaseSlot() {
+        running.decrementAndGet();
+        drain();
+    }
+
+    // 구독 하나의 자리. WAITING -> GRANTED -> RELEASED 또는 WAITING -> CANCELLED 로만 바뀐다.
+    private final class Permit extends AtomicInteger {
+        MonoSink<Void> sink;
+
+        boolean grant() {
+            if (!compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            waiting.decrementAndGet();
+            sink.success();
+            return true;
+        }
+
+        // 자리를 받은 뒤의 취소는 MonoCreate 가 무시하므로 protect 의 doFinally 가 돌려준다.
+        void cancel() {
+            if (compareAndSet(WAITING, CANCELLED)) {
+                waiting.decrementAndGet();
+            }
+        }
+
+        void release() {
+            if (compareAndSet(GRANTED, RELEASED)) {
+                releaseSlot();
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.reactivepractice.resilience;
+
+/**
+ * {@link Bulkhead}의 동시 실행 수와 대기열이 모두 찼을 때 내보내는 예외. stack trace 는 채우지 않는다.
+ */
+public class BulkheadFullException extends RuntimeException {
+
+    public BulkheadFullException(String name) {
+        super("Bulkhead '" + name + "' is full", null, false, false);
+    }
+}
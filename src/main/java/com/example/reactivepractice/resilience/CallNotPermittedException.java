@@ -0,0 +1,12 @@
+package com.example.reactivepractice.resilience;
+
+/**
+ * {@link CircuitBreaker}가 열려 있어서 원본을 구독하지 않고 바로 실패할 때 내보내는 예외.
+ * 요청마다 만들어지므로 stack trace 는 채우지 않는다.
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    public CallNotPermittedException(String name) {
+        super("CircuitBreaker '" + name + "' is open", null, false, false);
+    }
+}
@@ -0,0 +1,354 @@
+package com.example.reactivepractice.resilience;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * 최근 windowSize 번 호출의 실패율로 열리고 닫히는 circuit breaker.
+ * <p>
+ * CLOSED 에서 실패율이 threshold 이상이 되면 OPEN 이 되고, openDuration 동안은 원본을 구독하지 않고 바로
+ * {@link CallNotPermittedException}으로 끝난다. 그 뒤 HALF_OPEN 에서 halfOpenCalls 번만 시험 삼아 통과시키고,
+ * 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN 이 된다.
+ * <p>
+ * 상태는 불변 {@link Snapshot} 하나에 담아 {@link AtomicReference}의 CAS 로 바꾼다. 최근 호출 결과는 long 하나의
+ * 비트로 들고 있으므로 windowSize 는 64 이하다.
+ * <p>
+ * 상태가 바뀔 때마다 세대(generation)가 하나 늘고, 호출은 허용받은 세대를 기억한다. 결과는 그 세대가 아직 이어지고 있을 때만
+ * 기록하므로, CLOSED 에서 시작해서 HALF_OPEN 중에 끝난 호출이 시험 호출로 세어지지 않는다. 시험 호출이 아닌 호출이 취소되어도
+ * 시험 허용 수는 늘지 않는다.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openMillis;
+    private final int halfOpenCalls;
+    private final Predicate<? super Throwable> recordFailure;
+    private final Scheduler clock;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(Snapshot.closed(0L));
+
+    private CircuitBreaker(Builder builder) {
+        this.name = builder.name;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = builder.minimumCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.openMillis = builder.openDuration.toMillis();
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.recordFailure = builder.recordFailure;
+        this.clock = builder.clock;
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * 구독할 때 호출이 허용되면 source 를 구독하고, 완료/에러를 결과로 기록한다. 허용되지 않으면 바로 CallNotPermittedException.
+     * 결과 없이 취소된 호출은 기록하지 않는다.
+     */
+    public <T> Flux<T> protect(Publisher<T> source) {
+        return Flux.defer(() -> {
+            final Snapshot admitted = tryAcquirePermission();
+            if (admitted == null) {
+                return Flux.error(new CallNotPermittedException(name));
+            }
+            final Call call = new Call(admitted);
+            return Flux.from(source)
+                    .doOnComplete(call::success)
+                    .doOnError(call::failure)
+                    .doOnCancel(call::cancel);
+        });
+    }
+
+    public <T> Mono<T> protect(Mono<T> source) {
+        return Mono.defer(() -> {
+            final Snapshot admitted = tryAcquirePermission();
+            if (admitted == null) {
+                return Mono.error(new CallNotPermittedException(name));
+            }
+            final Call call = new Call(admitted);
+            return source
+                    .doOnSuccess(value -> call.success())
+                    .doOnError(call::failure)
+                    .doOnCancel(call::cancel);
+        });
+    }
+
+    public State state() {
+        final Snapshot current = snapshot.get();
+        if (current.state == State.OPEN && now() - current.openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return current.state;
+    }
+
+    /**
+     * CLOSED 창에 기록된 호출 중 실패 비율. 기록이 없으면 0.
+     */
+    public double failureRate() {
+        final Snapshot current = snapshot.get();
+        return current.size == 0 ? 0 : (double) current.failures / current.size;
+    }
+
+    // 호출을 허용한 상태를 돌려준다. 허용하지 않으면 null.
+    Snapshot tryAcquirePermission() {
+        for (;;) {
+            final Snapshot current = snapshot.get();
+            final Snapshot next;
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (now() - current.openedAt < openMillis) {
+                        return null;
+                    }
+                    next = Snapshot.halfOpen(halfOpenCalls - 1, current.generation + 1);
+                    break;
+                default:
+                    if (current.permits == 0) {
+                        return null;
+                    }
+                    next = current.withPermits(current.permits - 1);
+            }
+            if (snapshot.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    void onResult(long generation, boolean failed) {
+        for (;;) {
+            final Snapshot current = snapshot.get();
+            if (current.generation != generation) {
+                // 허용받은 뒤 상태가 바뀌었다. 지난 세대의 결과는 기록하지 않는다.
+                return;
+            }
+            final Snapshot next;
+            switch (current.state) {
+                case CLOSED:
+                    final Snapshot recorded = current.record(failed, windowSize);
+                    next = recorded.size >= minimumCalls && (double) recorded.failures / recorded.size >= failureRateThreshold
+                            ? Snapshot.open(now(), current.generation + 1)
+                            : recorded;
+                    break;
+                case HALF_OPEN:
+                    if (failed) {
+                        next = Snapshot.open(now(), current.generation + 1);
+                    } else if (current.successes + 1 >= halfOpenCalls) {
+                        next = Snapshot.closed(current.generation + 1);
+                    } else {
+                        next = current.withSuccess();
+                    }
+                    break;
+                default:
+                    // OPEN 에서는 호출을 허용하지 않으므로 이 세대의 결과는 없다.
+                    return;
+            }
+            if (snapshot.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    // HALF_OPEN 에서 결과 없이 끝난 시험 호출의 허용을 같은 세대 안에서만 돌려준다.
+    void onCancel(long generation) {
+        for (;;) {
+            final Snapshot current = snapshot.get();
+            if (current.state != State.HALF_OPEN || current.generation != generation) {
+                return;
+            }
+            if (snapshot.compareAndSet(current, current.withPermits(current.permits + 1))) {
+                return;
+            }
+        }
+    }
+
+    private long now() {
+        return (clock != null ? clock : Schedulers.parallel()).now(TimeUnit.MILLISECONDS);
+    }
+
+    // 구독 하나의 결과를 허용받은 세대에 한 번만 기록한다.
+    private final class Call extends AtomicBoolean {
+        final long generation;
+        final boolean trial;
+
+        Call(Snapshot admitted) {
+            this.generation = admitted.generation;
+            this.trial = admitted.state == State.HALF_OPEN;
+        }
+
+        void success() {
+            if (compareAndSet(false, true)) {
+                onResult(generation, false);
+            }
+        }
+
+        void failure(Throwable error) {
+            if (compareAndSet(false, true)) {
+                onResult(generation, recordFailure.test(error));
+            }
+        }
+
+        void cancel() {
+            if (compareAndSet(false, true) && trial) {
+                onCancel(generation);
+            }
+        }
+    }
+
+    private static final class Snapshot {
+        final State state;
+        // 상태가 바뀔 때마다 하나씩 는다. CLOSED 에서 결과를 기록할 때는 그대로다.
+        final long generation;
+        // CLOSED: 최근 결과 비트(1 = 실패), 기록 수, 실패 수, 다음에 쓸 비트 위치
+        final long outcomes;
+        final int size;
+        final int failures;
+        final int position;
+        // OPEN: 열린 시각
+        final long openedAt;
+        // HALF_OPEN: 남은 시험 호출 허용 수, 성공한 시험 호출 수
+        final int permits;
+        final int successes;
+
+        private Snapshot(State state, long generation, long outcomes, int size, int failures, int position, long openedAt, int permits, int successes) {
+            this.state = state;
+            this.generation = generation;
+            this.outcomes = outcomes;
+            this.size = size;
+            this.failures = failures;
+            this.position = position;
+            this.openedAt = openedAt;
+            this.permits = permits;
+            this.successes = successes;
+        }
+
+        static Snapshot closed(long generation) {
+            return new Snapshot(State.CLOSED, generation, 0L, 0, 0, 0, 0L, 0, 0);
+        }
+
+        static Snapshot open(long now, long generation) {
+            return new Snapshot(State.OPEN, generation, 0L, 0, 0, 0, now, 0, 0);
+        }
+
+        static Snapshot halfOpen(int permits, long generation) {
+            return new Snapshot(State.HALF_OPEN, generation, 0L, 0, 0, 0, 0L, permits, 0);
+        }
+
+        Snapshot record(boolean failed, int windowSize) {
+            final long bit = 1L << position;
+            final boolean evictedFailure = size == windowSize && (outcomes & bit) != 0;
+            final long nextOutcomes = failed ? outcomes | bit : outcomes & ~bit;
+            final int nextFailures = failures - (evictedFailure ? 1 : 0) + (failed ? 1 : 0);
+            return new Snapshot(State.CLOSED, generation, nextOutcomes, Math.min(size + 1, windowSize), nextFailures,
+                    (position + 1) % windowSize, 0L, 0, 0);
+        }
+
+        Snapshot withPermits(int permits) {
+            return new Snapshot(state, generation, outcomes, size, failures, position, openedAt, permits, successes);
+        }
+
+        Snapshot withSuccess() {
+            return new Snapshot(state, generation, outcomes, size, failures, position, openedAt, permits, successes + 1);
+        }
+    }
+
+    public static final class Builder {
+        private final String name;
+        private int windowSize = 20;
+        private int minimumCalls = 10;
+        private double failureRateThreshold = 0.5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenCalls = 3;
+        private Predicate<? super Throwable> recordFailure = error -> true;
+        private Scheduler clock;
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        /**
+         * 실패율을 계산할 최근 호출 수. 1 ~ 64.
+         */
+        public Builder windowSize(int windowSize) {
+            if (windowSize < 1 || windowSize > Long.SIZE) {
+                throw new IllegalArgumentException("windowSize must be in [1, 64]: " + windowSize);
+            }
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * 창에 이만큼 기록되기 전에는 열리지 않는다. windowSize 이하여야 한다.
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            if (minimumCalls <= 0) {
+                throw new IllegalArgumentException("minimumCalls must be positive: " + minimumCalls);
+            }
+            this.minimumCalls = minimumCalls;
+            return this;
+        }
+
+        public Builder failureRateThreshold(double failureRateThreshold) {
+            if (failureRateThreshold <= 0 || failureRateThreshold > 1) {
+                throw new IllegalArgumentException("failureRateThreshold must be in (0, 1]: " + failureRateThreshold);
+            }
+            this.failureRateThreshold = failureRateThreshold;
+            return this;
+        }
+
+        public Builder openDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+            return this;
+        }
+
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            if (halfOpenCalls <= 0) {
+                throw new IllegalArgumentException("halfOpenCalls must be positive: " + halfOpenCalls);
+            }
+            this.halfOpenCalls = halfOpenCalls;
+            return this;
+        }
+
+        /**
+         * 실패로 셀 에러. 나머지 에러는 그대로 내보내되 성공으로 기록한다.
+         */
+        public Builder recordFailure(Predicate<? super Throwable> recordFailure) {
+            this.recordFailure = recordFailure;
+            return this;
+        }
+
+        /**
+         * openDuration 을 잴 시계. 기본은 Schedulers.parallel().
+         */
+        public Builder clock(Scheduler clock) {
+            this.clock = clock;
+            return this;
+        }
+
+        /**
+         * @throws IllegalArgumentException minimumCalls 가 windowSize 보다 커서 열릴 수 없을 때
+         */
+        public CircuitBreaker build() {
+            if (minimumCalls > windowSize) {
+                throw new IllegalArgumentException("minimumCalls " + minimumCalls + " must not exceed windowSize " + windowSize);
+            }
+            return new CircuitBreaker(this);
+        }
+    }
+}
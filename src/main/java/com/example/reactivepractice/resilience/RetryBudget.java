@@ -0,0 +1,57 @@
+package com.example.reactivepractice.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 재시도에 쓰는 토큰 버킷. 파이프라인 하나(또는 같은 다운스트림을 부르는 여러 파이프라인)가 공유한다.
+ * <p>
+ * 토큰은 최대 capacity 개까지 쌓이고 refillInterval(1ms 이상, ms 단위로 자른다)마다 하나씩 찬다. 다운스트림이 오래 죽어 있으면 토큰이 바닥나서
+ * 모든 인스턴스가 한꺼번에 재시도하며 장애를 키우는 일을 막는다.
+ * <p>
+ * 상태는 "버킷이 다시 가득 차는 시각" 하나로 두고 CAS 로 갱신한다. (GCRA) 시간은 호출하는 쪽이 넘기므로
+ * 가상 시간 테스트에서도 그대로 쓸 수 있다.
+ */
+public final class RetryBudget {
+
+    private final long intervalMillis;
+    private final long burstMillis;
+    // 이 시각이 되면 버킷이 가득 찬다. now 보다 작으면 이미 가득 찬 상태다.
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE / 2);
+
+    public RetryBudget(int capacity, Duration refillInterval) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        // 시간을 ms 단위로 받으므로 1ms 보다 짧으면 0으로 잘려서 토큰이 끝없이 나온다.
+        if (refillInterval.toMillis() < 1) {
+            throw new IllegalArgumentException("refillInterval must be at least 1ms: " + refillInterval);
+        }
+        this.intervalMillis = refillInterval.toMillis();
+        this.burstMillis = intervalMillis * capacity;
+    }
+
+    /**
+     * 토큰이 있으면 하나 쓰고 true.
+     */
+    public boolean tryAcquire(long nowMillis) {
+        for (;;) {
+            final long current = fullAt.get();
+            final long next = Math.max(current, nowMillis) + intervalMillis;
+            if (next - nowMillis > burstMillis) {
+                return false;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * nowMillis 기준으로 남은 토큰 수.
+     */
+    public int available(long nowMillis) {
+        final long used = Math.max(fullAt.get(), nowMillis) - nowMillis;
+        return (int) ((burstMillis - used) / intervalMillis);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.reactivepractice.resilience;
+
+/**
+ * {@link RetryBudget}에 토큰이 없어서 재시도하지 않고 원래 에러로 끝낼 때 내보내는 예외. 원래 에러는 cause 로 들어 있다.
+ */
+public class RetryBudgetExhaustedException extends RuntimeException {
+
+    public RetryBudgetExhaustedException(Throwable cause) {
+        super("Retry budget exhausted", cause);
+    }
+}
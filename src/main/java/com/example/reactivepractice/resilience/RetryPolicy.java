@@ -0,0 +1,181 @@
+package com.example.reactivepractice.resilience;
+
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * 지수 backoff + jitter + {@link RetryBudget}로 재시도하는 정책.
+ * <p>
+ * retry(n)은 에러가 나면 바로 다시 구독해서 처음부터 다시 받는다. 여기서는 n 번째 연속 재시도를
+ * {@code min(maxBackoff, minBackoff * 2^n)}에서 jitter 만큼 줄인 시간 뒤에 하고, 예산에 토큰이 없으면 재시도하지 않는다.
+ * 재시도 사이에 요소를 하나라도 받았으면 연속 횟수는 0부터 다시 센다.
+ * <p>
+ * 원본이 offset 부터 다시 읽을 수 있으면 {@link #resumeFrom(long, LongFunction)}으로 이미 내보낸 요소를 다시 받지 않는다.
+ */
+public final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+    private final double jitter;
+    private final RetryBudget budget;
+    private final Scheduler scheduler;
+    private final DoubleSupplier random;
+    private final Predicate<? super Throwable> retryOn;
+
+    private RetryPolicy(Builder builder) {
+        this.maxAttempts = builder.maxAttempts;
+        this.minBackoff = builder.minBackoff;
+        this.maxBackoff = builder.maxBackoff;
+        this.jitter = builder.jitter;
+        this.budget = builder.budget;
+        this.scheduler = builder.scheduler;
+        this.random = builder.random;
+        this.retryOn = builder.retryOn;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * {@code flux.retryWhen(policy.toRetry())}.
+     */
+    public Retry toRetry() {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            final Throwable failure = signal.failure();
+            final long attempt = signal.totalRetriesInARow();
+            if (!retryOn.test(failure)) {
+                return Mono.error(failure);
+            }
+            if (attempt >= maxAttempts) {
+                return Mono.error(Exceptions.retryExhausted("Retries exhausted: " + attempt + "/" + maxAttempts, failure));
+            }
+            final Scheduler timer = timer();
+            if (budget != null && !budget.tryAcquire(timer.now(TimeUnit.MILLISECONDS))) {
+                return Mono.error(new RetryBudgetExhaustedException(failure));
+            }
+            return Mono.delay(backoff(attempt), timer);
+        }));
+    }
+
+    public <T> Flux<T> apply(Publisher<T> source) {
+        return Flux.from(source).retryWhen(toRetry());
+    }
+
+    /**
+     * source 에 다음에 읽을 offset 을 넘겨서 구독하고, 실패하면 마지막으로 내보낸 요소 다음 offset 부터 다시 구독한다.
+     * 요소 하나가 offset 하나라고 가정한다.
+     */
+    public <T> Flux<T> resumeFrom(long offset, LongFunction<? extends Publisher<T>> source) {
+        return Flux.defer(() -> {
+            final AtomicLong next = new AtomicLong(offset);
+            return Flux.defer(() -> source.apply(next.get()))
+                    .doOnNext(value -> next.incrementAndGet())
+                    .retryWhen(toRetry());
+        });
+    }
+
+    /**
+     * attempt 번째 연속 재시도 전에 기다릴 시간.
+     */
+    Duration backoff(long attempt) {
+        final long min = minBackoff.toMillis();
+        final long max = maxBackoff.toMillis();
+        // 2^attempt 가 넘치지 않도록 max 를 넘으면 바로 자른다.
+        final long exponential = attempt >= 62 || min << attempt >>> attempt != min ? max : Math.min(max, min << attempt);
+        final long jittered = exponential - (long) (exponential * jitter * random.getAsDouble());
+        return Duration.ofMillis(Math.max(min, jittered));
+    }
+
+    private Scheduler timer() {
+        // 기본값을 구독 시점에 가져와야 StepVerifier.withVirtualTime 이 바꿔 끼운 scheduler 를 쓴다.
+        return scheduler != null ? scheduler : Schedulers.parallel();
+    }
+
+    public static final class Builder {
+        private int maxAttempts = 3;
+        private Duration minBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(10);
+        private double jitter = 0.5;
+        private RetryBudget budget;
+        private Scheduler scheduler;
+        private DoubleSupplier random = () -> ThreadLocalRandom.current().nextDouble();
+        private Predicate<? super Throwable> retryOn = error -> true;
+
+        private Builder() {
+        }
+
+        /**
+         * 요소를 받지 못한 채 연속으로 재시도할 최대 횟수.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        public Builder backoff(Duration minBackoff, Duration maxBackoff) {
+            if (minBackoff.compareTo(maxBackoff) > 0) {
+                throw new IllegalArgumentException("minBackoff " + minBackoff + " > maxBackoff " + maxBackoff);
+            }
+            this.minBackoff = minBackoff;
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * 0 이면 jitter 없음, 1 이면 backoff 를 minBackoff 와 계산된 값 사이에서 고른다.
+         */
+        public Builder jitter(double jitter) {
+            if (jitter < 0 || jitter > 1) {
+                throw new IllegalArgumentException("jitter must be in [0, 1]: " + jitter);
+            }
+            this.jitter = jitter;
+            return this;
+        }
+
+        public Builder budget(@Nullable RetryBudget budget) {
+            this.budget = budget;
+            return this;
+        }
+
+        /**
+         * backoff 를 기다리고 예산의 시간을 재는 scheduler. 기본은 Schedulers.parallel().
+         */
+        public Builder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * [0, 1) 난수. 테스트에서 jitter 를 고정할 때 쓴다.
+         */
+        public Builder random(DoubleSupplier random) {
+            this.random = random;
+            return this;
+        }
+
+        public Builder retryOn(Predicate<? super Throwable> retryOn) {
+            this.retryOn = retryOn;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
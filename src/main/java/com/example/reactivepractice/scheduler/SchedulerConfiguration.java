@@ -0,0 +1,16 @@
+package com.example.reactivepractice.scheduler;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(SchedulerProperties.class)
+public class SchedulerConfiguration {
+
+  @Bean
+  public SchedulerProfile schedulerProfile(SchedulerProperties properties) {
+    return SchedulerProfile.from(properties);
+  }
+
+}
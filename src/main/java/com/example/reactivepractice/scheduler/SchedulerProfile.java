@@ -0,0 +1,102 @@
+package com.example.reactivepractice.scheduler;
+
+import com.example.reactivepractice.scheduler.SchedulerProperties.BlockingType;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 호출하는 곳마다 Schedulers.parallel() / boundedElastic() / elastic() 을 고르는 대신 쓰는 이름 붙은 scheduler 묶음.
+ * <ul>
+ *     <li>{@link #cpu()}: CPU 작업. 블로킹 호출을 하면 안 된다.</li>
+ *     <li>{@link #blocking()}: 블로킹 I/O. bounded elastic 이거나 작업마다 virtual thread 를 쓴다.</li>
+ *     <li>{@link #timer()}: delayElements, interval, timeout 같은 시간 연산자. 시간이 된 뒤의 무거운 작업은 cpu 로 옮긴다.</li>
+ * </ul>
+ * bounded elastic 은 스레드 수가 기본 CPU 코어 수 × 10 으로 막혀서, 블로킹 호출이 그보다 많이 겹치면 큐에서 기다린다.
+ * virtual thread 는 블로킹하는 동안 carrier 스레드를 놓아주므로 이 상한이 없다. virtual thread 는 리플렉션으로 찾기 때문에
+ * 없는 JDK 에서도 컴파일되고, 그때는 {@link #blockingType()}이 BOUNDED_ELASTIC 이 된다.
+ */
+public final class SchedulerProfile implements AutoCloseable {
+
+    private final Scheduler cpu;
+    private final Scheduler blocking;
+    private final Scheduler timer;
+    private final BlockingType blockingType;
+
+    private SchedulerProfile(Scheduler cpu, Scheduler blocking, Scheduler timer, BlockingType blockingType) {
+        this.cpu = cpu;
+        this.blocking = blocking;
+        this.timer = timer;
+        this.blockingType = blockingType;
+    }
+
+    public static SchedulerProfile from(SchedulerProperties properties) {
+        final Scheduler cpu = Schedulers.newParallel("cpu", properties.getCpuParallelism());
+        final Scheduler timer = Schedulers.newParallel("timer", properties.getTimerThreads());
+        if (properties.getBlocking() == BlockingType.VIRTUAL) {
+            final Optional<ExecutorService> virtual = virtualThreadPerTaskExecutor();
+            if (virtual.isPresent()) {
+                return new SchedulerProfile(cpu, Schedulers.fromExecutorService(virtual.get(), "blocking-virtual"), timer, BlockingType.VIRTUAL);
+            }
+        }
+        final Scheduler blocking = Schedulers.newBoundedElastic(
+                properties.getBlockingMaxThreads(), properties.getBlockingMaxQueued(), "blocking");
+        return new SchedulerProfile(cpu, blocking, timer, BlockingType.BOUNDED_ELASTIC);
+    }
+
+    /**
+     * 이 JDK 에 virtual thread 가 있는지. (Executors.newVirtualThreadPerTaskExecutor)
+     */
+    public static boolean virtualThreadsAvailable() {
+        return virtualThreadFactoryMethod().isPresent();
+    }
+
+    public Scheduler cpu() {
+        return cpu;
+    }
+
+    public Scheduler blocking() {
+        return blocking;
+    }
+
+    public Scheduler timer() {
+        return timer;
+    }
+
+    /**
+     * 실제로 쓰고 있는 blocking scheduler 종류. VIRTUAL 로 설정했어도 지원하지 않는 JDK 면 BOUNDED_ELASTIC.
+     */
+    public BlockingType blockingType() {
+        return blockingType;
+    }
+
+    @Override
+    public void close() {
+        cpu.dispose();
+        blocking.dispose();
+        timer.dispose();
+    }
+
+    private static Optional<ExecutorService> virtualThreadPerTaskExecutor() {
+        return virtualThreadFactoryMethod().map(method -> {
+            try {
+                return (ExecutorService) method.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // preview 기능이라 막혀 있는 경우 (JDK 19, 20에서 --enable-preview 없이 실행)
+                return null;
+            }
+        });
+    }
+
+    private static Optional<Method> virtualThreadFactoryMethod() {
+        try {
+            return Optional.of(Executors.class.getMethod("newVirtualThreadPerTaskExecutor"));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.reactivepractice.scheduler;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@code reactive.schedulers.*} 설정. {@link SchedulerProfile}을 만들 때 쓴다.
+ */
+@ConfigurationProperties(prefix = "reactive.schedulers")
+public class SchedulerProperties {
+
+    public enum BlockingType {
+        /**
+         * Schedulers.newBoundedElastic. 스레드 수가 blockingMaxThreads 로 제한된다.
+         */
+        BOUNDED_ELASTIC,
+        /**
+         * 작업마다 virtual thread 를 하나씩 쓴다. virtual thread 가 없는 JDK 에서는 BOUNDED_ELASTIC 으로 대신한다.
+         */
+        VIRTUAL
+    }
+
+    private int cpuParallelism = Schedulers.DEFAULT_POOL_SIZE;
+    private int timerThreads = 1;
+    private BlockingType blocking = BlockingType.BOUNDED_ELASTIC;
+    private int blockingMaxThreads = Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE;
+    private int blockingMaxQueued = Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE;
+
+    public int getCpuParallelism() {
+        return cpuParallelism;
+    }
+
+    public void setCpuParallelism(int cpuParallelism) {
+        this.cpuParallelism = cpuParallelism;
+    }
+
+    public int getTimerThreads() {
+        return timerThreads;
+    }
+
+    public void setTimerThreads(int timerThreads) {
+        this.timerThreads = timerThreads;
+    }
+
+    public BlockingType getBlocking() {
+        return blocking;
+    }
+
+    public void setBlocking(BlockingType blocking) {
+        this.blocking = blocking;
+    }
+
+    public int getBlockingMaxThreads() {
+        return blockingMaxThreads;
+    }
+
+    public void setBlockingMaxThreads(int blockingMaxThreads) {
+        this.blockingMaxThreads = blockingMaxThreads;
+    }
+
+    public int getBlockingMaxQueued() {
+        return blockingMaxQueued;
+    }
+
+    public void setBlockingMaxQueued(int blockingMaxQueued) {
+        this.blockingMaxQueued = blockingMaxQueued;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.reactivepractice.sketch;
+
+/**
+ * 값별 개수를 depth × width 개의 long 으로 추정한다. 추정값은 실제 개수보다 작지 않고,
+ * confidence 의 확률로 실제 개수 + epsilon × 전체 개수 를 넘지 않는다.
+ * <p>
+ * width = e / epsilon (2의 거듭제곱으로 올림), depth = ln(1 / (1 - confidence)). 행마다 다른 해시는 64비트 해시 하나를
+ * 둘로 나눠 h1 + i × h2 로 만든다. (Kirsch-Mitzenmacher)
+ * <p>
+ * 한 스레드에서만 쓰는 누적용 구조라 동기화하지 않는다.
+ */
+public final class CountMinSketch {
+
+    private final double epsilon;
+    private final double confidence;
+    private final int depth;
+    private final int widthMask;
+    private final long[] table;
+    private long total;
+
+    private CountMinSketch(double epsilon, double confidence, int depth, int width) {
+        this.epsilon = epsilon;
+        this.confidence = confidence;
+        this.depth = depth;
+        this.widthMask = width - 1;
+        this.table = new long[depth * width];
+    }
+
+    /**
+     * @param epsilon    전체 개수에 대한 과대 추정 한도 (예: 0.001)
+     * @param confidence 그 한도를 지킬 확률 (예: 0.99)
+     */
+    public static CountMinSketch withError(double epsilon, double confidence) {
+        if (!(epsilon > 0.0 && epsilon < 1.0)) {
+            throw new IllegalArgumentException("epsilon must be between 0 and 1: " + epsilon);
+        }
+        if (!(confidence > 0.0 && confidence < 1.0)) {
+            throw new IllegalArgumentException("confidence must be between 0 and 1: " + confidence);
+        }
+        final int width = Integer.highestOneBit((int) Math.ceil(Math.E / epsilon) - 1) << 1;
+        final int depth = Math.max(1, (int) Math.ceil(Math.log(1.0 / (1.0 - confidence))));
+        return new CountMinSketch(epsilon, confidence, depth, width);
+    }
+
+    public void add(String value, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        addHash(Hashing.hash64(value), count);
+    }
+
+    /**
+     * value 를 count 만큼 더하고 더한 뒤의 추정값을 돌려준다.
+     */
+    long addHash(long hash, long count) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        final int width = widthMask + 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            final int index = row * width + ((h1 + row * h2) & widthMask);
+            final long updated = table[index] += count;
+            min = Math.min(min, updated);
+        }
+        total += count;
+        return min;
+    }
+
+    public long estimate(String value) {
+        final long hash = Hashing.hash64(value);
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        final int width = widthMask + 1;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, table[row * width + ((h1 + row * h2) & widthMask)]);
+        }
+        return min;
+    }
+
+    /**
+     * 더한 개수의 합.
+     */
+    public long total() {
+        return total;
+    }
+
+    /**
+     * 지금 total 에서 추정값이 넘을 수 있는 한도. (epsilon × total)
+     */
+    public long errorBound() {
+        return (long) Math.ceil(epsilon * total);
+    }
+
+    public double epsilon() {
+        return epsilon;
+    }
+
+    public double confidence() {
+        return confidence;
+    }
+
+    public int depth() {
+        return depth;
+    }
+
+    public int width() {
+        return widthMask + 1;
+    }
+}
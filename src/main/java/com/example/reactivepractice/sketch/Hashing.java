@@ -0,0 +1,32 @@
+package com.example.reactivepractice.sketch;
+
+/**
+ * 스케치용 64비트 문자열 해시. String.hashCode 는 32비트이고 비트가 고르게 섞이지 않아 HyperLogLog 의 앞자리 0 개수에
+ * 그대로 쓰기 어렵다. 문자마다 FNV-1a 로 섞고 murmur3 의 fmix64 로 마무리한다.
+ */
+final class Hashing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    static long hash64(String value) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return fmix64(hash ^ value.length());
+    }
+
+    static long fmix64(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.reactivepractice.sketch;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link CountMinSketch}로 개수를 세면서 추정값이 큰 k 개의 값만 후보로 들고 있는다.
+ * <p>
+ * 새 값의 추정값이 후보 중 가장 작은 것보다 크면 그 후보를 밀어낸다. 메모리는 스케치 크기 + k 개 항목으로 고정이다.
+ * 한 스레드에서만 쓰는 누적용 구조라 동기화하지 않는다.
+ */
+public final class HeavyHitters {
+
+    private final CountMinSketch sketch;
+    private final int k;
+    private final Map<String, Long> candidates;
+    // 후보 중 가장 작은 추정값. 후보가 k 개보다 적으면 의미 없다.
+    private String smallest;
+    private long smallestCount;
+
+    public HeavyHitters(int k, CountMinSketch sketch) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        this.sketch = sketch;
+        this.candidates = new HashMap<>(k * 2);
+    }
+
+    public void add(String value) {
+        final long estimate = sketch.addHash(Hashing.hash64(value), 1L);
+        final Long current = candidates.get(value);
+        if (current != null) {
+            candidates.put(value, estimate);
+            if (value.equals(smallest)) {
+                findSmallest();
+            }
+        } else if (candidates.size() < k) {
+            candidates.put(value, estimate);
+            findSmallest();
+        } else if (estimate > smallestCount) {
+            candidates.remove(smallest);
+            candidates.put(value, estimate);
+            findSmallest();
+        }
+    }
+
+    /**
+     * 추정 개수가 큰 순서의 후보들. 개수가 같으면 이름순.
+     */
+    public Map<String, Long> top() {
+        final List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.comparingByKey()));
+        final Map<String, Long> top = new LinkedHashMap<>();
+        entries.forEach(entry -> top.put(entry.getKey(), entry.getValue()));
+        return top;
+    }
+
+    public CountMinSketch sketch() {
+        return sketch;
+    }
+
+    private void findSmallest() {
+        smallest = null;
+        smallestCount = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+            if (entry.getValue() < smallestCount) {
+                smallest = entry.getKey();
+                smallestCount = entry.getValue();
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.reactivepractice.web;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * NDJSON 한 줄의 바구니. {@code {"fruits":["apple","banana"]}}
+ * <p>
+ * 줄마다 배열만 보내면 Jackson 의 스트리밍 decoder 가 최상위 배열을 요소 단위로 쪼개므로 객체로 감싼다.
+ */
+public class Basket {
+
+    private final List<String> fruits;
+
+    @JsonCreator
+    public Basket(@JsonProperty("fruits") List<String> fruits) {
+        this.fruits = fruits == null ? List.of() : fruits;
+    }
+
+    public List<String> getFruits() {
+        return fruits;
+    }
+}
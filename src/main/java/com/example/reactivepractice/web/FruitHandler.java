@@ -0,0 +1,36 @@
+package com.example.reactivepractice.web;
+
+import com.example.reactivepractice.fruit.FruitAggregator;
+import com.example.reactivepractice.fruit.FruitInfo;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * NDJSON 으로 들어오는 {@link Basket}(한 줄에 하나)을 하나씩 집계해서 {@link FruitInfo}를 NDJSON 으로 돌려준다.
+ * <p>
+ * 요청 body 는 줄 단위로 decode 되고, 응답 쪽이 요청한 만큼만 다음 바구니를 읽으므로 업로드 크기와 상관없이
+ * 메모리에는 처리 중인 바구니 몇 개만 있다. 바구니 하나의 집계는 {@link FruitAggregator#summarize}로 한 번만 순회한다.
+ * <p>
+ * 바구니 한 줄은 통째로 모은 뒤 decode 하므로 한 줄의 크기는 {@link #MAX_BASKET_BYTES}를 넘을 수 없다. 넘으면 요청이
+ * DataBufferLimitException 으로 끝난다. codec 의 기본 한도(256KB)는 과일 2만 개 정도라서 {@link FruitRouter}에서 올려 둔다.
+ */
+@Component
+public class FruitHandler {
+
+    /**
+     * 바구니 하나(NDJSON 한 줄)에 쓸 수 있는 메모리 상한. 과일 10^6 개짜리 바구니(약 10MB)가 들어가는 크기다.
+     */
+    public static final int MAX_BASKET_BYTES = 16 * 1024 * 1024;
+
+    public Mono<ServerResponse> analyze(ServerRequest request) {
+        final Flux<FruitInfo> results = request.bodyToFlux(Basket.class)
+                .map(basket -> FruitAggregator.summarize(basket.getFruits()));
+        return ServerResponse.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results, FruitInfo.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.reactivepractice.web;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.POST;
+import static org.springframework.web.reactive.function.server.RequestPredicates.accept;
+import static org.springframework.web.reactive.function.server.RequestPredicates.contentType;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration(proxyBeanMethods = false)
+public class FruitRouter implements WebFluxConfigurer {
+
+  @Bean
+  public RouterFunction<ServerResponse> fruitRoutes(FruitHandler handler) {
+    return route(POST("/fruits/baskets")
+            .and(contentType(MediaType.APPLICATION_NDJSON))
+            .and(accept(MediaType.APPLICATION_NDJSON)), handler::analyze);
+  }
+
+  @Override
+  public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+    configureCodecs(configurer);
+  }
+
+  /**
+   * NDJSON 값 하나(바구니 하나)를 decode 할 때 모을 수 있는 크기를 {@link FruitHandler#MAX_BASKET_BYTES}로 올린다.
+   * 서버 전체의 codec 에 적용되므로 다른 엔드포인트의 요청 body 한도도 같이 올라간다.
+   */
+  static void configureCodecs(ServerCodecConfigurer configurer) {
+    configurer.defaultCodecs().maxInMemorySize(FruitHandler.MAX_BASKET_BYTES);
+  }
+
+}
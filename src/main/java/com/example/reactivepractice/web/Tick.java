@@ -0,0 +1,50 @@
+package com.example.reactivepractice.web;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * {@link TickStream}이 내보내는 틱 하나. source 는 어느 interval 에서 왔는지, sequence 는 그 interval 의 순번이다.
+ */
+public class Tick {
+
+    private final String source;
+    private final long sequence;
+
+    @JsonCreator
+    public Tick(@JsonProperty("source") String source, @JsonProperty("sequence") long sequence) {
+        this.source = source;
+        this.sequence = sequence;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        Tick tick = (Tick) o;
+
+        return sequence == tick.sequence && source.equals(tick.source);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * source.hashCode() + Long.hashCode(sequence);
+    }
+
+    @Override
+    public String toString() {
+        return "Tick{" +
+                "source='" + source + '\'' +
+                ", sequence=" + sequence +
+                '}';
+    }
+}
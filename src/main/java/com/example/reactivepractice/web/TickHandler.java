@@ -0,0 +1,52 @@
+package com.example.reactivepractice.web;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * {@code GET /ticks?policy=latest|drop|buffer&buffer=N}으로 {@link TickStream}을 SSE 로 내보낸다.
+ * BUFFER 가 넘치면 {@code disconnect} 이벤트 하나를 보내고 응답을 끝낸다.
+ */
+@Component
+public class TickHandler {
+
+    static final int DEFAULT_BUFFER_SIZE = 32;
+
+    private final TickStream ticks;
+
+    public TickHandler(TickStream ticks) {
+        this.ticks = ticks;
+    }
+
+    public Mono<ServerResponse> stream(ServerRequest request) {
+        final TickStream.Policy policy;
+        final int bufferSize;
+        try {
+            policy = TickStream.Policy.valueOf(request.queryParam("policy").orElse("latest").toUpperCase(Locale.ROOT));
+            bufferSize = request.queryParam("buffer").map(Integer::parseInt).orElse(DEFAULT_BUFFER_SIZE);
+        } catch (IllegalArgumentException e) {
+            return ServerResponse.badRequest().bodyValue(e.getMessage());
+        }
+        if (bufferSize <= 0 || bufferSize > TickStream.MAX_BUFFER_SIZE) {
+            return ServerResponse.badRequest().bodyValue("buffer must be in [1, " + TickStream.MAX_BUFFER_SIZE + "]");
+        }
+
+        final Flux<ServerSentEvent<Tick>> events = ticks.subscribe(policy, bufferSize)
+                .map(tick -> ServerSentEvent.builder(tick).event("tick").build())
+                .onErrorResume(Exceptions::isOverflow, e -> Flux.just(ServerSentEvent.<Tick>builder()
+                        .event("disconnect")
+                        .comment("slow consumer")
+                        .build()));
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(events, ServerSentEvent.class);
+    }
+}
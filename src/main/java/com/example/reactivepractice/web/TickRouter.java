@@ -0,0 +1,28 @@
+package com.example.reactivepractice.web;
+
+import com.example.reactivepractice.scheduler.SchedulerProfile;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.time.Duration;
+
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+import static org.springframework.web.reactive.function.server.RouterFunctions.route;
+
+@Configuration(proxyBeanMethods = false)
+public class TickRouter {
+
+  @Bean
+  public TickStream tickStream(SchedulerProfile schedulers) {
+    // ReactivePractice.FLUX_MERGE_WITH 와 같은 1초 / 700ms 틱
+    return new TickStream(schedulers.timer(), Duration.ofSeconds(1), Duration.ofMillis(700));
+  }
+
+  @Bean
+  public RouterFunction<ServerResponse> tickRoutes(TickHandler handler) {
+    return route(GET("/ticks"), handler::stream);
+  }
+
+}
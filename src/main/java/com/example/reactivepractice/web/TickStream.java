@@ -0,0 +1,77 @@
+package com.example.reactivepractice.web;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+
+/**
+ * 두 interval 을 merge 한 틱 스트림을 모든 클라이언트가 공유한다.
+ * <p>
+ * 클라이언트마다 interval 을 만들면 N 명이 N 개의 타이머를 돌린다. 여기서는 publish().refCount()로 타이머를 하나만 두고,
+ * 첫 구독자가 오면 시작해서 마지막 구독자가 나가면 멈춘다.
+ * <p>
+ * publish 는 가장 느린 구독자의 요청량에 맞춰 내보내므로, 공유 스트림 바로 뒤에 클라이언트마다 {@link Policy}를 붙여
+ * 공유 쪽에는 항상 무제한으로 요청하게 한다. 느린 클라이언트는 자기 정책에 따라 틱을 버리거나 최대 bufferSize 개까지만
+ * 쌓고, 넘치면 연결을 끊는다. 어느 정책이든 클라이언트 하나가 들고 있는 틱 수는 정해져 있다.
+ * <p>
+ * zipWith 는 주기가 다른 두 interval 을 묶으면 빠른 쪽을 끝없이 쌓으므로 여기서는 merge 만 한다.
+ */
+public class TickStream {
+
+    /**
+     * 느린 클라이언트를 다루는 방법.
+     */
+    public enum Policy {
+        /** 요청이 없는 동안 온 틱은 마지막 하나만 남긴다. */
+        LATEST,
+        /** 요청이 없는 동안 온 틱은 버린다. */
+        DROP,
+        /** bufferSize 개까지 쌓고, 넘치면 연결을 끊는다. */
+        BUFFER
+    }
+
+    public static final int MAX_BUFFER_SIZE = 1_024;
+
+    private final Flux<Tick> shared;
+
+    public TickStream(Scheduler scheduler, Duration slowPeriod, Duration fastPeriod) {
+        this(Flux.merge(
+                Flux.interval(slowPeriod, scheduler).map(tick -> new Tick(slowPeriod.toMillis() + "ms", tick)),
+                Flux.interval(fastPeriod, scheduler).map(tick -> new Tick(fastPeriod.toMillis() + "ms", tick))));
+    }
+
+    TickStream(Flux<Tick> source) {
+        this.shared = source.publish().refCount();
+    }
+
+    /**
+     * 클라이언트 한 명을 위한 스트림. BUFFER 가 넘치면 쌓인 틱이 남아 있어도 바로
+     * {@link Exceptions#failWithOverflow()} 에러로 끝난다.
+     */
+    public Flux<Tick> subscribe(Policy policy, int bufferSize) {
+        switch (policy) {
+            case LATEST:
+                return shared.onBackpressureLatest();
+            case DROP:
+                return shared.onBackpressureDrop();
+            default:
+                if (bufferSize <= 0 || bufferSize > MAX_BUFFER_SIZE) {
+                    throw new IllegalArgumentException("bufferSize must be in [1, " + MAX_BUFFER_SIZE + "]: " + bufferSize);
+                }
+                // BufferOverflowStrategy.ERROR 는 쌓인 틱을 다 읽은 뒤에야 에러를 보내서, 읽지 않는 클라이언트는 끊기지 않는다.
+                // 넘친 순간 옆 채널로 에러를 merge 해서 요청량과 상관없이 바로 끝낸다. merge 가 하나를 미리 받아 두므로
+                // 클라이언트가 들고 있는 틱은 최대 bufferSize + 1 개다.
+                return Flux.defer(() -> {
+                    final Sinks.Empty<Void> overflow = Sinks.empty();
+                    return Flux.merge(1,
+                            shared.onBackpressureBuffer(bufferSize, dropped -> overflow.tryEmitEmpty(), BufferOverflowStrategy.DROP_LATEST),
+                            overflow.asMono().then(Mono.error(Exceptions::failWithOverflow)));
+                });
+        }
+    }
+}
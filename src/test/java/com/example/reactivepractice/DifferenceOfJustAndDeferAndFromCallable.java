@@ -1,8 +1,11 @@
 package com.example.reactivepractice;
 
+import com.example.reactivepractice.cache.ReactiveCache;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+
 public class DifferenceOfJustAndDeferAndFromCallable {
 
     int data = 99;
@@ -35,6 +38,21 @@ public class DifferenceOfJustAndDeferAndFromCallable {
          */
     }
 
+    @Test
+    void cachedBetweenJustAndDefer() {
+        var cache = ReactiveCache.<String, Integer>builder(caller -> Mono.fromCallable(() -> getData(caller)))
+                .ttl(Duration.ofSeconds(1))
+                .build();
+
+        cache.get("cache").subscribe(d -> System.out.println("cache d = " + d));   // print `called by cache\n cache d = 99`
+        data = 111;
+        cache.get("cache").subscribe(d -> System.out.println("cache d = " + d));   // print `cache d = 99`, TTL 동안은 다시 부르지 않는다.
+
+        /*
+           ReactiveCache: Just 처럼 값을 재사용하되 TTL 이 지나면 Defer 처럼 다시 불러온다.
+         */
+    }
+
     Mono<String> externalServiceCall() {
         return Mono.just("Response");
     }
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import com.example.reactivepractice.metrics.SignalMetrics;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,14 +19,19 @@ public class HandlingReactorErrorTest {
     private final Logger log = LoggerFactory.getLogger(this.getClass().getSimpleName());
     @Test
     public void onErrorComplete() {
+        //doOnEach 로 로그를 남기는 대신 SignalMetrics 로 신호 개수만 센다. 요소마다 Signal.toString() 비용이 들지 않는다.
+        final SignalMetrics metrics = new SignalMetrics();
         final AtomicInteger datasource = new AtomicInteger(0);
         Mono<Integer> mono = Mono.just(datasource)
                                  .map(i -> 100 / i.get())
-                                 .doOnEach(signal -> log.info("before {}", signal.toString()))
-                                 .onErrorComplete()
-                                 .doOnEach(signal -> log.info("after {}", signal.toString()));
+                                 .transform(metrics.stage("before"))
+                                 .onErrorComplete(metrics.handledBy("before", "onErrorComplete"))
+                                 .transform(metrics.stage("after"));
 
         StepVerifier.create(mono).verifyComplete();
+        assertThat(metrics.errorCount("before", ArithmeticException.class)).isEqualTo(1);
+        assertThat(metrics.recoveredCount("before", "onErrorComplete", ArithmeticException.class)).isEqualTo(1);
+        assertThat(metrics.completeCount("after")).isEqualTo(1);
     }
 
     @Test
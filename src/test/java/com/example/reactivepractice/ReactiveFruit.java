@@ -1,17 +1,21 @@
 package com.example.reactivepractice;
 
+import com.example.reactivepractice.fruit.FruitAggregator;
+import com.example.reactivepractice.fruit.FruitInfo;
+import com.example.reactivepractice.fruit.FruitPipelines;
+import com.example.reactivepractice.fruit.FruitSketches;
+import com.example.reactivepractice.support.PipelineHarness;
+import com.example.reactivepractice.support.PipelineRun;
+import com.example.reactivepractice.support.PipelineScenarios;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
-import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.Arrays;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class ReactiveFruit {
 
@@ -30,65 +34,26 @@ public class ReactiveFruit {
     final List<String> basket3 = Arrays.asList(new String[]{"strawberry", "orange", "lemon", "grape", "strawberry"});
     final List<List<String>> baskets = Arrays.asList(basket1, basket2, basket3);
     final Flux<List<String>> basketFlux = Flux.fromIterable(baskets);
-    final CountDownLatch countDownLatch = new CountDownLatch(1);
 
 
     @Test
     void Fruit_Basket() {
-        basketFlux.concatMap(basket -> {
-            final Mono<List<String>> distinctFruits = Flux.fromIterable(basket).distinct().collectList();
-            final Mono<Map<String, Long>> countFruitsMono = Flux.fromIterable(basket)
-                    .groupBy(fruit -> fruit) // 바구니로 부터 넘어온 과일 기준으로 group을 묶는다.
-                    .concatMap(groupedFlux -> groupedFlux.count()
-                            .map(count -> {
-                                final Map<String, Long> fruitCount = new LinkedHashMap<>();
-                                fruitCount.put(groupedFlux.key(), count);
-                                return fruitCount;
-                            }) // 각 과일별로 개수를 Map으로 리턴
-                    ) // concatMap으로 순서보장
-                    .reduce((accumulatedMap, currentMap) -> new LinkedHashMap<>() {
-                        {
-                            putAll(accumulatedMap);
-                            putAll(currentMap);
-                        }
-                    }); // 그동안 누적된 accumulatedMap에 현재 넘어오는 currentMap을 합쳐서 새로운 Map을 만든다. // map끼리 putAll하여 하나의 Map으로 만든다.
-            return Flux.zip(distinctFruits, countFruitsMono, (distinct, count) -> new FruitInfo(distinct, count));
-        }).subscribe(System.out::println);
+        // 바구니를 한 번만 순회하면서 distinct와 개수를 함께 센다. (groupBy → concatMap → reduce 조합은 FruitAggregatorTest 참고)
+        basketFlux.concatMap(basket -> FruitAggregator.aggregate(Flux.fromIterable(basket)))
+                .subscribe(System.out::println);
     }
 
     @Test
-    void Fruit_Parallel() throws InterruptedException {
-        basketFlux.concatMap(basket -> {
-            final Mono<List<String>> distinctFruits = Flux.fromIterable(basket).log().distinct().collectList().subscribeOn(Schedulers.parallel());
-            final Mono<Map<String, Long>> countFruitsMono = Flux.fromIterable(basket).log()
-                    .groupBy(fruit -> fruit) // 바구니로 부터 넘어온 과일 기준으로 group을 묶는다.
-                    .concatMap(groupedFlux -> groupedFlux.count()
-                            .map(count -> {
-                                final Map<String, Long> fruitCount = new LinkedHashMap<>();
-                                fruitCount.put(groupedFlux.key(), count);
-                                return fruitCount;
-                            }) // 각 과일별로 개수를 Map으로 리턴
-                    ) // concatMap으로 순서보장
-                    .reduce((accumulatedMap, currentMap) -> new LinkedHashMap<>() {
-                        {
-                            putAll(accumulatedMap);
-                            putAll(currentMap);
-                        }
-                    }) // 그동안 누적된 accumulatedMap에 현재 넘어오는 currentMap을 합쳐서 새로운 Map을 만든다. // map끼리 putAll하여 하나의 Map으로 만든다.
-                    .subscribeOn(Schedulers.parallel());
-            return Flux.zip(distinctFruits, countFruitsMono, (distinct, count) -> new FruitInfo(distinct, count));
-        }).subscribe(
-                System.out::println,  // 값이 넘어올 때 호출 됨, onNext(T)
-                error -> {
-                    System.err.println(error);
-                    countDownLatch.countDown();
-                }, // 에러 발생시 출력하고 countDown, onError(Throwable)
-                () -> {
-                    System.out.println("complete");
-                    countDownLatch.countDown();
-                } // 정상적 종료시 countDown, onComplete()
-        );
-        countDownLatch.await(2, TimeUnit.SECONDS);
+    void Fruit_Parallel() {
+        // 바구니 하나의 내부 파이프라인에 subscribeOn을 붙이는 대신 바구니 자체를 parallel rail로 나눠서 처리한다.
+        // perBasket은 입력 순서대로 바구니별 결과를, total은 전체 합계 하나만 내보낸다.
+        // CountDownLatch로 완료를 기다리는 대신 PipelineHarness가 가상 시간 scheduler 위에서 끝까지 돌린다.
+        PipelineRun<FruitInfo> run = PipelineHarness.virtual(PipelineScenarios.fruitParallel(baskets));
+        run.values().forEach(System.out::println);
+
+        assertThat(run.values()).hasSize(baskets.size() + 1);
+        assertThat(run.values().get(baskets.size())).isEqualTo(FruitAggregator.summarize(
+                baskets.stream().flatMap(List::stream).collect(Collectors.toList())));
     }
 
     /*
@@ -102,17 +67,18 @@ public class ReactiveFruit {
         ● delayelements 는 타임 오퍼레이터다. 이 오퍼레이터는 기본적으로 Schedulers.parallel() 스케줄러 상에 데이터를 발행한다.
         ● 데이터 경로상의 subscribeOn 은 아무것도 하지 않으며, 동일한 스레드에 시그널을 전달한다.
         ● 데이터 경로상 subscribe() 메소드에 전달된 람다는 데이터 시그널들을 받은 스레드에서 실행된다. 따라서 람다는 "hello delayed parallel-1" 을 프린트 한다.
+        ● 운영 중인 파이프라인에서는 이렇게 찍는 대신 OperatorTracing(reactive.tracing.enabled)으로 연산자별 hop 과 publishOn 대기 시간을 본다.
      */
     @Test
-    void Flux_SubscribeOn_PublishOn() throws InterruptedException {
-        Flux.just("hello")
-                .doOnNext(v -> System.out.println("just " + Thread.currentThread().getName()))
-                .publishOn(Schedulers.boundedElastic())
-                .doOnNext(v -> System.out.println("publish " + Thread.currentThread().getName()))
-                .delayElements(Duration.ofMillis(500))
-                .subscribeOn(Schedulers.elastic())
-                .subscribe(v -> System.out.println(v + " delayed " + Thread.currentThread().getName()));
-        Thread.sleep(2000); // 결과를 보기 위한 대기 코드
+    void Flux_SubscribeOn_PublishOn() {
+        // 파이프라인은 PipelineScenarios.subscribeOnPublishOn 에 있다. 가상 시간으로 돌리므로 delayElements(500ms)를 기다리지 않는다.
+        // 위의 스레드 이름은 PipelineHarness.real 로 돌리면 stageThreads 로 확인할 수 있다.
+        PipelineRun<String> run = PipelineHarness.virtual(PipelineScenarios.subscribeOnPublishOn());
+        System.out.println(run);
+
+        assertThat(run.values()).containsExactly("hello");
+        assertThat(run.stageTimes("publish")).containsExactly(Duration.ZERO);
+        assertThat(run.stageTimes("delayed")).containsExactly(Duration.ofMillis(500));
     }
 
     @Test
@@ -122,36 +88,32 @@ public class ReactiveFruit {
             publish 연산자를 호출하면 바꿀 수 있다. connect()로 연결하고, autoConnect의 숫자만큼 연결되면 구독한 Flux를 리턴한다.
 
          */
-        basketFlux.concatMap(basket -> {
-            final Flux<String> source = Flux.fromIterable(basket).log().publish().autoConnect(2);
-            final Mono<List<String>> distinctFruits = source.distinct().collectList();
-            final Mono<Map<String, Long>> countFruitsMono = source
-                    .groupBy(fruit -> fruit) // 바구니로 부터 넘어온 과일 기준으로 group을 묶는다.
-                    .concatMap(groupedFlux -> groupedFlux.count()
-                            .map(count -> {
-                                final Map<String, Long> fruitCount = new LinkedHashMap<>();
-                                fruitCount.put(groupedFlux.key(), count);
-                                return fruitCount;
-                            }) // 각 과일별로 개수를 Map으로 리턴
-                    ) // concatMap으로 순서보장
-                    .reduce((accumulatedMap, currentMap) -> new LinkedHashMap<String, Long>() {
-                        {
-                            putAll(accumulatedMap);
-                            putAll(currentMap);
-                        }
-                    }); // 그동안 누적된 accumulatedMap에 현재 넘어오는 currentMap을 합쳐서 새로운 Map을 만든다. // map끼리 putAll하여 하나의 Map으로 만든다.
-            return Flux.zip(distinctFruits, countFruitsMono, (distinct, count) -> new FruitInfo(distinct, count));
-        }).subscribe(
+        // 파이프라인 본문은 FruitPipelines.coldToHot 으로 옮겼다. (벤치마크에서 다른 방식과 비교)
+        FruitPipelines.coldToHot(basketFlux).subscribe(
                 System.out::println,  // 값이 넘어올 때 호출 됨, onNext(T)
-                error -> {
-                    System.err.println(error);
-                    countDownLatch.countDown();
-                }, // 에러 발생시 출력하고 countDown, onError(Throwable)
-                () -> {
-                    System.out.println("complete");
-                    countDownLatch.countDown();
-                } // 정상적 종료시 countDown, onComplete()
+                System.err::println, // 에러 발생시 출력, onError(Throwable)
+                () -> System.out.println("complete") // 정상적 종료, onComplete()
         );
     }
 
+    @Test
+    void Flux_Fan_Out() {
+        /*
+            autoConnect(2)는 구독자가 2개 모여야 연결되므로 한쪽만 구독하면 멈추고, 요소마다 publish 큐를 거친다.
+            FanOut은 한 번의 구독에서 distinct와 개수를 함께 계산하므로 원본을 정확히 한 번만 읽는다.
+         */
+        FruitPipelines.fanOut(basketFlux).subscribe(System.out::println);
+    }
+
+    @Test
+    void Fruit_Sketch() {
+        /*
+            distinct()와 groupBy는 본 과일을 스트림이 끝날 때까지 모두 들고 있다. 끝나지 않는 스트림에서는
+            FruitSketches로 서로 다른 과일 수와 많이 나온 과일 상위 k개만 오차 한도와 함께 센다.
+         */
+        new FruitSketches(0.01, 0.001, 0.99, 3)
+                .summarize(basketFlux.flatMapIterable(basket -> basket))
+                .subscribe(System.out::println);
+    }
+
 }
@@ -1,5 +1,12 @@
 package com.example.reactivepractice;
 
+import com.example.reactivepractice.numeric.LongFlux;
+import com.example.reactivepractice.operator.CombineAligned;
+import com.example.reactivepractice.resilience.Bulkhead;
+import com.example.reactivepractice.resilience.CallNotPermittedException;
+import com.example.reactivepractice.resilience.CircuitBreaker;
+import com.example.reactivepractice.resilience.RetryBudget;
+import com.example.reactivepractice.resilience.RetryPolicy;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -7,6 +14,7 @@ import reactor.util.function.Tuple2;
 
 import java.time.Duration;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class ReactivePractice {
 
@@ -44,6 +52,16 @@ public class ReactivePractice {
                 .subscribe(x -> System.out.print(x + " -> "));
     }
 
+    @Test
+    void FLUX_FILTER_LONG() {
+        // 숫자가 많으면 LongFlux 로 박싱 없이 long[] 묶음 단위로 map / filter / count 한다. (LongFluxBenchmark 참고)
+        Long count = LongFlux.range(1, 1_000_000)
+                .filter(num -> num % 2 == 0)
+                .count()
+                .block();
+        System.out.println("count = " + count);
+    }
+
     @Test
     void FLUX_DEFAULT_IF_EMPTY() {
         Flux<Integer> defaults = Flux.just(1, 2, 3);
@@ -71,6 +89,18 @@ public class ReactivePractice {
         tick1.zipWith(tick2).subscribe(tup -> System.out.println(tup));
     }
 
+    @Test
+    void FLUX_COMBINE_ALIGNED() {
+        // 순번 대신 타임스탬프가 200ms 이내인 것끼리 묶는다. 쪽마다 최대 4개만 기다리고, 짝이 없으면 반대쪽을 null 로 내보낸다.
+        Flux<Long> tick1 = Flux.interval(Duration.ofSeconds(1)).timestamp().map(Tuple2::getT1);
+        Flux<Long> tick2 = Flux.interval(Duration.ofMillis(700)).timestamp().map(Tuple2::getT1);
+        new CombineAligned<Long, Long>(t -> t, t -> t, 200, 4, CombineAligned.Unmatched.PARTIAL)
+                .combine(tick1, tick2)
+                .take(Duration.ofSeconds(5))
+                .doOnNext(System.out::println)
+                .blockLast();
+    }
+
     @Test
     void MAKE_TUPLE2() {
         Flux<String> tick1 = Flux.interval(Duration.ofSeconds(1)).map(tick -> tick + "초틱");
@@ -147,6 +177,33 @@ public class ReactivePractice {
         seq.subscribe(System.out::println);
     }
 
+    @Test
+    void FLUX_ON_ERROR_RESUME_WITH_CIRCUIT_BREAKER() {
+        // 실패율이 50% 를 넘으면 30초 동안 원본을 부르지 않고 바로 CallNotPermittedException 으로 fallback 한다.
+        CircuitBreaker breaker = CircuitBreaker.builder("random").windowSize(10).minimumCalls(4).build();
+        // 동시에 2개까지만 구독하고 8개까지 줄 세운다.
+        Bulkhead bulkhead = new Bulkhead("random", 2, 8);
+        Random random = new Random();
+        for (int call = 0; call < 10; call++) {
+            Flux<Integer> seq = breaker.protect(bulkhead.protect(Flux.range(1, 3)
+                            .map(x -> {
+                                if (random.nextInt(2) == 0) throw new IllegalStateException("illstate");
+                                return x;
+                            })))
+                    .onErrorResume(error -> {
+                        if (error instanceof CallNotPermittedException) {
+                            return Flux.just(41, 42);
+                        }
+                        if (error instanceof IllegalStateException) {
+                            return Flux.just(31, 32);
+                        }
+                        return Flux.error(error);
+                    });
+
+            seq.subscribe(System.out::println);
+        }
+    }
+
     @Test
     void FLUX_RETRY() {
         Flux.range(1, 5)
@@ -158,6 +215,22 @@ public class ReactivePractice {
                 .subscribe(System.out::println, System.err::println, System.out::println);
     }
 
+    @Test
+    void FLUX_RETRY_BACKOFF() {
+        AtomicInteger failures = new AtomicInteger();
+        RetryPolicy.builder()
+                .backoff(Duration.ofMillis(100), Duration.ofSeconds(1)) // 100ms, 200ms, 400ms ... 최대 1초
+                .budget(new RetryBudget(10, Duration.ofSeconds(1)))     // 초당 1개씩 차는 재시도 토큰 10개
+                .build()
+                .resumeFrom(1, offset -> Flux.range((int) offset, 6 - (int) offset) // 실패하면 마지막으로 받은 다음 번호부터 다시 읽는다.
+                        .map(input -> {
+                            if (input < 4 || failures.getAndIncrement() > 0) return "num " + input;
+                            throw new RuntimeException("boom");
+                        }))
+                .doOnNext(System.out::println) // num 1 ~ num 5 가 한 번씩만 출력된다.
+                .blockLast();
+    }
+
     @Test
     void FLUX_COUNT() {
         Mono<Long> countMono = Flux.just(1, 2, 3, 4).count();
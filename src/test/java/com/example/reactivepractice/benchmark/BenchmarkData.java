@@ -0,0 +1,36 @@
+package com.example.reactivepractice.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크용 바구니 데이터. 같은 파라미터면 항상 같은 데이터가 나오도록 seed를 고정한다.
+ */
+public final class BenchmarkData {
+
+    private BenchmarkData() {
+    }
+
+    public static List<String> fruitNames(int cardinality) {
+        final List<String> names = new ArrayList<>(cardinality);
+        for (int i = 0; i < cardinality; i++) {
+            names.add("fruit-" + i);
+        }
+        return names;
+    }
+
+    public static List<List<String>> baskets(int basketCount, int basketSize, int cardinality) {
+        final SplittableRandom random = new SplittableRandom(42);
+        final List<String> names = fruitNames(cardinality);
+        final List<List<String>> baskets = new ArrayList<>(basketCount);
+        for (int i = 0; i < basketCount; i++) {
+            final List<String> basket = new ArrayList<>(basketSize);
+            for (int j = 0; j < basketSize; j++) {
+                basket.add(names.get(random.nextInt(cardinality)));
+            }
+            baskets.add(basket);
+        }
+        return baskets;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.reactivepractice.benchmark;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH 실행 진입점. 인자는 JMH 명령행 옵션 그대로이며, 프로파일러를 지정하지 않으면 gc 프로파일러(할당량)를 붙인다.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.args="FruitPipelinesBenchmark -p basketCount=1000"
+ * </pre>
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        final List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-prof")) {
+            options.add("-prof");
+            options.add("gc");
+        }
+        Main.main(options.toArray(new String[0]));
+    }
+}
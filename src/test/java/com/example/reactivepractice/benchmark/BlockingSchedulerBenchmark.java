@@ -0,0 +1,72 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.scheduler.SchedulerProfile;
+import com.example.reactivepractice.scheduler.SchedulerProperties;
+import com.example.reactivepractice.scheduler.SchedulerProperties.BlockingType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 10ms 블로킹 호출 calls 개를 한꺼번에 {@link SchedulerProfile#blocking()}에 보내고 모두 끝날 때까지 걸리는 시간.
+ * bounded elastic 은 스레드 상한(코어 × 10)을 넘는 호출이 큐에서 기다리므로 calls 가 커질수록 10ms 의 배수로 늘어난다.
+ * VIRTUAL 은 virtual thread 가 있는 JDK 에서만 의미가 있다. 없으면 BOUNDED_ELASTIC 으로 대신하고 setUp 에서 알린다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BlockingSchedulerBenchmark {
+
+    static final long BLOCKING_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Param({"BOUNDED_ELASTIC", "VIRTUAL"})
+    BlockingType blocking;
+
+    @Param({"100", "1000"})
+    int calls;
+
+    SchedulerProfile profile;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final SchedulerProperties properties = new SchedulerProperties();
+        properties.setBlocking(blocking);
+        profile = SchedulerProfile.from(properties);
+        if (profile.blockingType() != blocking) {
+            System.err.println("virtual threads are not available on this JDK, measuring " + profile.blockingType());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        profile.close();
+    }
+
+    @Benchmark
+    public Integer blockingCalls() {
+        return Flux.range(0, calls)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    LockSupport.parkNanos(BLOCKING_NANOS);
+                    return i;
+                }).subscribeOn(profile.blocking()), calls)
+                .blockLast();
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.event.EventBus;
+import com.example.reactivepractice.event.EventBus.BackpressureStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.EmitterProcessor;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.ReplayProcessor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongPredicate;
+
+/**
+ * 생산자 스레드 1, 4, 16개에서 이벤트 하나를 보내는 처리량. EventBus 와 deprecated processor 들의 serialized sink 비교.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class EventBusBenchmark {
+
+    @Param({"eventBus", "eventBusReplay", "directProcessor", "emitterProcessor", "replayProcessor"})
+    String implementation;
+
+    final LongAdder received = new LongAdder();
+    LongPredicate emitter;
+    Disposable subscription;
+
+    @Setup
+    public void setUp() {
+        switch (implementation) {
+            case "eventBus": {
+                final EventBus<Long> bus = EventBus.multicast(BackpressureStrategy.BUFFER, 256);
+                subscription = bus.events().subscribe(value -> received.increment());
+                emitter = bus::emit;
+                break;
+            }
+            case "eventBusReplay": {
+                final EventBus<Long> bus = EventBus.replay(16);
+                subscription = bus.events().subscribe(value -> received.increment());
+                emitter = bus::emit;
+                break;
+            }
+            case "directProcessor": {
+                final DirectProcessor<Long> processor = DirectProcessor.create();
+                subscription = processor.subscribe(value -> received.increment());
+                emitter = sinkEmitter(processor.sink());
+                break;
+            }
+            case "emitterProcessor": {
+                final EmitterProcessor<Long> processor = EmitterProcessor.create();
+                subscription = processor.subscribe(value -> received.increment());
+                emitter = sinkEmitter(processor.sink());
+                break;
+            }
+            case "replayProcessor": {
+                final ReplayProcessor<Long> processor = ReplayProcessor.create(16);
+                subscription = processor.subscribe(value -> received.increment());
+                emitter = sinkEmitter(processor.sink());
+                break;
+            }
+            default:
+                throw new IllegalArgumentException(implementation);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        subscription.dispose();
+    }
+
+    private static LongPredicate sinkEmitter(FluxSink<Long> sink) {
+        return value -> {
+            sink.next(value);
+            return true;
+        };
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean emit1() {
+        return emitter.test(1L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean emit4() {
+        return emitter.test(1L);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public boolean emit16() {
+        return emitter.test(1L);
+    }
+}
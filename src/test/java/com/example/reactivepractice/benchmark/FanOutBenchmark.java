@@ -0,0 +1,54 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.fruit.FruitPipelines;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * publish().autoConnect(2) 로 distinct 와 groupBy 가 구독을 나눠 쓰는 방식과 FanOut 으로 한 번에 계산하는 방식 비교.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FanOutBenchmark {
+
+    @Param({"10", "10000"})
+    int basketSize;
+
+    @Param({"10", "1000"})
+    int cardinality;
+
+    Flux<List<String>> baskets;
+
+    @Setup
+    public void setUp() {
+        baskets = Flux.fromIterable(BenchmarkData.baskets(10, basketSize, cardinality));
+    }
+
+    @Benchmark
+    public void publishAutoConnect(Blackhole blackhole) {
+        FruitPipelines.coldToHot(baskets).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    public void fanOut(Blackhole blackhole) {
+        FruitPipelines.fanOut(baskets).doOnNext(blackhole::consume).blockLast();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.fruit.FruitPipelines;
+import com.example.reactivepractice.fruit.ParallelFruitAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReactiveFruit 의 바구니 집계 방식 비교.
+ * Throughput(ops/s)과 SampleTime(지연 시간 백분위)을 함께 측정하고, 할당량은 BenchmarkRunner 가 붙이는 gc 프로파일러로 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FruitPipelinesBenchmark {
+
+    @Param({"100"})
+    int basketCount;
+
+    @Param({"100", "10000"})
+    int basketSize;
+
+    @Param({"10", "1000"})
+    int cardinality;
+
+    Flux<List<String>> baskets;
+    Scheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        baskets = Flux.fromIterable(BenchmarkData.baskets(basketCount, basketSize, cardinality));
+        scheduler = Schedulers.newParallel("fruit-bench");
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.dispose();
+    }
+
+    @Benchmark
+    public void groupByReduce(Blackhole blackhole) {
+        FruitPipelines.groupByReduce(baskets).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    public void subscribeOnParallel(Blackhole blackhole) {
+        FruitPipelines.subscribeOnParallel(baskets, scheduler).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    public void coldToHot(Blackhole blackhole) {
+        FruitPipelines.coldToHot(baskets).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        FruitPipelines.singlePass(baskets).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    public void parallelPerBasket(Blackhole blackhole) {
+        FruitPipelines.parallelPerBasket(baskets, Schedulers.DEFAULT_POOL_SIZE, scheduler).doOnNext(blackhole::consume).blockLast();
+    }
+
+    @Benchmark
+    public Object parallelTotal() {
+        return ParallelFruitAggregator.total(baskets, Schedulers.DEFAULT_POOL_SIZE, scheduler).block();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.operator.KeyedProcess;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 과일별 개수를 groupBy(과일) → flatMap(count) 로 세는 방식과 KeyedProcess 로 shard 에 나눠 세는 방식 비교.
+ * groupBy → concatMap 은 종류가 groupBy 버퍼(256)보다 많으면 멈추므로 flatMap 동시성을 무제한으로 열어 둔 것과 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyedProcessBenchmark {
+
+    @Param({"100", "100000"})
+    int cardinality;
+
+    Flux<String> fruits;
+    KeyedProcess<String, String, Long> keyed;
+
+    @Setup
+    public void setUp() {
+        final List<List<String>> baskets = BenchmarkData.baskets(10, 100_000, cardinality);
+        fruits = Flux.fromIterable(baskets).concatMapIterable(basket -> basket);
+        keyed = new KeyedProcess<>(fruit -> fruit, fruit -> 0L, (count, fruit) -> count + 1,
+                Schedulers.DEFAULT_POOL_SIZE, Schedulers.parallel());
+    }
+
+    @Benchmark
+    public void groupByFlatMap(Blackhole blackhole) {
+        fruits.groupBy(fruit -> fruit)
+                .flatMap(group -> group.publishOn(Schedulers.parallel()).count(), Integer.MAX_VALUE)
+                .doOnNext(blackhole::consume)
+                .blockLast();
+    }
+
+    @Benchmark
+    public void keyedProcess(Blackhole blackhole) {
+        keyed.finalStates(fruits).doOnNext(blackhole::consume).blockLast();
+    }
+}
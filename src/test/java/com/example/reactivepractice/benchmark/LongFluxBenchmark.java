@@ -0,0 +1,68 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.numeric.LongFlux;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReactivePractice 의 FLUX_FILTER / FLUX_MAP / FLUX_COUNT 같은 range → map → filter → count(sum) 파이프라인을
+ * 박싱하는 {@code Flux<Long>}과 long[] chunk 로 도는 LongFlux 로 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LongFluxBenchmark {
+
+    @Param({"1000", "1000000"})
+    int size;
+
+    @Benchmark
+    public Long boxedCount() {
+        return Flux.range(0, size)
+                .map(i -> i * 3L)
+                .filter(i -> i % 2 == 0)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long longFluxCount() {
+        return LongFlux.range(0, size)
+                .map(i -> i * 3)
+                .filter(i -> i % 2 == 0)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public Long boxedSum() {
+        return Flux.range(0, size)
+                .map(i -> i * 3L)
+                .filter(i -> i % 2 == 0)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+
+    @Benchmark
+    public Long longFluxSum() {
+        return LongFlux.range(0, size)
+                .map(i -> i * 3)
+                .filter(i -> i % 2 == 0)
+                .sum()
+                .block();
+    }
+}
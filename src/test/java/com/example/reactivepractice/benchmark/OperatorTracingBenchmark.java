@@ -0,0 +1,62 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.metrics.OperatorTracing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * hook 없음 / 1% 샘플링 / 전부 추적일 때 range → map → filter → reduce 한 번 구독하는 비용.
+ * 조립도 매번 하므로 Hooks.onEachOperator 의 조립 비용까지 들어간다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperatorTracingBenchmark {
+
+    @Param({"0", "0.01", "1"})
+    double sampleRate;
+
+    @Param({"1000"})
+    int size;
+
+    OperatorTracing tracing;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 0 은 hook 자체를 설치하지 않은 기준선
+        tracing = sampleRate > 0 ? OperatorTracing.install(sampleRate) : null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (tracing != null) {
+            tracing.close();
+        }
+    }
+
+    @Benchmark
+    public Long pipeline() {
+        return Flux.range(0, size)
+                .map(i -> (long) i * 31)
+                .filter(value -> (value & 1) == 0)
+                .reduce(0L, Long::sum)
+                .block();
+    }
+}
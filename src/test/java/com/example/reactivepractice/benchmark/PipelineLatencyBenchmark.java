@@ -0,0 +1,62 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.support.PipelineHarness;
+import com.example.reactivepractice.support.PipelineScenario;
+import com.example.reactivepractice.support.PipelineScenarios;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 테스트에서 가상 시간으로 돌리는 PipelineScenarios 를 실제 scheduler 에서 돌려 끝까지 걸리는 시간을 잰다.
+ * delayElements 가 있는 시나리오는 지연 시간(500ms, 2초)을 뺀 나머지가 scheduler 전환 비용이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PipelineLatencyBenchmark {
+
+    static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Param({"fruitParallel", "subscribeOnPublishOn", "emitterUpperCase"})
+    String scenario;
+
+    PipelineScenario<?> pipeline;
+
+    @Setup
+    public void setUp() {
+        switch (scenario) {
+            case "fruitParallel":
+                pipeline = PipelineScenarios.fruitParallel(PipelineScenarios.BASKETS);
+                break;
+            case "subscribeOnPublishOn":
+                pipeline = PipelineScenarios.subscribeOnPublishOn();
+                break;
+            case "emitterUpperCase":
+                pipeline = PipelineScenarios.emitterUpperCase();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+    }
+
+    @Benchmark
+    public List<?> real() {
+        return PipelineHarness.real(pipeline, TIMEOUT).values();
+    }
+}
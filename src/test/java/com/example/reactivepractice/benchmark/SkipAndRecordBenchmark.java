@@ -0,0 +1,81 @@
+package com.example.reactivepractice.benchmark;
+
+import com.example.reactivepractice.operator.DeadLetterRing;
+import com.example.reactivepractice.operator.PoisonMessageException;
+import com.example.reactivepractice.operator.SkipAndRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1% 가 실패하는 입력에서 onErrorContinue 와 skipAndRecord / skipInvalid 비교.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SkipAndRecordBenchmark {
+
+    static final int SIZE = 10_000;
+
+    Flux<Integer> source;
+    DeadLetterRing<Integer> deadLetters;
+
+    @Setup
+    public void setUp() {
+        source = Flux.range(0, SIZE);
+        deadLetters = DeadLetterRing.inMemory(1_024, false);
+    }
+
+    static Integer parse(Integer value) {
+        if (value % 100 == 0) {
+            throw new IllegalArgumentException("poison " + value);
+        }
+        return value;
+    }
+
+    static Integer parseLight(Integer value) {
+        if (value % 100 == 0) {
+            throw new PoisonMessageException("poison");
+        }
+        return value;
+    }
+
+    @Benchmark
+    public void onErrorContinue(Blackhole blackhole) {
+        source.map(SkipAndRecordBenchmark::parse)
+                .onErrorContinue((error, value) -> blackhole.consume(value))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void skipAndRecord(Blackhole blackhole) {
+        source.transform(SkipAndRecord.skipAndRecord(SkipAndRecordBenchmark::parse, deadLetters))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void skipAndRecordPoison(Blackhole blackhole) {
+        source.transform(SkipAndRecord.skipAndRecord(SkipAndRecordBenchmark::parseLight, deadLetters))
+                .subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void skipInvalid(Blackhole blackhole) {
+        source.transform(SkipAndRecord.skipInvalid(value -> value % 100 == 0 ? "poison" : null, deadLetters))
+                .subscribe(blackhole::consume);
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.reactivepractice.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactiveCacheTest {
+
+    @Test
+    void concurrentSubscribersShareOneLoad() {
+        final Sinks.One<String> response = Sinks.one();
+        final ReactiveCache<String, String> cache = ReactiveCache.<String, String>builder(key -> response.asMono())
+                .build();
+
+        final Mono<List<String>> all = Flux.range(0, 64)
+                .flatMap(i -> cache.get("apple").subscribeOn(Schedulers.parallel()))
+                .collectList();
+
+        StepVerifier.create(all)
+                .then(() -> response.tryEmitValue("APPLE"))
+                .assertNext(values -> assertThat(values).hasSize(64).containsOnly("APPLE"))
+                .verifyComplete();
+        assertThat(cache.loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void cancelledSubscriberDoesNotCancelSharedLoad() {
+        final Sinks.One<String> response = Sinks.one();
+        final ReactiveCache<String, String> cache = ReactiveCache.<String, String>builder(key -> response.asMono())
+                .build();
+
+        cache.get("apple").subscribe().dispose();
+        final Mono<String> second = cache.get("apple");
+        response.tryEmitValue("APPLE");
+
+        StepVerifier.create(second).expectNext("APPLE").verifyComplete();
+        assertThat(cache.loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    void expiresAfterTtl() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final AtomicInteger calls = new AtomicInteger();
+        final ReactiveCache<String, Integer> cache = ReactiveCache.<String, Integer>builder(key -> Mono.fromCallable(calls::incrementAndGet))
+                .ttl(Duration.ofSeconds(10))
+                .clock(clock)
+                .executor(Runnable::run)
+                .build();
+
+        assertThat(cache.get("apple").block()).isEqualTo(1);
+        clock.advanceTimeBy(Duration.ofSeconds(9));
+        assertThat(cache.get("apple").block()).isEqualTo(1);
+        clock.advanceTimeBy(Duration.ofSeconds(2));
+        assertThat(cache.get("apple").block()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshAheadServesStaleValueWhileReloading() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final AtomicInteger calls = new AtomicInteger();
+        final ReactiveCache<String, Integer> cache = ReactiveCache.<String, Integer>builder(key -> Mono.fromCallable(calls::incrementAndGet))
+                .ttl(Duration.ofMinutes(1))
+                .refreshAfter(Duration.ofSeconds(5))
+                .clock(clock)
+                .executor(Runnable::run)
+                .build();
+
+        assertThat(cache.get("apple").block()).isEqualTo(1);
+        clock.advanceTimeBy(Duration.ofSeconds(6));
+        // 오래된 값을 바로 주고, 같은 호출에서 refresh 를 시작한다.
+        assertThat(cache.get("apple").block()).isEqualTo(1);
+        assertThat(cache.get("apple").block()).isEqualTo(2);
+        assertThat(cache.loadCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failedOrEmptyLoadIsNotCached() {
+        final AtomicInteger calls = new AtomicInteger();
+        final ReactiveCache<String, String> cache = ReactiveCache.<String, String>builder(key ->
+                        calls.incrementAndGet() == 1 ? Mono.error(new IllegalStateException("boom")) : Mono.empty())
+                .build();
+
+        StepVerifier.create(cache.get("apple")).verifyError(IllegalStateException.class);
+        StepVerifier.create(cache.get("apple")).verifyComplete();
+        StepVerifier.create(cache.get("apple")).verifyComplete();
+        assertThat(calls).hasValue(3);
+    }
+
+    @Test
+    void boundedBySize() {
+        final ReactiveCache<Integer, Integer> cache = ReactiveCache.<Integer, Integer>builder(Mono::just)
+                .maximumSize(100)
+                .executor(Runnable::run)
+                .build();
+
+        Flux.range(0, 10_000).concatMap(cache::get).blockLast();
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        final AtomicInteger calls = new AtomicInteger();
+        final ReactiveCache<String, Integer> cache = ReactiveCache.<String, Integer>builder(key -> Mono.fromCallable(calls::incrementAndGet))
+                .build();
+
+        assertThat(cache.get("apple").block()).isEqualTo(1);
+        StepVerifier.create(cache.getIfPresent("banana")).verifyComplete();
+        cache.invalidate("apple");
+        assertThat(cache.get("apple").block()).isEqualTo(2);
+    }
+}
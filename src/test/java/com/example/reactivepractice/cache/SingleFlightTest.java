@@ -0,0 +1,108 @@
+package com.example.reactivepractice.cache;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    @Test
+    void exactlyOneExecutionPerWindow() throws Exception {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final int windows = 20;
+        final int subscribers = 1_000;
+
+        for (int window = 0; window < windows; window++) {
+            final Sinks.One<Integer> gate = Sinks.one();
+            final CountDownLatch joined = new CountDownLatch(subscribers);
+            final CompletableFuture<List<Integer>> results = Flux.range(0, subscribers)
+                    .flatMap(i -> singleFlight.execute("fallback", () -> {
+                                        calls.incrementAndGet();
+                                        return gate.asMono();
+                                    })
+                                    .doOnSubscribe(s -> joined.countDown())
+                                    .subscribeOn(Schedulers.parallel()),
+                            subscribers)
+                    .collectList()
+                    .toFuture();
+
+            // 모두 합류한 뒤에 결과를 내보내야 한 창(window) 안에서 실행이 하나인지 확인할 수 있다.
+            assertThat(joined.await(10, TimeUnit.SECONDS)).isTrue();
+            gate.tryEmitValue(window);
+
+            assertThat(results.get(10, TimeUnit.SECONDS)).hasSize(subscribers).containsOnly(window);
+            assertThat(calls).hasValue(window + 1);
+            assertThat(singleFlight.inFlightCount()).isZero();
+        }
+        assertThat(singleFlight.executionCount()).isEqualTo(windows);
+    }
+
+    @Test
+    void nextMissAfterCompletionRunsAgain() {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final Mono<Integer> fallback = singleFlight.execute("fallback", () -> Mono.fromCallable(calls::incrementAndGet));
+
+        StepVerifier.create(fallback).expectNext(1).verifyComplete();
+        StepVerifier.create(fallback).expectNext(2).verifyComplete();
+    }
+
+    @Test
+    void errorIsSharedThenForgotten() {
+        final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+        final Sinks.One<Integer> gate = Sinks.one();
+        final Mono<Integer> failing = singleFlight.execute("fallback", gate::asMono);
+
+        final StepVerifier first = StepVerifier.create(failing).expectError(IllegalStateException.class).verifyLater();
+        final StepVerifier second = StepVerifier.create(failing).expectError(IllegalStateException.class).verifyLater();
+        gate.tryEmitError(new IllegalStateException("boom"));
+        first.verify();
+        second.verify();
+
+        StepVerifier.create(singleFlight.execute("fallback", () -> Mono.just(1))).expectNext(1).verifyComplete();
+        assertThat(singleFlight.executionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void keysAreIndependent() {
+        final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        final Sinks.One<String> apple = Sinks.one();
+
+        final StepVerifier pending = StepVerifier.create(singleFlight.execute("apple", apple::asMono))
+                .expectNext("APPLE")
+                .expectComplete()
+                .verifyLater();
+
+        StepVerifier.create(singleFlight.execute("banana", () -> Mono.just("BANANA"))).expectNext("BANANA").verifyComplete();
+        apple.tryEmitValue("APPLE");
+        pending.verify();
+    }
+
+    @Test
+    void switchIfEmptyFallbackIsLazyAndShared() {
+        final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+        final AtomicInteger calls = new AtomicInteger();
+        final Mono<String> fallback = singleFlight.execute("fallback", () -> {
+            calls.incrementAndGet();
+            return Mono.just("Other-data");
+        });
+
+        StepVerifier.create(Mono.just("Response").switchIfEmpty(fallback)).expectNext("Response").verifyComplete();
+        assertThat(calls).hasValue(0);
+
+        StepVerifier.create(Mono.<String>empty().switchIfEmpty(fallback)).expectNext("Other-data").verifyComplete();
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.reactivepractice.event;
+
+import com.example.reactivepractice.event.EventBus.BackpressureStrategy;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EventBusTest {
+
+    @Test
+    void multipleProducersOnDifferentThreads() throws InterruptedException {
+        final EventBus<Integer> bus = EventBus.multicast(BackpressureStrategy.BUFFER, 256);
+        final int producers = 8;
+        final int perProducer = 10_000;
+        final CompletableFuture<List<Integer>> collected = bus.events().take(producers * perProducer).collectList().toFuture();
+        final ExecutorService executor = Executors.newFixedThreadPool(producers);
+        final CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    assertThat(bus.emit(base + i)).isTrue();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(collected.join()).hasSize(producers * perProducer).doesNotHaveDuplicates();
+        assertThat(bus.droppedCount()).isZero();
+    }
+
+    @Test
+    void dropLatestWhenBufferIsFull() {
+        final EventBus<Integer> bus = EventBus.multicast(BackpressureStrategy.DROP_LATEST, 8);
+
+        StepVerifier.create(bus.events(), 0)
+                .then(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        bus.emit(i);
+                    }
+                })
+                .thenRequest(20)
+                .expectNext(0, 1, 2, 3, 4, 5, 6, 7)
+                .then(bus::complete)
+                .verifyComplete();
+
+        assertThat(bus.droppedCount()).isEqualTo(12);
+    }
+
+    @Test
+    void failWhenBufferIsFull() {
+        final EventBus<Integer> bus = EventBus.unicast(BackpressureStrategy.FAIL, 8);
+
+        StepVerifier.create(bus.events(), 0)
+                .then(() -> {
+                    for (int i = 0; i < 8; i++) {
+                        assertThat(bus.emit(i)).isTrue();
+                    }
+                    assertThat(bus.emit(8)).isFalse();
+                    assertThat(bus.emit(9)).isFalse();
+                })
+                .thenRequest(20)
+                .expectNext(0, 1, 2, 3, 4, 5, 6, 7)
+                .verifyErrorMatches(Exceptions::isOverflow);
+    }
+
+    @Test
+    void unicastAllowsSingleSubscriber() {
+        final EventBus<Long> bus = EventBus.unicast(BackpressureStrategy.BUFFER, 16);
+        bus.emit(10L);
+
+        StepVerifier.create(bus.events().take(1)).expectNext(10L).verifyComplete();
+        StepVerifier.create(bus.events()).expectError(IllegalStateException.class).verify();
+    }
+
+    @Test
+    void replayLastEventsToLateSubscriber() {
+        final EventBus<Long> bus = EventBus.replay(3);
+        for (long i = 10; i <= 14; i++) {
+            bus.emit(i);
+        }
+
+        StepVerifier.create(bus.events())
+                .expectNext(12L, 13L, 14L)
+                .then(() -> bus.emit(15L))
+                .expectNext(15L)
+                .then(bus::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void keepsRunningAfterSubscribersCancel() {
+        final EventBus<String> bus = EventBus.multicast(BackpressureStrategy.BUFFER, 16);
+
+        StepVerifier.create(bus.events().take(1)).then(() -> bus.emit("first")).expectNext("first").verifyComplete();
+        StepVerifier.create(bus.events().publishOn(Schedulers.parallel()).take(1))
+                .then(() -> bus.emit("second"))
+                .expectNext("second")
+                .verifyComplete();
+        StepVerifier.create(Flux.from(bus.events()).take(Duration.ofMillis(10)).count()).expectNext(0L).verifyComplete();
+    }
+}
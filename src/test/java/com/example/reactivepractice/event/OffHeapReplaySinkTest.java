@@ -0,0 +1,108 @@
+package com.example.reactivepractice.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OffHeapReplaySinkTest {
+
+    @Test
+    void replaysLastItemsToLateSubscriber() {
+        final OffHeapReplaySink<Long> sink = OffHeapReplaySink.direct(1024, 3, ReplaySerializer.longs());
+        for (long i = 10; i <= 14; i++) {
+            sink.emit(i);
+        }
+
+        StepVerifier.create(sink.asFlux())
+                .expectNext(12L, 13L, 14L)
+                .then(() -> sink.emit(15L))
+                .expectNext(15L)
+                .then(sink::complete)
+                .verifyComplete();
+    }
+
+    @Test
+    void limitsHistoryByBytes() {
+        // Long 하나는 8바이트이므로 40바이트에는 최근 5개만 남는다.
+        final OffHeapReplaySink<Long> sink = OffHeapReplaySink.direct(40, 1_000, ReplaySerializer.longs());
+        LongStream.range(0, 100).forEach(sink::emit);
+        sink.complete();
+
+        assertThat(sink.size()).isEqualTo(5);
+        StepVerifier.create(sink.asFlux()).expectNext(95L, 96L, 97L, 98L, 99L).verifyComplete();
+    }
+
+    @Test
+    void variableSizeRecordsWrapAround() {
+        final OffHeapReplaySink<String> sink = OffHeapReplaySink.direct(64, 100, ReplaySerializer.strings());
+        final List<String> values = List.of("kiwi", "오렌지", "lemon-lemon-lemon", "🍓 strawberry", "grape", "바나나 banana", "x");
+        values.forEach(sink::emit);
+        sink.complete();
+
+        final List<String> replayed = sink.asFlux().collectList().block();
+        assertThat(replayed).isNotEmpty();
+        assertThat(values).endsWith(replayed.toArray(new String[0]));
+        assertThat(replayed.stream().mapToInt(ReplaySerializer.strings()::sizeOf).sum()).isLessThanOrEqualTo(64);
+    }
+
+    @Test
+    void rejectsRecordLargerThanCapacity() {
+        final OffHeapReplaySink<String> sink = OffHeapReplaySink.direct(4, 10, ReplaySerializer.strings());
+
+        assertThatThrownBy(() -> sink.emit("strawberry")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void slowSubscriberSkipsOverwrittenItems() {
+        final OffHeapReplaySink<Long> sink = OffHeapReplaySink.direct(1024, 4, ReplaySerializer.longs());
+        sink.emit(0L);
+
+        StepVerifier.create(sink.asFlux(), 1)
+                .expectNext(0L)
+                .then(() -> LongStream.range(1, 10).forEach(sink::emit))
+                .thenRequest(Long.MAX_VALUE)
+                .expectNext(6L, 7L, 8L, 9L)
+                .then(sink::complete)
+                .verifyComplete();
+
+        assertThat(sink.skippedCount()).isEqualTo(5);
+    }
+
+    @Test
+    void concurrentProducers() throws InterruptedException {
+        final OffHeapReplaySink<Long> sink = OffHeapReplaySink.direct(1 << 20, 100_000, ReplaySerializer.longs());
+        final CompletableFuture<List<Long>> received = sink.asFlux().collectList().toFuture();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int p = 0; p < 4; p++) {
+            final long base = p * 10_000L;
+            executor.execute(() -> LongStream.range(base, base + 10_000).forEach(sink::emit));
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        sink.complete();
+
+        assertThat(received.join()).hasSize(40_000).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void memoryMappedFile(@TempDir Path directory) throws IOException {
+        try (OffHeapReplaySink<String> sink = OffHeapReplaySink.mapped(directory.resolve("replay.dat"), 4096, 2, ReplaySerializer.strings())) {
+            List.of("kiwi", "orange", "lemon").forEach(sink::emit);
+            sink.complete();
+
+            StepVerifier.create(sink.asFlux()).expectNext("orange", "lemon").verifyComplete();
+        }
+    }
+}
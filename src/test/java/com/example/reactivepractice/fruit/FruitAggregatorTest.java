@@ -0,0 +1,91 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FruitAggregatorTest {
+
+    final List<String> basket1 = Arrays.asList("kiwi", "orange", "lemon", "orange", "lemon", "kiwi");
+    final List<String> basket2 = Arrays.asList("banana", "lemon", "lemon", "kiwi");
+    final List<String> basket3 = Arrays.asList("strawberry", "orange", "lemon", "grape", "strawberry");
+
+    // 기존 ReactiveFruit.Fruit_Basket 의 groupBy → concatMap(count) → reduce 파이프라인
+    Mono<FruitInfo> groupByPipeline(List<String> basket) {
+        return FruitPipelines.groupByReduce(Flux.just(basket)).single();
+    }
+
+    @Test
+    void sameResultAsGroupByPipeline() {
+        for (List<String> basket : List.of(basket1, basket2, basket3)) {
+            final FruitInfo expected = groupByPipeline(basket).block();
+
+            StepVerifier.create(FruitAggregator.aggregate(Flux.fromIterable(basket)))
+                    .assertNext(info -> {
+                        assertThat(info).isEqualTo(expected);
+                        assertThat(info.toString()).isEqualTo(expected.toString());
+                    })
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    void keepsFirstSeenOrder() {
+        final FruitInfo info = FruitAggregator.summarize(basket3);
+
+        assertThat(info.getDistinctFruits()).containsExactly("strawberry", "orange", "lemon", "grape");
+        assertThat(new ArrayList<>(info.getCountFruits().keySet())).isEqualTo(info.getDistinctFruits());
+        assertThat(info.getCountFruits()).containsEntry("strawberry", 2L).containsEntry("grape", 1L);
+    }
+
+    @Test
+    void largeBasket() {
+        final Random random = new Random(42);
+        final List<String> basket = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            basket.add("fruit-" + random.nextInt(500));
+        }
+        final List<String> distinct = basket.stream().distinct().collect(Collectors.toList());
+        final Map<String, Long> counts = basket.stream()
+                .collect(Collectors.groupingBy(fruit -> fruit, LinkedHashMap::new, Collectors.counting()));
+
+        assertThat(FruitAggregator.aggregate(Flux.fromIterable(basket)).block())
+                .isEqualTo(new FruitInfo(distinct, counts))
+                .isEqualTo(groupByPipeline(basket).block())
+                .isEqualTo(basket.stream().collect(FruitAggregator.collector()));
+    }
+
+    @Test
+    void collectorCombinerKeepsOrder() {
+        final List<String> basket = new ArrayList<>(basket1);
+        basket.addAll(basket2);
+        basket.addAll(basket3);
+
+        final FruitInfo parallel = basket.parallelStream().collect(FruitAggregator.collector());
+
+        assertThat(parallel).isEqualTo(FruitAggregator.summarize(basket));
+        assertThat(parallel.getCountFruits())
+                .isEqualTo(basket.stream().collect(Collectors.groupingBy(fruit -> fruit, Collectors.counting())));
+    }
+
+    @Test
+    void emptyBasket() {
+        StepVerifier.create(FruitAggregator.aggregate(Flux.empty()))
+                .assertNext(info -> {
+                    assertThat(info.getDistinctFruits()).isEmpty();
+                    assertThat(info.getCountFruits()).isEmpty();
+                })
+                .verifyComplete();
+    }
+}
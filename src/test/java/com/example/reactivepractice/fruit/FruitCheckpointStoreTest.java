@@ -0,0 +1,247 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FruitCheckpointStoreTest {
+
+    // offset 으로 다시 만들 수 있는 바구니. 재시작한 뒤 같은 위치부터 같은 바구니를 다시 읽는 source 역할을 한다.
+    static List<String> basket(long offset) {
+        final List<String> basket = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            basket.add("fruit-" + Math.floorMod((offset * 31 + i * 7) ^ (offset >>> 3), 2_000L));
+        }
+        return basket;
+    }
+
+    static Flux<List<String>> source(long from, long to) {
+        return Flux.range(0, Math.toIntExact(to - from)).map(i -> basket(from + i));
+    }
+
+    static FruitInfo expected(long to) {
+        final List<String> fruits = new ArrayList<>();
+        for (long offset = 0; offset < to; offset++) {
+            fruits.addAll(basket(offset));
+        }
+        return FruitAggregator.summarize(fruits);
+    }
+
+    @Test
+    void reopensWithCheckpointedCountsAndOffset(@TempDir Path directory) throws IOException {
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            source(0, 100).subscribe(store::apply);
+            assertThat(store.checkpoint()).isTrue();
+            source(100, 150).subscribe(store::apply);
+            assertThat(store.checkpoint()).isTrue();
+            assertThat(store.checkpoint()).isFalse();
+            // 체크포인트하지 않은 바구니는 다시 열면 없다.
+            source(150, 160).subscribe(store::apply);
+            assertThat(store.offset()).isEqualTo(160);
+            assertThat(store.resumeOffset()).isEqualTo(150);
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            assertThat(store.offset()).isEqualTo(150);
+            assertThat(store.snapshot()).isEqualTo(expected(150));
+        }
+    }
+
+    @Test
+    void compactionKeepsOrderAndDropsOldLog(@TempDir Path directory) throws IOException {
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            source(0, 300).subscribe(store::apply);
+            store.checkpoint();
+            store.compact();
+            assertThat(Files.size(directory.resolve(FruitCheckpointStore.LOG_FILE))).isZero();
+            source(300, 500).subscribe(store::apply);
+            store.checkpoint();
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            assertThat(store.offset()).isEqualTo(500);
+            // distinct 순서까지 같다.
+            assertThat(store.snapshot()).isEqualTo(expected(500));
+        }
+    }
+
+    @Test
+    void logRecordsOlderThanSnapshotAreSkipped(@TempDir Path directory) throws IOException {
+        final Path log = directory.resolve(FruitCheckpointStore.LOG_FILE);
+        final byte[] staleLog;
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            source(0, 50).subscribe(store::apply);
+            store.checkpoint();
+            staleLog = Files.readAllBytes(log);
+            store.compact();
+        }
+        // 스냅샷을 rename 한 직후, 로그를 비우기 전에 죽은 경우
+        Files.write(log, staleLog);
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            assertThat(store.offset()).isEqualTo(50);
+            assertThat(store.snapshot()).isEqualTo(expected(50));
+        }
+    }
+
+    @Test
+    void tornTailIsDiscarded(@TempDir Path directory) throws IOException {
+        final Path log = directory.resolve(FruitCheckpointStore.LOG_FILE);
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            source(0, 40).subscribe(store::apply);
+            store.checkpoint();
+            source(40, 80).subscribe(store::apply);
+            store.checkpoint();
+        }
+        // 두 번째 레코드를 쓰다가 죽어서 끝이 잘린 경우
+        final long size = Files.size(log);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            assertThat(store.offset()).isEqualTo(40);
+            assertThat(store.snapshot()).isEqualTo(expected(40));
+            // 잘린 꼬리 자리에 다음 레코드를 쓴다.
+            source(40, 60).subscribe(store::apply);
+            store.checkpoint();
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            assertThat(store.snapshot()).isEqualTo(expected(60));
+        }
+    }
+
+    @Test
+    void corruptedRecordStopsRecovery(@TempDir Path directory) throws IOException {
+        final Path log = directory.resolve(FruitCheckpointStore.LOG_FILE);
+        final long firstRecordEnd;
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            source(0, 10).subscribe(store::apply);
+            store.checkpoint();
+            firstRecordEnd = Files.size(log);
+            source(10, 20).subscribe(store::apply);
+            store.checkpoint();
+        }
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{0x7f}), firstRecordEnd + 20);
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            assertThat(store.offset()).isEqualTo(10);
+            assertThat(store.snapshot()).isEqualTo(expected(10));
+        }
+    }
+
+    @Test
+    void corruptedSnapshotIsRejected(@TempDir Path directory) throws IOException {
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            source(0, 10).subscribe(store::apply);
+            store.compact();
+        }
+        final Path snapshot = directory.resolve(FruitCheckpointStore.SNAPSHOT_FILE);
+        final byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(snapshot, bytes);
+
+        assertThatThrownBy(() -> FruitCheckpointStore.open(directory)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void aggregateCheckpointsOnIntervalAndCompletion(@TempDir Path directory) throws IOException {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            final List<FruitInfo> totals = new ArrayList<>();
+            store.aggregate(source(0, 30).delayElements(Duration.ofMillis(7), clock), Duration.ofMillis(100), clock)
+                    .subscribe(totals::add);
+
+            // 7ms 마다 바구니 하나, 100ms 에 첫 체크포인트
+            clock.advanceTimeBy(Duration.ofMillis(105));
+            assertThat(store.resumeOffset()).isEqualTo(14);
+            clock.advanceTimeBy(Duration.ofSeconds(1));
+            assertThat(totals).containsExactly(expected(30));
+            assertThat(store.resumeOffset()).isEqualTo(30);
+        }
+    }
+
+    @Test
+    void cancelledPipelineResumesExactly(@TempDir Path directory) throws IOException {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            final Disposable pipeline = store.aggregate(source(0, 1_000).delayElements(Duration.ofMillis(1), clock),
+                    Duration.ofMillis(50), clock).subscribe();
+            clock.advanceTimeBy(Duration.ofMillis(275));
+            pipeline.dispose();
+            assertThat(store.offset()).isGreaterThan(store.resumeOffset());
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            final long resume = store.resumeOffset();
+            assertThat(resume).isBetween(1L, 275L);
+            final FruitInfo total = store.aggregate(source(resume, 1_000), Duration.ofSeconds(1)).block();
+            assertThat(total).isEqualTo(expected(1_000));
+        }
+    }
+
+    @Test
+    void killedProcessResumesExactly(@TempDir Path directory) throws Exception {
+        final String java = ProcessHandle.current().info().command().orElse("java");
+        final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                Crasher.class.getName(), directory.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            // 체크포인트가 몇 번 쌓일 때까지 기다렸다가 정리할 틈 없이 죽인다.
+            final Path log = directory.resolve(FruitCheckpointStore.LOG_FILE);
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (!(Files.exists(log) && Files.size(log) > 4_096) && process.isAlive() && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(process.isAlive()).isTrue();
+        } finally {
+            process.destroyForcibly().waitFor();
+        }
+
+        try (FruitCheckpointStore store = FruitCheckpointStore.open(directory)) {
+            final long resume = store.resumeOffset();
+            assertThat(resume).isPositive();
+            final long end = resume + 1_000;
+            final FruitInfo total = store.aggregate(source(resume, end), Duration.ofMillis(10)).block();
+            assertThat(total).isEqualTo(expected(end));
+        }
+    }
+
+    /**
+     * killedProcessResumesExactly 가 띄우는 프로세스. 끝나지 않는 source 를 세면서 10ms 마다 체크포인트한다.
+     */
+    static final class Crasher {
+        public static void main(String[] args) throws IOException {
+            final FruitCheckpointStore store = FruitCheckpointStore.open(Path.of(args[0]));
+            Flux.<List<String>, Long>generate(store::offset, (offset, sink) -> {
+                        sink.next(basket(offset));
+                        return offset + 1;
+                    })
+                    .subscribeOn(Schedulers.single())
+                    .as(baskets -> store.aggregate(baskets, Duration.ofMillis(10)))
+                    .block();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FruitCountsTest {
+
+    @Test
+    void keepsInsertionOrderWhileGrowing() {
+        final FruitCounts counts = new FruitCounts(2);
+        final List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            final String fruit = "fruit-" + (i * 7919 % 1_000);
+            counts.increment(fruit);
+            counts.increment(fruit);
+            expected.add(fruit);
+        }
+
+        assertThat(counts.size()).isEqualTo(1_000);
+        assertThat(counts.distinct()).isEqualTo(expected);
+        assertThat(counts.count("fruit-0")).isEqualTo(2L);
+        assertThat(counts.count("apple")).isZero();
+        assertThat(counts.asMap()).containsEntry("fruit-999", 2L).doesNotContainKey("apple");
+    }
+
+    @Test
+    void equalsAndHashCodeMatchListAndMapSemantics() {
+        final List<String> distinct = List.of("kiwi", "orange", "lemon");
+        final Map<String, Long> boxed = new HashMap<>(Map.of("kiwi", 2L, "orange", 2L, "lemon", 2L));
+        final FruitInfo legacy = new FruitInfo(distinct, boxed);
+        final FruitInfo aggregated = FruitAggregator.summarize(List.of("kiwi", "orange", "lemon", "orange", "lemon", "kiwi"));
+
+        assertThat(aggregated).isEqualTo(legacy);
+        assertThat(aggregated.hashCode()).isEqualTo(31 * distinct.hashCode() + boxed.hashCode());
+        assertThat(aggregated.getDistinctFruits()).isEqualTo(distinct);
+        assertThat(aggregated.getCountFruits()).isEqualTo(boxed);
+        assertThat(boxed).isEqualTo(aggregated.getCountFruits());
+        assertThat(aggregated.getCountFruits().hashCode()).isEqualTo(boxed.hashCode());
+    }
+
+    @Test
+    void orderMatters() {
+        final FruitInfo first = FruitAggregator.summarize(List.of("kiwi", "lemon"));
+        final FruitInfo second = FruitAggregator.summarize(List.of("lemon", "kiwi"));
+
+        // distinct 목록은 List 비교라 순서가 다르면 다르다. (기존 FruitInfo와 동일)
+        assertThat(first).isNotEqualTo(second);
+        assertThat(first.getCountFruits()).isEqualTo(second.getCountFruits());
+    }
+
+    @Test
+    void copyAndAddAll() {
+        final FruitCounts left = new FruitCounts();
+        left.increment("kiwi");
+        left.increment("lemon");
+        final FruitCounts right = new FruitCounts();
+        right.add("banana", 3);
+        right.add("kiwi", 2);
+
+        final FruitCounts merged = left.copy().addAll(right);
+
+        assertThat(merged.distinct()).containsExactly("kiwi", "lemon", "banana");
+        assertThat(merged.asMap()).isEqualTo(Map.of("kiwi", 3L, "lemon", 1L, "banana", 3L));
+        assertThat(left.count("kiwi")).isEqualTo(1L);
+    }
+
+    @Test
+    void rejectsMismatchedListAndMap() {
+        final Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("kiwi", 1L);
+        counts.put("lemon", 1L);
+
+        assertThatThrownBy(() -> new FruitInfo(List.of("kiwi", "banana"), counts))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FruitInfo(List.of("kiwi"), counts))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void viewsAreReadOnly() {
+        final FruitInfo info = FruitAggregator.summarize(List.of("kiwi"));
+
+        assertThatThrownBy(() -> info.getDistinctFruits().add("lemon")).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> info.getCountFruits().put("lemon", 1L)).isInstanceOf(UnsupportedOperationException.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FruitPipelinesTest {
+
+    @Test
+    void allVariantsAgree() {
+        final Random random = new Random(3);
+        final List<List<String>> baskets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final List<String> basket = new ArrayList<>();
+            for (int j = 0; j < 1_000; j++) {
+                basket.add("fruit-" + random.nextInt(100));
+            }
+            baskets.add(basket);
+        }
+        final Flux<List<String>> basketFlux = Flux.fromIterable(baskets);
+
+        final List<FruitInfo> expected = FruitPipelines.singlePass(basketFlux).collectList().block();
+
+        assertThat(expected).hasSize(50);
+        assertThat(FruitPipelines.groupByReduce(basketFlux).collectList().block()).isEqualTo(expected);
+        assertThat(FruitPipelines.subscribeOnParallel(basketFlux, Schedulers.parallel()).collectList().block()).isEqualTo(expected);
+        assertThat(FruitPipelines.coldToHot(basketFlux).collectList().block()).isEqualTo(expected);
+        assertThat(FruitPipelines.fanOut(basketFlux).collectList().block()).isEqualTo(expected);
+        assertThat(FruitPipelines.parallelPerBasket(basketFlux, 4, Schedulers.parallel()).collectList().block()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FruitSketchesTest {
+
+    final FruitSketches sketches = new FruitSketches(0.01, 0.001, 0.99, 10);
+
+    // 작은 번호일수록 자주 나오는 과일 스트림
+    List<String> skewedFruits(int count, int cardinality) {
+        final Random random = new Random(5);
+        final List<String> fruits = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            fruits.add("fruit-" + (int) Math.floor(Math.pow(cardinality, random.nextDouble()) - 1));
+        }
+        return fruits;
+    }
+
+    @Test
+    void approximatesExactPipeline() {
+        final List<String> fruits = skewedFruits(300_000, 100_000);
+        final FruitInfo exact = FruitAggregator.aggregate(Flux.fromIterable(fruits)).block();
+        final List<String> exactTop = exact.getCountFruits().entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(10)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        final ApproximateFruitInfo approximate = sketches.summarize(Flux.fromIterable(fruits)).block();
+
+        assertThat(approximate.getTotal()).isEqualTo(fruits.size());
+        final int distinct = exact.getDistinctFruits().size();
+        assertThat((double) approximate.getDistinctEstimate())
+                .isCloseTo(distinct, within(3 * approximate.getDistinctRelativeError() * distinct));
+        assertThat(approximate.getHeavyHitters().keySet()).containsExactlyElementsOf(exactTop);
+        approximate.getHeavyHitters().forEach((fruit, count) -> assertThat(count)
+                .isBetween(exact.getCountFruits().get(fruit), exact.getCountFruits().get(fruit) + approximate.getCountErrorBound()));
+        assertThat(approximate.getCountErrorBound()).isEqualTo(300L);
+    }
+
+    @Test
+    void snapshotsRunningSummary() {
+        final List<String> fruits = skewedFruits(2_500, 1_000);
+
+        StepVerifier.create(sketches.snapshotEvery(Flux.fromIterable(fruits), 1_000))
+                .assertNext(info -> assertThat(info.getTotal()).isEqualTo(1_000))
+                .assertNext(info -> assertThat(info.getTotal()).isEqualTo(2_000))
+                .assertNext(info -> {
+                    assertThat(info.getTotal()).isEqualTo(2_500);
+                    assertThat(info.getHeavyHitters()).hasSize(10);
+                })
+                .verifyComplete();
+        // 개수가 every 의 배수면 마지막 요약을 다시 보내지 않는다.
+        StepVerifier.create(sketches.snapshotEvery(Flux.fromIterable(fruits.subList(0, 2_000)), 1_000))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void smallBasketIsExact() {
+        final ApproximateFruitInfo info = sketches.summarize(
+                Flux.just("kiwi", "orange", "lemon", "orange", "lemon", "kiwi", "banana", "lemon")).block();
+
+        assertThat(info.getDistinctEstimate()).isEqualTo(4);
+        assertThat(info.getHeavyHitters()).containsExactly(
+                Map.entry("lemon", 3L), Map.entry("kiwi", 2L), Map.entry("orange", 2L), Map.entry("banana", 1L));
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThatThrownBy(() -> new FruitSketches(0.0, 0.001, 0.99, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FruitSketches(0.01, 0.001, 1.0, 10)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FruitSketches(0.01, 0.001, 0.99, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
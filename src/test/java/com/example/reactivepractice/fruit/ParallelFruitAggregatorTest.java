@@ -0,0 +1,79 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelFruitAggregatorTest {
+
+    List<List<String>> randomBaskets(int basketCount, int basketSize, int cardinality) {
+        final Random random = new Random(7);
+        final List<List<String>> baskets = new ArrayList<>();
+        for (int i = 0; i < basketCount; i++) {
+            final List<String> basket = new ArrayList<>();
+            for (int j = 0; j < basketSize; j++) {
+                basket.add("fruit-" + random.nextInt(cardinality));
+            }
+            baskets.add(basket);
+        }
+        return baskets;
+    }
+
+    @Test
+    void perBasketMatchesSequentialOrder() {
+        final List<List<String>> baskets = randomBaskets(2_000, 200, 300);
+        final List<FruitInfo> sequential = Flux.fromIterable(baskets)
+                .concatMap(basket -> FruitAggregator.aggregate(Flux.fromIterable(basket)))
+                .collectList()
+                .block();
+
+        final List<FruitInfo> parallel = ParallelFruitAggregator.perBasket(Flux.fromIterable(baskets))
+                .collectList()
+                .block();
+
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    @Test
+    void totalMatchesSequential() {
+        final List<List<String>> baskets = randomBaskets(2_000, 200, 5_000);
+        final List<String> all = new ArrayList<>();
+        baskets.forEach(all::addAll);
+
+        final FruitInfo total = ParallelFruitAggregator.total(Flux.fromIterable(baskets)).block();
+
+        assertThat(total).isEqualTo(FruitAggregator.summarize(all));
+    }
+
+    @Test
+    void totalIsIndependentOfRailCount() {
+        final List<List<String>> baskets = randomBaskets(500, 50, 1_000);
+        final Scheduler scheduler = Schedulers.newParallel("fruit-test", 8);
+        try {
+            final FruitInfo expected = ParallelFruitAggregator.total(Flux.fromIterable(baskets), 1, scheduler).block();
+            for (int rails : new int[]{2, 3, 8}) {
+                assertThat(ParallelFruitAggregator.total(Flux.fromIterable(baskets), rails, scheduler).block())
+                        .isEqualTo(expected);
+            }
+        } finally {
+            scheduler.dispose();
+        }
+    }
+
+    @Test
+    void emptyBaskets() {
+        StepVerifier.create(ParallelFruitAggregator.perBasket(Flux.empty()))
+                .verifyComplete();
+        StepVerifier.create(ParallelFruitAggregator.total(Flux.empty()))
+                .assertNext(info -> assertThat(info.getDistinctFruits()).isEmpty())
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.reactivepractice.fruit;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SlidingFruitWindowTest {
+
+    List<List<String>> randomBaskets(int basketCount, int basketSize, int cardinality) {
+        final Random random = new Random(13);
+        final List<List<String>> baskets = new ArrayList<>();
+        for (int i = 0; i < basketCount; i++) {
+            final List<String> basket = new ArrayList<>();
+            for (int j = 0; j < basketSize; j++) {
+                basket.add("fruit-" + random.nextInt(cardinality));
+            }
+            baskets.add(basket);
+        }
+        return baskets;
+    }
+
+    // 창 안의 바구니를 처음부터 다시 센 개수
+    Map<String, Long> recount(List<List<String>> baskets, int from, int to) {
+        final List<String> fruits = new ArrayList<>();
+        baskets.subList(Math.max(0, from), to).forEach(fruits::addAll);
+        return FruitAggregator.summarize(fruits).getCountFruits();
+    }
+
+    @Test
+    void rollingMatchesRecountOfLastBaskets() {
+        // 과일 종류가 많아서 창에서 빠진 과일이 자주 0 이 되고 정리된다.
+        final List<List<String>> baskets = randomBaskets(2_000, 20, 5_000);
+
+        final List<FruitInfo> rolling = SlidingFruitWindow.ofBaskets(50)
+                .rolling(Flux.fromIterable(baskets)).collectList().block();
+
+        assertThat(rolling).hasSize(baskets.size());
+        for (int i = 0; i < baskets.size(); i++) {
+            final FruitInfo snapshot = rolling.get(i);
+            assertThat(snapshot.getCountFruits()).isEqualTo(recount(baskets, i - 49, i + 1));
+            assertThat(snapshot.getDistinctFruits()).hasSameSizeAs(snapshot.getCountFruits().keySet());
+        }
+    }
+
+    @Test
+    void snapshotsAreIndependentOfLaterBaskets() {
+        final List<FruitInfo> rolling = SlidingFruitWindow.ofBaskets(2)
+                .rolling(Flux.just(Arrays.asList("kiwi", "lemon"), Arrays.asList("kiwi"), Arrays.asList("grape")))
+                .collectList().block();
+
+        assertThat(rolling.get(0).getCountFruits()).containsExactly(Map.entry("kiwi", 1L), Map.entry("lemon", 1L));
+        assertThat(rolling.get(1).getCountFruits()).containsExactly(Map.entry("kiwi", 2L), Map.entry("lemon", 1L));
+        assertThat(rolling.get(2).getCountFruits()).containsExactly(Map.entry("kiwi", 1L), Map.entry("grape", 1L));
+    }
+
+    @Test
+    void timeWindowExpiresOnTicksWithoutNewBaskets() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final SlidingFruitWindow window = SlidingFruitWindow.ofDuration(Duration.ofSeconds(3), Duration.ofSeconds(1), clock);
+        final Sinks.Many<List<String>> baskets = Sinks.many().unicast().onBackpressureBuffer();
+        final List<FruitInfo> ticks = new ArrayList<>();
+        window.sample(baskets.asFlux(), Duration.ofSeconds(1)).subscribe(ticks::add);
+
+        clock.advanceTimeTo(Instant.ofEpochMilli(500));
+        baskets.tryEmitNext(Arrays.asList("kiwi", "kiwi"));       // pane 0s
+        clock.advanceTimeTo(Instant.ofEpochMilli(1_500));         // 1s 틱
+        baskets.tryEmitNext(Arrays.asList("lemon"));              // pane 1s
+        clock.advanceTimeTo(Instant.ofEpochMilli(5_000));         // 2s, 3s, 4s, 5s 틱. 바구니는 더 오지 않는다.
+        baskets.tryEmitComplete();
+
+        assertThat(ticks).hasSize(5);
+        assertThat(ticks.get(0).getCountFruits()).containsExactly(Map.entry("kiwi", 2L));
+        assertThat(ticks.get(1).getCountFruits()).containsExactly(Map.entry("kiwi", 2L), Map.entry("lemon", 1L));
+        // 3s 에 pane 0s 가 창(3초)을 벗어나고, 4s 에 pane 1s 도 벗어난다.
+        assertThat(ticks.get(2).getCountFruits()).containsExactly(Map.entry("lemon", 1L));
+        assertThat(ticks.get(3).getCountFruits()).isEmpty();
+        assertThat(ticks.get(4)).isSameAs(ticks.get(3));
+    }
+
+    @Test
+    void unchangedTicksReuseSnapshot() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final SlidingFruitWindow window = SlidingFruitWindow.ofDuration(Duration.ofMinutes(1), Duration.ofSeconds(1), clock);
+        final Sinks.Many<List<String>> baskets = Sinks.many().unicast().onBackpressureBuffer();
+        final List<FruitInfo> ticks = new ArrayList<>();
+        window.sample(baskets.asFlux(), Duration.ofMillis(100)).subscribe(ticks::add);
+
+        baskets.tryEmitNext(Arrays.asList("kiwi"));
+        clock.advanceTimeBy(Duration.ofMillis(300));
+        baskets.tryEmitNext(Arrays.asList("kiwi"));
+        clock.advanceTimeBy(Duration.ofMillis(300));
+        baskets.tryEmitComplete();
+        clock.advanceTimeBy(Duration.ofMillis(300));
+
+        assertThat(ticks).hasSize(6);
+        assertThat(ticks.subList(0, 3)).allSatisfy(info -> assertThat(info).isSameAs(ticks.get(0)));
+        assertThat(ticks.subList(3, 6)).allSatisfy(info -> assertThat(info).isSameAs(ticks.get(3)));
+        assertThat(ticks.get(0).getCountFruits()).containsExactly(Map.entry("kiwi", 1L));
+        assertThat(ticks.get(3).getCountFruits()).containsExactly(Map.entry("kiwi", 2L));
+    }
+
+    @Test
+    void slowSubscriberGetsLatestSnapshot() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final SlidingFruitWindow window = SlidingFruitWindow.ofDuration(Duration.ofMinutes(1), Duration.ofSeconds(1), clock);
+        final Sinks.Many<List<String>> baskets = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.create(window.sample(baskets.asFlux(), Duration.ofMillis(10)), 1)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(10)))
+                .assertNext(info -> assertThat(info.getCountFruits()).isEmpty())
+                // 요청 없이 틱이 interval 의 prefetch(32)보다 많이 지나간다.
+                .then(() -> {
+                    baskets.tryEmitNext(Arrays.asList("kiwi"));
+                    clock.advanceTimeBy(Duration.ofSeconds(1));
+                    baskets.tryEmitNext(Arrays.asList("lemon"));
+                    clock.advanceTimeBy(Duration.ofSeconds(1));
+                })
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(1)
+                .assertNext(info -> assertThat(info.getCountFruits()).containsExactly(Map.entry("kiwi", 1L), Map.entry("lemon", 1L)))
+                .then(baskets::tryEmitComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void rejectsInvalidWindows() {
+        assertThatThrownBy(() -> SlidingFruitWindow.ofBaskets(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SlidingFruitWindow.ofDuration(Duration.ofSeconds(10), Duration.ofSeconds(3)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
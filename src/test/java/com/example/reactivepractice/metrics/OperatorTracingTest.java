@@ -0,0 +1,126 @@
+package com.example.reactivepractice.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OperatorTracingTest {
+
+    final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(MetricsConfiguration.class);
+
+    @AfterEach
+    void removeHook() {
+        Hooks.resetOnEachOperator(OperatorTracing.HOOK_KEY);
+    }
+
+    Map<String, OperatorSnapshot> byOperator(OperatorTracing tracing) {
+        return tracing.snapshot().stream().collect(Collectors.toMap(OperatorSnapshot::getOperator, snapshot -> snapshot));
+    }
+
+    @Test
+    void recordsSelfTimeQueueWaitAndHopsAcrossPublishOn() {
+        final Scheduler worker = Schedulers.newSingle("tracing-test");
+        try (OperatorTracing tracing = OperatorTracing.install(1.0, 1)) {
+            Flux.range(0, 100)
+                    .map(i -> i * 2)
+                    .publishOn(worker)
+                    .filter(i -> i % 4 == 0)
+                    .blockLast();
+
+            final Map<String, OperatorSnapshot> operators = byOperator(tracing);
+            assertThat(tracing.tracedSubscriptions()).isEqualTo(1);
+            assertThat(operators.get("map").getSelfTime().getCount()).isEqualTo(100);
+            assertThat(operators.get("filter").getSelfTime().getCount()).isEqualTo(100);
+            assertThat(operators.get("publishOn").getQueueWait().getCount()).isEqualTo(100);
+            assertThat(operators.get("publishOn").getHops()).isEqualTo(100);
+            assertThat(operators.get("map").getHops()).isZero();
+            assertThat(operators.get("filter").getHops()).isZero();
+        } finally {
+            worker.dispose();
+        }
+    }
+
+    @Test
+    void synchronousPipelineHasNoHops() {
+        try (OperatorTracing tracing = OperatorTracing.install(1.0)) {
+            Flux.range(0, 50).map(i -> i + 1).filter(i -> i > 10).reduce(Integer::sum).block();
+
+            assertThat(tracing.snapshot()).isNotEmpty().allSatisfy(snapshot -> {
+                assertThat(snapshot.getHops()).isZero();
+                assertThat(snapshot.getQueueWait().getCount()).isZero();
+            });
+        }
+    }
+
+    @Test
+    void samplesWholeSubscriptions() {
+        try (OperatorTracing tracing = OperatorTracing.install(0.1, 1)) {
+            for (int i = 0; i < 2_000; i++) {
+                Flux.just(i).map(value -> value + 1).filter(value -> true).blockLast();
+            }
+
+            assertThat(tracing.tracedSubscriptions()).isBetween(100L, 320L);
+            // 추적한 구독은 연산자 전부가 기록된다.
+            final Map<String, OperatorSnapshot> operators = byOperator(tracing);
+            assertThat(operators.get("map").getSelfTime().getCount())
+                    .isEqualTo(operators.get("filter").getSelfTime().getCount())
+                    .isEqualTo(tracing.tracedSubscriptions());
+        }
+    }
+
+    @Test
+    void timesEveryIntervalButCountsEveryHop() {
+        final Scheduler worker = Schedulers.newSingle("tracing-test");
+        try (OperatorTracing tracing = OperatorTracing.install(1.0, 16)) {
+            // publishOn prefetch(256)의 3/4 을 넘기면 worker 가 다시 request 해서 range 가 worker 에서 내보내므로 hop 이 없다.
+            // 그 전까지만 보낸다.
+            Flux.range(0, 160).map(i -> i + 1).publishOn(worker).filter(i -> true).blockLast();
+
+            final Map<String, OperatorSnapshot> operators = byOperator(tracing);
+            // 호출 스레드와 worker 가 각각 16 신호마다 잰다.
+            assertThat(operators.get("map").getSelfTime().getCount()).isEqualTo(10);
+            assertThat(operators.get("filter").getSelfTime().getCount()).isEqualTo(10);
+            assertThat(operators.get("publishOn").getQueueWait().getCount()).isEqualTo(10);
+            assertThat(operators.get("publishOn").getHops()).isEqualTo(160);
+        } finally {
+            worker.dispose();
+        }
+    }
+
+    @Test
+    void closeRemovesHook() {
+        final OperatorTracing tracing = OperatorTracing.install(1.0);
+        tracing.close();
+
+        Flux.range(0, 10).map(i -> i).blockLast();
+
+        assertThat(tracing.snapshot()).isEmpty();
+        assertThatThrownBy(() -> OperatorTracing.install(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OperatorTracing.install(1.0, 3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void registeredOnlyWhenEnabled() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(OperatorTracing.class));
+        contextRunner
+                .withPropertyValues("reactive.tracing.enabled=true", "reactive.tracing.sample-rate=1.0",
+                        "reactive.tracing.timing-interval=1")
+                .run(context -> {
+                    Flux.range(0, 10).map(i -> i).blockLast();
+
+                    final Map<String, Object> body = context.getBean(OperatorTracingEndpoint.class).operators();
+                    assertThat(body).containsEntry("sampleRate", 1.0).containsEntry("tracedSubscriptions", 1L);
+                });
+    }
+}
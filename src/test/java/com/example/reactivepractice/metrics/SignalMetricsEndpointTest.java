@@ -0,0 +1,32 @@
+package com.example.reactivepractice.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+class SignalMetricsEndpointTest {
+
+  @Autowired
+  SignalMetrics metrics;
+
+  @Autowired
+  WebTestClient client;
+
+  @Test
+  void exposedThroughActuator() {
+    Flux.range(1, 3).transform(metrics.stage("endpoint-test")).blockLast();
+
+    client.get()
+        .uri("/actuator/metrics/reactor.signals?tag=stage:endpoint-test&tag=signal:onNext")
+        .exchange()
+        .expectStatus().isOk()
+        .expectBody()
+        .jsonPath("$.measurements[0].value").isEqualTo(3.0);
+  }
+
+}
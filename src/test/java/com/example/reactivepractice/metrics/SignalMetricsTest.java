@@ -0,0 +1,98 @@
+package com.example.reactivepractice.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SignalMetricsTest {
+
+    @Test
+    void countsSignalsPerStage() {
+        final SignalMetrics metrics = new SignalMetrics();
+
+        StepVerifier.create(Flux.range(1, 5)
+                        .transform(metrics.stage("source"))
+                        .filter(i -> i % 2 == 1)
+                        .transform(metrics.stage("odd")))
+                .expectNext(1, 3, 5)
+                .verifyComplete();
+
+        assertThat(metrics.nextCount("source")).isEqualTo(5);
+        assertThat(metrics.nextCount("odd")).isEqualTo(3);
+        assertThat(metrics.completeCount("source")).isEqualTo(1);
+        assertThat(metrics.completeCount("odd")).isEqualTo(1);
+        assertThat(metrics.errorCount("odd")).isZero();
+    }
+
+    @Test
+    void countsErrorsByTypeAndRecoveryOperator() {
+        final SignalMetrics metrics = new SignalMetrics();
+
+        final Mono<Integer> mono = Mono.just(0)
+                .map(i -> 100 / i)
+                .transform(metrics.stage("divide"))
+                .onErrorResume(metrics.handledBy("divide", "onErrorResume", IllegalStateException.class), e -> Mono.just(-1))
+                .onErrorReturn(metrics.handledBy("divide", "onErrorReturn"), 0)
+                .transform(metrics.stage("recovered"));
+
+        StepVerifier.create(mono).expectNext(0).verifyComplete();
+
+        assertThat(metrics.errorCount("divide")).isEqualTo(1);
+        assertThat(metrics.errorCount("divide", ArithmeticException.class)).isEqualTo(1);
+        assertThat(metrics.recoveredCount("divide", "onErrorResume", ArithmeticException.class)).isZero();
+        assertThat(metrics.recoveredCount("divide", "onErrorReturn", ArithmeticException.class)).isEqualTo(1);
+        assertThat(metrics.nextCount("recovered")).isEqualTo(1);
+        assertThat(metrics.errorCount("recovered")).isZero();
+    }
+
+    @Test
+    void countsCancel() {
+        final SignalMetrics metrics = new SignalMetrics();
+
+        StepVerifier.create(Flux.range(1, 100).transform(metrics.stage("source")).take(3))
+                .expectNextCount(3)
+                .verifyComplete();
+
+        assertThat(metrics.nextCount("source")).isEqualTo(3);
+        assertThat(metrics.cancelCount("source")).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentSubscribersDoNotLoseCounts() {
+        final SignalMetrics metrics = new SignalMetrics();
+        final Flux<Integer> stage = Flux.range(0, 1_000).transform(metrics.stage("parallel"));
+
+        Flux.range(0, 16)
+                .flatMap(i -> stage.subscribeOn(Schedulers.parallel()))
+                .blockLast();
+
+        assertThat(metrics.nextCount("parallel")).isEqualTo(16_000);
+        assertThat(metrics.completeCount("parallel")).isEqualTo(16);
+    }
+
+    @Test
+    void exportsFunctionCounters() {
+        final SignalMetrics metrics = new SignalMetrics();
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Flux.just(1, 2).transform(metrics.stage("before-bind")).blockLast();
+        metrics.bindTo(registry);
+
+        Mono.error(new IllegalStateException())
+                .transform(metrics.stage("after-bind"))
+                .onErrorComplete(metrics.handledBy("after-bind", "onErrorComplete"))
+                .block();
+
+        assertThat(registry.get(SignalMetrics.SIGNALS).tags("stage", "before-bind", "signal", "onNext").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(registry.get(SignalMetrics.ERRORS).tags("stage", "after-bind", "exception", IllegalStateException.class.getName())
+                .functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get(SignalMetrics.RECOVERED).tags("operator", "onErrorComplete").functionCounter().count())
+                .isEqualTo(1);
+    }
+}
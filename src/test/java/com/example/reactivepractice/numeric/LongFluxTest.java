@@ -0,0 +1,107 @@
+package com.example.reactivepractice.numeric;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongFluxTest {
+
+    @Test
+    void matchesBoxedFluxPipeline() {
+        final List<Long> boxed = Flux.range(0, 10_000)
+                .map(i -> i * 3L)
+                .filter(i -> i % 2 == 0)
+                .map(i -> i + 1)
+                .collectList()
+                .block();
+
+        for (int chunkSize : new int[]{1, 7, 1024, 20_000}) {
+            final LongFlux values = LongFlux.range(0, 10_000, chunkSize)
+                    .map(i -> i * 3)
+                    .filter(i -> i % 2 == 0)
+                    .map(i -> i + 1);
+
+            assertThat(values.boxed().collectList().block()).isEqualTo(boxed);
+            assertThat(values.count().block()).isEqualTo(boxed.size());
+            assertThat(values.sum().block()).isEqualTo(boxed.stream().mapToLong(Long::longValue).sum());
+            assertThat(values.reduce(Long.MIN_VALUE, Math::max).block()).isEqualTo(boxed.get(boxed.size() - 1));
+        }
+    }
+
+    @Test
+    void filteredOutChunksAreSkipped() {
+        // chunk 하나가 통째로 걸러져도 빈 배열을 내보내지 않는다.
+        StepVerifier.create(LongFlux.range(0, 10, 3).filter(i -> i < 2 || i > 7).asChunks())
+                .assertNext(chunk -> assertThat(chunk).containsExactly(0, 1))
+                .assertNext(chunk -> assertThat(chunk).containsExactly(8))
+                .assertNext(chunk -> assertThat(chunk).containsExactly(9))
+                .verifyComplete();
+    }
+
+    @Test
+    void emptySourceReducesToIdentity() {
+        assertThat(LongFlux.range(5, 0).count().block()).isZero();
+        assertThat(LongFlux.fromArray().reduce(42L, Long::sum).block()).isEqualTo(42L);
+        assertThat(LongFlux.range(0, 100).filter(i -> false).sum().block()).isZero();
+    }
+
+    @Test
+    void interoperatesWithBoxedFlux() {
+        final Flux<Long> source = Flux.range(1, 2_500).map(Integer::longValue);
+
+        final List<Long> roundTrip = LongFlux.from(source, 100).map(i -> -i).boxed().collectList().block();
+
+        assertThat(roundTrip).hasSize(2_500).startsWith(-1L, -2L).endsWith(-2_500L);
+    }
+
+    @Test
+    void doesNotModifyCallerArrays() {
+        final long[] chunk = {1, 2, 3};
+        final long[] array = {4, 5, 6};
+
+        assertThat(LongFlux.fromChunks(Flux.just(chunk)).map(i -> i * 10).sum().block()).isEqualTo(60L);
+        assertThat(LongFlux.fromArray(array, 2).map(i -> 0).filter(i -> false).count().block()).isZero();
+        assertThat(chunk).containsExactly(1, 2, 3);
+        assertThat(array).containsExactly(4, 5, 6);
+    }
+
+    @Test
+    void resubscribesFromStart() {
+        final LongFlux values = LongFlux.range(1, 5).map(i -> i * i);
+
+        assertThat(values.sum().block()).isEqualTo(55L);
+        assertThat(values.sum().block()).isEqualTo(55L);
+    }
+
+    @Test
+    void cancellationStopsGeneratingChunks() {
+        final AtomicLong mapped = new AtomicLong();
+
+        final List<Long> first = LongFlux.range(0, Long.MAX_VALUE, 64)
+                .map(i -> {
+                    mapped.incrementAndGet();
+                    return i;
+                })
+                .boxed()
+                .take(10)
+                .collectList()
+                .block();
+
+        assertThat(first).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        // concatMapIterable 의 prefetch 만큼만 chunk 를 만든다.
+        assertThat(mapped.get()).isLessThan(64L * 1_024);
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThatThrownBy(() -> LongFlux.range(0, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LongFlux.range(Long.MAX_VALUE, 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LongFlux.range(0, 10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
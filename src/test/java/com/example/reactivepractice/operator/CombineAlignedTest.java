@@ -0,0 +1,129 @@
+package com.example.reactivepractice.operator;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.Queues;
+import reactor.util.function.Tuple2;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CombineAlignedTest {
+
+    // ReactivePractice.FLUX_ZIP_WITH 와 같은 1초 / 700ms interval 을 가상 시간의 타임스탬프(ms)로 짝짓는다.
+    static Supplier<Flux<Aligned<Long, Long>>> sensors(CombineAligned<Long, Long> aligned) {
+        return () -> aligned.combine(
+                        Flux.interval(Duration.ofSeconds(1)).timestamp().map(Tuple2::getT1),
+                        Flux.interval(Duration.ofMillis(700)).timestamp().map(Tuple2::getT1))
+                .take(Duration.ofMillis(6_500));
+    }
+
+    static CombineAligned<Long, Long> aligned(CombineAligned.Unmatched policy) {
+        return new CombineAligned<>(left -> left, right -> right, 200, 4, policy);
+    }
+
+    @Test
+    void dropsUnmatched() {
+        final CombineAligned<Long, Long> aligned = aligned(CombineAligned.Unmatched.DROP);
+
+        StepVerifier.withVirtualTime(sensors(aligned))
+                .thenAwait(Duration.ofMillis(6_500))
+                .expectNext(Aligned.of(2_000L, 2_100L))
+                .expectNext(Aligned.of(3_000L, 2_800L))
+                .expectNext(Aligned.of(4_000L, 4_200L))
+                .expectNext(Aligned.of(5_000L, 4_900L))
+                .verifyComplete();
+        // 700, 1000, 1400, 3500, 5600. 키 순서로 섞으므로 6000 은 오른쪽 6300 과 비교되기 전에 take 로 끝난다.
+        assertThat(aligned.droppedCount()).isEqualTo(5);
+    }
+
+    @Test
+    void emitsPartialForUnmatched() {
+        StepVerifier.withVirtualTime(sensors(aligned(CombineAligned.Unmatched.PARTIAL)))
+                .thenAwait(Duration.ofMillis(6_500))
+                .expectNext(Aligned.of(null, 700L))
+                .expectNext(Aligned.of(1_000L, null))
+                .expectNext(Aligned.of(null, 1_400L))
+                .expectNext(Aligned.of(2_000L, 2_100L))
+                .expectNext(Aligned.of(3_000L, 2_800L))
+                .expectNext(Aligned.of(null, 3_500L))
+                .expectNext(Aligned.of(4_000L, 4_200L))
+                .expectNext(Aligned.of(5_000L, 4_900L))
+                .expectNext(Aligned.of(null, 5_600L))
+                .verifyComplete();
+    }
+
+    @Test
+    void holdsLastValueOfOtherSide() {
+        final CombineAligned<Long, Long> aligned = aligned(CombineAligned.Unmatched.HOLD);
+
+        StepVerifier.withVirtualTime(sensors(aligned))
+                .thenAwait(Duration.ofMillis(6_500))
+                .expectNext(Aligned.of(1_000L, 700L))
+                .expectNext(Aligned.of(1_000L, 1_400L))
+                .expectNext(Aligned.of(2_000L, 2_100L))
+                .expectNext(Aligned.of(3_000L, 2_800L))
+                .expectNext(Aligned.of(3_000L, 3_500L))
+                .expectNext(Aligned.of(4_000L, 4_200L))
+                .expectNext(Aligned.of(5_000L, 4_900L))
+                .expectNext(Aligned.of(5_000L, 5_600L))
+                .verifyComplete();
+        // 700 은 아직 왼쪽을 받은 적이 없어서 버린다.
+        assertThat(aligned.droppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pairsColdSourcesByKey() {
+        final CombineAligned<Integer, Integer> aligned = new CombineAligned<>(left -> left, right -> right, 0, 4, CombineAligned.Unmatched.DROP);
+
+        // 도착 순서로 섞으면 왼쪽 100개가 먼저 다 들어와서 버퍼(4)가 넘친다. 키 순서로 섞으면 모두 짝이 된다.
+        StepVerifier.create(aligned.combine(Flux.range(0, 100), Flux.range(0, 100)))
+                .expectNextCount(100)
+                .verifyComplete();
+        assertThat(aligned.droppedCount()).isZero();
+
+        StepVerifier.create(aligned.combine(Flux.range(0, 100), Flux.range(0, 50).map(i -> i * 2)).filter(Aligned::isComplete))
+                .expectNextCount(50)
+                .verifyComplete();
+    }
+
+    @Test
+    void silentSideStopsDemandInsteadOfBuffering() {
+        final CombineAligned<Long, Long> aligned = new CombineAligned<>(left -> left, right -> right, 200, 4, CombineAligned.Unmatched.PARTIAL);
+        final AtomicLong requested = new AtomicLong();
+
+        // 오른쪽의 다음 키를 모르면 왼쪽 요소가 짝이 없는지 알 수 없으므로 기다린다. 왼쪽은 prefetch 만큼만 요청받는다.
+        StepVerifier.create(aligned.combine(Flux.range(0, 1_000_000).map(Integer::longValue).doOnRequest(requested::addAndGet),
+                        Flux.<Long>never()))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenCancel()
+                .verify();
+        assertThat(requested.get()).isLessThanOrEqualTo(Queues.SMALL_BUFFER_SIZE);
+    }
+
+    @Test
+    void completedSideMakesRestUnmatched() {
+        final CombineAligned<Integer, Integer> aligned = new CombineAligned<>(left -> left, right -> right, 0, 8, CombineAligned.Unmatched.PARTIAL);
+
+        StepVerifier.create(aligned.combine(Flux.just(1, 2, 3), Flux.just(2)))
+                .expectNext(Aligned.of(1, null), Aligned.of(2, 2), Aligned.of(3, null))
+                .verifyComplete();
+
+        StepVerifier.create(aligned.combine(Flux.range(0, 5), Flux.<Integer>empty()))
+                .expectNext(Aligned.of(0, null), Aligned.of(1, null), Aligned.of(2, null), Aligned.of(3, null), Aligned.of(4, null))
+                .verifyComplete();
+    }
+
+    @Test
+    void propagatesErrors() {
+        final CombineAligned<Integer, Integer> aligned = new CombineAligned<>(left -> left, right -> right, 0, 8, CombineAligned.Unmatched.DROP);
+
+        StepVerifier.create(aligned.combine(Flux.just(1), Flux.error(new IllegalStateException("sensor"))))
+                .verifyError(IllegalStateException.class);
+    }
+}
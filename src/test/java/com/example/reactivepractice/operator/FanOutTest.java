@@ -0,0 +1,66 @@
+package com.example.reactivepractice.operator;
+
+import com.example.reactivepractice.fruit.FruitPipelines;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FanOutTest {
+
+    @Test
+    void subscribesSourceExactlyOnce() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final AtomicInteger reads = new AtomicInteger();
+        final Flux<Integer> expensive = Flux.range(1, 1_000)
+                .doOnSubscribe(subscription -> subscriptions.incrementAndGet())
+                .doOnNext(value -> reads.incrementAndGet());
+
+        StepVerifier.create(FanOut.collect(expensive,
+                        Collectors.summingLong(Integer::longValue),
+                        Collectors.counting(),
+                        Collectors.filtering(value -> value % 2 == 0, Collectors.toList())))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isEqualTo(500_500L);
+                    assertThat(results.getT2()).isEqualTo(1_000L);
+                    assertThat(results.getT3()).hasSize(500);
+                })
+                .verifyComplete();
+
+        assertThat(subscriptions).hasValue(1);
+        assertThat(reads).hasValue(1_000);
+    }
+
+    @Test
+    void emptySource() {
+        StepVerifier.create(FanOut.collect(Flux.<String>empty(), Collectors.toList(), Collectors.counting()))
+                .assertNext(results -> {
+                    assertThat(results.getT1()).isEmpty();
+                    assertThat(results.getT2()).isZero();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void propagatesError() {
+        StepVerifier.create(FanOut.collect(Flux.concat(Flux.just("kiwi"), Flux.error(new IllegalStateException("boom"))),
+                        Collectors.toList(), Collectors.counting()))
+                .verifyErrorMessage("boom");
+    }
+
+    @Test
+    void matchesPublishAutoConnect() {
+        final Flux<List<String>> baskets = Flux.just(
+                List.of("kiwi", "orange", "lemon", "orange", "lemon", "kiwi"),
+                List.of("banana", "lemon", "lemon", "kiwi"),
+                List.of("strawberry", "orange", "lemon", "grape", "strawberry"));
+
+        assertThat(FruitPipelines.fanOut(baskets).collectList().block())
+                .isEqualTo(FruitPipelines.coldToHot(baskets).collectList().block());
+    }
+}
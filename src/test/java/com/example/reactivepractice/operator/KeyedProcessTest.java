@@ -0,0 +1,91 @@
+package com.example.reactivepractice.operator;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeyedProcessTest {
+
+    static KeyedProcess<String, String, Long> counting(int shards, Scheduler scheduler) {
+        return new KeyedProcess<>(fruit -> fruit, fruit -> 0L, (count, fruit) -> count + 1, shards, scheduler);
+    }
+
+    @Test
+    void countsPerKeyLikeGroupBy() {
+        final List<String> fruits = List.of("kiwi", "lemon", "kiwi", "grape", "kiwi", "lemon");
+
+        final Map<String, Long> counts = counting(4, Schedulers.parallel()).finalStates(Flux.fromIterable(fruits))
+                .collectMap(Keyed::getKey, Keyed::getState)
+                .block();
+
+        assertThat(counts).containsOnly(Map.entry("kiwi", 3L), Map.entry("lemon", 2L), Map.entry("grape", 1L));
+    }
+
+    @Test
+    void preservesOrderPerKey() {
+        // (키, 순번). 상태는 그 키에서 마지막으로 본 순번이고, 순번이 줄어들면 -1 로 표시한다.
+        final KeyedProcess<Tuple2<Integer, Integer>, Integer, Integer> lastSeen = new KeyedProcess<>(
+                Tuple2::getT1, key -> 0,
+                (last, value) -> last < 0 || value.getT2() <= last ? -1 : value.getT2(),
+                8, Schedulers.parallel());
+        final Flux<Tuple2<Integer, Integer>> source = Flux.range(1, 200_000).map(i -> Tuples.of(i % 1_000, i));
+
+        final Map<Integer, Integer> last = lastSeen.finalStates(source)
+                .collectMap(Keyed::getKey, Keyed::getState)
+                .block();
+
+        assertThat(last).hasSize(1_000).doesNotContainValue(-1);
+        assertThat(last.get(0)).isEqualTo(200_000);
+    }
+
+    @Test
+    void processEmitsRunningStatePerElement() {
+        final Map<String, Long> latest = new HashMap<>();
+        counting(3, Schedulers.parallel())
+                .process(Flux.just("kiwi", "lemon", "kiwi", "kiwi"))
+                .doOnNext(keyed -> {
+                    // 같은 키는 한 shard 에서 순서대로 오므로 1, 2, 3 으로 늘어난다.
+                    assertThat(keyed.getState()).isEqualTo(latest.getOrDefault(keyed.getKey(), 0L) + 1);
+                    latest.put(keyed.getKey(), keyed.getState());
+                })
+                .blockLast();
+
+        assertThat(latest).containsOnly(Map.entry("kiwi", 3L), Map.entry("lemon", 1L));
+    }
+
+    @Test
+    void millionDistinctKeysDoNotStall() {
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final KeyedProcess<Integer, Integer, Long> process = new KeyedProcess<>(
+                i -> i, key -> 0L, (count, i) -> {
+                    threads.add(Thread.currentThread().getName());
+                    return count + 1;
+                }, 4, Schedulers.parallel());
+
+        final Long keys = process.finalStates(Flux.range(0, 1_000_000).concatWith(Flux.range(0, 1_000_000)))
+                .filter(keyed -> keyed.getState() == 2L)
+                .count()
+                .block(Duration.ofSeconds(60));
+
+        assertThat(keys).isEqualTo(1_000_000L);
+        assertThat(threads).hasSizeLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void rejectsNonPositiveShards() {
+        assertThatThrownBy(() -> counting(0, Schedulers.parallel())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
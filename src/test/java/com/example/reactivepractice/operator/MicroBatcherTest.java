@@ -0,0 +1,158 @@
+package com.example.reactivepractice.operator;
+
+import com.example.reactivepractice.event.EventBus;
+import com.example.reactivepractice.event.EventBus.BackpressureStrategy;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicroBatcherTest {
+
+    @Test
+    void batchesBySize() {
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(3, Duration.ofSeconds(1));
+        final List<List<Integer>> batches = new ArrayList<>();
+
+        batcher.consume(Flux.range(1, 7), batch -> batches.add(List.copyOf(batch))).block();
+
+        assertThat(batches).containsExactly(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7));
+    }
+
+    @Test
+    void batchesByTime() {
+        StepVerifier.withVirtualTime(() -> {
+                    // 묶음의 첫 요소가 들어온 시점부터 450ms 뒤에 내보낸다.
+                    final MicroBatcher<Long> batcher = new MicroBatcher<>(100, Duration.ofMillis(450),
+                            VirtualTimeScheduler.get(), 4);
+                    return batcher.batch(Flux.interval(Duration.ofMillis(100)).take(12))
+                            .map(batch -> {
+                                try (batch) {
+                                    return List.copyOf(batch);
+                                }
+                            });
+                })
+                .thenAwait(Duration.ofMillis(550))
+                .expectNext(List.of(0L, 1L, 2L, 3L, 4L))
+                .thenAwait(Duration.ofMillis(500))
+                .expectNext(List.of(5L, 6L, 7L, 8L, 9L))
+                .thenAwait(Duration.ofMillis(200))
+                .expectNext(List.of(10L, 11L))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void reusesPooledBuffers() {
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(64, Duration.ofSeconds(1), Schedulers.parallel(), 2);
+        final AtomicLong sum = new AtomicLong();
+
+        batcher.consume(Flux.range(0, 200_000), batch -> batch.forEach(sum::addAndGet)).block();
+
+        assertThat(sum).hasValue(199_999L * 200_000L / 2);
+        assertThat(batcher.pool().createdCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void closingBatchTwiceReturnsItOnce() {
+        final BatchBufferPool<Integer> pool = new BatchBufferPool<>(4, 8);
+        final Batch<Integer> batch = pool.acquire();
+        try (batch) {
+            batch.add(1);
+            batch.close();
+        }
+
+        final Batch<Integer> first = pool.acquire();
+        final Batch<Integer> second = pool.acquire();
+        assertThat(first).isSameAs(batch);
+        assertThat(second).isNotSameAs(first);
+        // 다시 빌려준 버퍼는 또 닫을 수 있다.
+        first.close();
+        assertThat(pool.acquire()).isSameAs(first);
+    }
+
+    @Test
+    void asyncConsumerReleasesBufferAfterCompletion() {
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(10, Duration.ofSeconds(1), Schedulers.parallel(), 4);
+        final List<Integer> sizes = new ArrayList<>();
+
+        batcher.consumeAsync(Flux.range(0, 95),
+                        batch -> Mono.fromRunnable(() -> sizes.add(batch.size())).subscribeOn(Schedulers.boundedElastic()))
+                .block(Duration.ofSeconds(5));
+
+        assertThat(sizes).hasSize(10).endsWith(5);
+        assertThat(batcher.pool().createdCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void slowAsyncConsumerHoldsBackTimedOutBatches() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(10, Duration.ofMillis(5), clock, 4);
+        final List<Integer> received = new ArrayList<>();
+        final AtomicLong largest = new AtomicLong();
+
+        // 묶음은 5ms 마다 닫히는데 처리는 묶음마다 30ms 걸린다.
+        final Mono<Void> consumed = batcher.consumeAsync(Flux.range(0, 200).delayElements(Duration.ofMillis(1), clock),
+                batch -> Mono.delay(Duration.ofMillis(30), clock).doOnNext(tick -> {
+                    largest.accumulateAndGet(batch.size(), Math::max);
+                    received.addAll(batch);
+                }));
+
+        StepVerifier.create(consumed)
+                .then(() -> clock.advanceTimeBy(Duration.ofSeconds(10)))
+                .verifyComplete();
+
+        assertThat(received).hasSize(200).isSorted();
+        assertThat(largest.get()).isLessThanOrEqualTo(10);
+        assertThat(batcher.pool().createdCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void batchesWaitForDemand() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final MicroBatcher<Integer> batcher = new MicroBatcher<>(3, Duration.ofMillis(10), clock, 4);
+
+        StepVerifier.create(batcher.batch(Flux.range(0, 7)).map(batch -> {
+                    try (batch) {
+                        return List.copyOf(batch);
+                    }
+                }), 0)
+                .then(() -> clock.advanceTimeBy(Duration.ofSeconds(1)))
+                .expectNoEvent(Duration.ZERO)
+                .thenRequest(1)
+                .expectNext(List.of(0, 1, 2))
+                .then(() -> clock.advanceTimeBy(Duration.ofSeconds(1)))
+                .thenRequest(2)
+                .expectNext(List.of(3, 4, 5), List.of(6))
+                .verifyComplete();
+    }
+
+    @Test
+    void batchesEventBusEmissions() {
+        final EventBus<String> bus = EventBus.multicast(BackpressureStrategy.BUFFER, 256);
+        final MicroBatcher<String> batcher = new MicroBatcher<>(2, Duration.ofSeconds(1));
+        final List<String> received = new ArrayList<>();
+        final Mono<Void> consumed = batcher.consume(bus.events().map(String::toUpperCase).filter(s -> s.contains("WORLD")),
+                batch -> received.addAll(batch));
+
+        StepVerifier.create(consumed)
+                .then(() -> {
+                    bus.emit("Hello World!");
+                    bus.emit("Goodbye World");
+                    bus.emit("Again");
+                    bus.complete();
+                })
+                .verifyComplete();
+
+        assertThat(received).containsExactly("HELLO WORLD!", "GOODBYE WORLD");
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.reactivepractice.operator;
+
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkipAndRecordTest {
+
+    @Test
+    void skipsFailingElementsLikeOnErrorContinue() {
+        final DeadLetterRing<String> deadLetters = DeadLetterRing.inMemory(16, true);
+
+        final Flux<String> test = Flux.just("foo", "", "bar", "baz")
+                .transform(SkipAndRecord.skipAndRecord(s -> 3 / s.length() == 1 ? s : null, deadLetters));
+
+        StepVerifier.create(test)
+                .expectNext("foo", "bar", "baz")
+                .verifyComplete();
+
+        assertThat(deadLetters.snapshot()).singleElement().satisfies(letter -> {
+            assertThat(letter.getValue()).isEqualTo("");
+            assertThat(letter.getMessage()).isEqualTo("/ by zero");
+            assertThat(letter.getError()).isInstanceOf(ArithmeticException.class);
+        });
+    }
+
+    @Test
+    void dropsThrowableWhenStackTracesAreOff() {
+        final DeadLetterRing<Integer> deadLetters = DeadLetterRing.inMemory(4, false);
+
+        Flux.range(0, 3)
+                .transform(SkipAndRecord.skipAndRecord(i -> 100 / i, deadLetters))
+                .blockLast();
+
+        final DeadLetter<Integer> letter = deadLetters.snapshot().get(0);
+        assertThat(letter.getErrorType()).isEqualTo(ArithmeticException.class.getName());
+        assertThat(letter.getError()).isNull();
+    }
+
+    @Test
+    void skipInvalidRecordsReasonWithoutException() {
+        final DeadLetterRing<Integer> deadLetters = DeadLetterRing.inMemory(4, false);
+
+        StepVerifier.create(Flux.range(0, 5)
+                        .transform(SkipAndRecord.skipInvalid(i -> i % 2 == 0 ? null : "odd", deadLetters)))
+                .expectNext(0, 2, 4)
+                .verifyComplete();
+
+        assertThat(deadLetters.snapshot())
+                .extracting(DeadLetter::getValue, DeadLetter::getMessage)
+                .containsExactly(Tuple.tuple(1, "odd"), Tuple.tuple(3, "odd"));
+    }
+
+    @Test
+    void ringKeepsLatestAndCountsEvicted() {
+        final DeadLetterRing<Integer> deadLetters = DeadLetterRing.inMemory(8, false);
+
+        Flux.range(0, 100)
+                .transform(SkipAndRecord.skipAndRecord(i -> {
+                    throw new PoisonMessageException("poison " + i);
+                }, deadLetters))
+                .blockLast();
+
+        assertThat(deadLetters.recordedCount()).isEqualTo(100);
+        assertThat(deadLetters.evictedCount()).isEqualTo(92);
+        assertThat(deadLetters.snapshot()).extracting(DeadLetter::getValue).containsExactly(92, 93, 94, 95, 96, 97, 98, 99);
+    }
+
+    @Test
+    void concurrentRecordsAreNotLost() {
+        final DeadLetterRing<Integer> deadLetters = DeadLetterRing.inMemory(1_024, false);
+
+        Flux.range(0, 8)
+                .flatMap(rail -> Flux.range(rail * 10_000, 10_000)
+                        .transform(SkipAndRecord.skipInvalid(i -> i % 100 == 0 ? "poison" : null, deadLetters))
+                        .subscribeOn(Schedulers.parallel()))
+                .blockLast();
+
+        assertThat(deadLetters.recordedCount()).isEqualTo(800);
+        assertThat(deadLetters.snapshot()).hasSize(800);
+        assertThat(deadLetters.evictedCount()).isZero();
+    }
+
+    @Test
+    void spillsEvictedRecordsToFile(@TempDir Path dir) throws Exception {
+        final Path file = dir.resolve("dead-letters.tsv");
+        try (DeadLetterRing<String> deadLetters = DeadLetterRing.spillingTo(file, 2, false)) {
+            Flux.just("a", "b\tc", "d", "e")
+                    .transform(SkipAndRecord.skipInvalid(s -> "bad", deadLetters))
+                    .blockLast();
+
+            deadLetters.flush();
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                    .containsExactly("0\tinvalid\tbad\ta", "1\tinvalid\tbad\tb\\tc");
+        }
+
+        final List<String> values = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .map(line -> line.substring(line.lastIndexOf('\t') + 1))
+                .collect(Collectors.toList());
+        assertThat(values).containsExactly("a", "b\\tc", "d", "e");
+    }
+
+    @Test
+    void spillFailuresAreCountedNotThrown(@TempDir Path dir) throws Exception {
+        final DeadLetterRing<Integer> deadLetters = DeadLetterRing.spillingTo(dir.resolve("dead-letters.tsv"), 2, false);
+        deadLetters.close();
+
+        // 닫힌 파일에 쓰지 못해도 스트림은 끝까지 돈다.
+        StepVerifier.create(Flux.range(0, 10).transform(SkipAndRecord.skipInvalid(i -> "bad", deadLetters)))
+                .verifyComplete();
+        deadLetters.flush();
+
+        assertThat(deadLetters.evictedCount()).isEqualTo(8);
+        assertThat(deadLetters.spillFailedCount()).isEqualTo(8);
+    }
+}
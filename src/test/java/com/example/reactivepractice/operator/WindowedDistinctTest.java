@@ -0,0 +1,66 @@
+package com.example.reactivepractice.operator;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowedDistinctTest {
+
+    @Test
+    void sameAsDistinctWhileKeysFit() {
+        final Random random = new Random(9);
+        final List<String> fruits = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            fruits.add("fruit-" + random.nextInt(1_000));
+        }
+
+        final List<String> windowed = WindowedDistinct.<String>of(1_000, Duration.ofHours(1))
+                .distinct(Flux.fromIterable(fruits)).collectList().block();
+
+        assertThat(windowed).isEqualTo(Flux.fromIterable(fruits).distinct().collectList().block());
+    }
+
+    @Test
+    void forgetsLeastRecentlySeenKeyWhenFull() {
+        final WindowedDistinct<String, String> distinct = WindowedDistinct.of(2, Duration.ofHours(1));
+
+        // c 가 들어오면서 가장 오래 안 본 b 를 잊는다. a 는 다시 봤으므로 남는다.
+        StepVerifier.create(distinct.distinct(Flux.just("a", "b", "a", "c", "a", "b")))
+                .expectNext("a", "b", "c", "b")
+                .verifyComplete();
+    }
+
+    @Test
+    void forgetsKeysOutsideWindow() {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+        final WindowedDistinct<Integer, Integer> distinct =
+                new WindowedDistinct<>(Function.identity(), 100, Duration.ofSeconds(10), clock);
+
+        StepVerifier.withVirtualTime(() -> distinct.distinct(
+                                Flux.just(1, 2, 1, 1, 2).delayElements(Duration.ofSeconds(4), clock)),
+                        () -> clock, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(20))
+                // 1(4s), 2(8s), 1(12s, 다시 봐서 window 연장), 1(16s), 2(20s, 12초 전이라 잊음)
+                .expectNext(1, 2, 2)
+                .verifyComplete();
+    }
+
+    @Test
+    void emitsEveryNewKeyOnEndlessKeys() {
+        final WindowedDistinct<Long, Long> distinct = WindowedDistinct.of(1_000, Duration.ofHours(1));
+
+        // 키가 모두 달라서 모두 내보내지만 기억하는 키는 1,000개뿐이다.
+        StepVerifier.create(distinct.distinct(Flux.range(0, 1_000_000).map(Integer::longValue)))
+                .expectNextCount(1_000_000)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.reactivepractice.resilience;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BulkheadTest {
+
+    @Test
+    void queuesThenRejects() {
+        final Bulkhead bulkhead = new Bulkhead("downstream", 1, 1);
+        final Sinks.One<String> first = Sinks.one();
+        final AtomicInteger subscribed = new AtomicInteger();
+        final Mono<String> second = Mono.fromCallable(() -> {
+            subscribed.incrementAndGet();
+            return "second";
+        });
+
+        final StepVerifier running = StepVerifier.create(bulkhead.protect(first.asMono())).expectNext("first").expectComplete().verifyLater();
+        final StepVerifier queued = StepVerifier.create(bulkhead.protect(second)).expectNext("second").expectComplete().verifyLater();
+        assertThat(bulkhead.runningCount()).isEqualTo(1);
+        assertThat(bulkhead.waitingCount()).isEqualTo(1);
+        assertThat(subscribed).hasValue(0);
+
+        StepVerifier.create(bulkhead.protect(Mono.just("third"))).verifyError(BulkheadFullException.class);
+
+        first.tryEmitValue("first");
+        running.verify();
+        queued.verify();
+        assertThat(subscribed).hasValue(1);
+        assertThat(bulkhead.runningCount()).isZero();
+        assertThat(bulkhead.waitingCount()).isZero();
+    }
+
+    @Test
+    void cancelledWaiterFreesQueueSlot() {
+        final Bulkhead bulkhead = new Bulkhead("downstream", 1, 1);
+        final Disposable running = bulkhead.protect(Mono.never()).subscribe();
+        final Disposable waiter = bulkhead.protect(Mono.just("never runs")).subscribe();
+        assertThat(bulkhead.waitingCount()).isEqualTo(1);
+
+        waiter.dispose();
+        assertThat(bulkhead.waitingCount()).isZero();
+
+        final StepVerifier next = StepVerifier.create(bulkhead.protect(Mono.just("next"))).expectNext("next").expectComplete().verifyLater();
+        running.dispose();
+        next.verify();
+        assertThat(bulkhead.runningCount()).isZero();
+    }
+
+    @Test
+    void synchronousWaitersDrainWithoutRecursionInOrder() {
+        final Bulkhead bulkhead = new Bulkhead("downstream", 1, 50_000);
+        final Sinks.One<Integer> first = Sinks.one();
+        final List<Integer> completed = new ArrayList<>();
+        bulkhead.protect(first.asMono()).subscribe();
+        for (int i = 1; i <= 50_000; i++) {
+            bulkhead.protect(Mono.just(i)).subscribe(completed::add);
+        }
+        assertThat(bulkhead.waitingCount()).isEqualTo(50_000);
+
+        // 자리를 받은 Mono.just 가 바로 끝나서 자리를 돌려줘도 스택이 쌓이지 않고, 줄 선 순서대로 돈다.
+        first.tryEmitValue(0);
+
+        assertThat(completed).hasSize(50_000).isSorted();
+        assertThat(bulkhead.runningCount()).isZero();
+        assertThat(bulkhead.waitingCount()).isZero();
+    }
+
+    @Test
+    void neverExceedsMaxConcurrent() {
+        final Bulkhead bulkhead = new Bulkhead("downstream", 4, 10_000);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        final Long count = Flux.range(0, 2_000)
+                .flatMap(i -> bulkhead.protect(Mono.fromCallable(() -> {
+                                    final int now = inFlight.incrementAndGet();
+                                    maxInFlight.accumulateAndGet(now, Math::max);
+                                    return i;
+                                })
+                                .delayElement(Duration.ofMillis(1), Schedulers.parallel())
+                                // doFinally 는 bulkhead 가 자리를 돌려준 뒤에 불리므로 doOnTerminate 로 센다.
+                                .doOnTerminate(inFlight::decrementAndGet))
+                        .subscribeOn(Schedulers.parallel()), 256)
+                .count()
+                .block(Duration.ofSeconds(30));
+
+        assertThat(count).isEqualTo(2_000);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+        assertThat(bulkhead.runningCount()).isZero();
+        assertThat(bulkhead.waitingCount()).isZero();
+    }
+
+    @Test
+    void randomCancellationsDoNotLeakPermits() {
+        final Bulkhead bulkhead = new Bulkhead("downstream", 2, 64);
+
+        Flux.range(0, 2_000)
+                .flatMap(i -> bulkhead.protect(Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextInt(2)), Schedulers.parallel()))
+                        .take(Duration.ofMillis(ThreadLocalRandom.current().nextInt(2)), Schedulers.parallel())
+                        .onErrorResume(BulkheadFullException.class, e -> Mono.empty())
+                        .subscribeOn(Schedulers.parallel()), 64)
+                .blockLast(Duration.ofSeconds(30));
+
+        assertThat(bulkhead.runningCount()).isZero();
+        assertThat(bulkhead.waitingCount()).isZero();
+        StepVerifier.create(bulkhead.protect(Flux.just(1, 2))).expectNext(1, 2).verifyComplete();
+    }
+
+    @Test
+    void cancelRightAfterGrantReleasesSlot() {
+        final Bulkhead bulkhead = new Bulkhead("downstream", 1, 1_000);
+        final AtomicReference<Disposable> waiter = new AtomicReference<>();
+        final AtomicInteger subscribed = new AtomicInteger();
+        // 대기자가 자리를 받은 신호(Mono.create 의 완료)가 then 에 닿기 직전에 대기자를 취소한다.
+        // 다른 스레드의 취소가 grant 와 source 구독 사이에 끼어드는 경우를 한 스레드에서 그대로 만든다.
+        Hooks.onEachOperator("cancelOnGrant", Operators.lift(
+                scannable -> scannable.stepName().contains("MonoCreate"),
+                (scannable, actual) -> new BaseSubscriber<Object>() {
+                    @Override
+                    protected void hookOnSubscribe(Subscription subscription) {
+                        actual.onSubscribe(this);
+                    }
+
+                    @Override
+                    protected void hookOnComplete() {
+                        final Disposable granted = waiter.get();
+                        if (granted != null) {
+                            granted.dispose();
+                        }
+                        actual.onComplete();
+                    }
+
+                    @Override
+                    protected void hookOnError(Throwable error) {
+                        actual.onError(error);
+                    }
+                }));
+        try {
+            final Disposable holder = bulkhead.protect(Mono.never()).subscribe();
+            waiter.set(bulkhead.protect(Mono.fromRunnable(subscribed::incrementAndGet)).subscribe());
+            assertThat(bulkhead.waitingCount()).isEqualTo(1);
+
+            holder.dispose();
+        } finally {
+            Hooks.resetOnEachOperator("cancelOnGrant");
+        }
+
+        assertThat(subscribed).hasValue(0);
+        assertThat(bulkhead.runningCount()).isZero();
+        assertThat(bulkhead.waitingCount()).isZero();
+        StepVerifier.create(bulkhead.protect(Mono.just("next"))).expectNext("next").verifyComplete();
+    }
+}
@@ -0,0 +1,216 @@
+package com.example.reactivepractice.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+
+    CircuitBreaker breaker() {
+        return CircuitBreaker.builder("downstream")
+                .windowSize(10)
+                .minimumCalls(4)
+                .failureRateThreshold(0.5)
+                .openDuration(Duration.ofSeconds(10))
+                .halfOpenCalls(2)
+                .clock(clock)
+                .build();
+    }
+
+    static <T> Mono<T> fail() {
+        return Mono.error(new IllegalStateException("down"));
+    }
+
+    @Test
+    void opensAtFailureRateAndFailsFast() {
+        final CircuitBreaker breaker = breaker();
+        final AtomicInteger calls = new AtomicInteger();
+        final Mono<String> downstream = Mono.defer(() -> {
+            calls.incrementAndGet();
+            return fail();
+        });
+
+        StepVerifier.create(breaker.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(breaker.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        StepVerifier.create(breaker.protect(downstream)).verifyError(IllegalStateException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        StepVerifier.create(breaker.protect(downstream)).verifyError(IllegalStateException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        StepVerifier.create(breaker.protect(downstream)).verifyError(CallNotPermittedException.class);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void fallsBackToMappedFlux() {
+        final CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(CircuitBreakerTest.<Integer>fail()).onErrorResume(e -> Mono.empty()).block();
+        }
+
+        final Flux<Integer> seq = breaker.protect(Flux.range(1, 3))
+                .onErrorResume(error -> {
+                    if (error instanceof CallNotPermittedException) {
+                        return Flux.just(41, 42);
+                    }
+                    return Flux.error(error);
+                });
+
+        StepVerifier.create(seq).expectNext(41, 42).verifyComplete();
+    }
+
+    @Test
+    void halfOpenClosesAfterSuccessfulTrials() {
+        final CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(CircuitBreakerTest.<Integer>fail()).onErrorResume(e -> Mono.empty()).block();
+        }
+        clock.advanceTimeBy(Duration.ofSeconds(10));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        final Sinks.One<String> first = Sinks.one();
+        final Sinks.One<String> second = Sinks.one();
+        final StepVerifier trial1 = StepVerifier.create(breaker.protect(first.asMono())).expectNext("a").expectComplete().verifyLater();
+        final StepVerifier trial2 = StepVerifier.create(breaker.protect(second.asMono())).expectNext("b").expectComplete().verifyLater();
+        // 시험 호출은 halfOpenCalls 개까지만 통과한다.
+        StepVerifier.create(breaker.protect(Mono.just("c"))).verifyError(CallNotPermittedException.class);
+
+        first.tryEmitValue("a");
+        second.tryEmitValue("b");
+        trial1.verify();
+        trial2.verify();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isZero();
+    }
+
+    @Test
+    void halfOpenFailureReopens() {
+        final CircuitBreaker breaker = breaker();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(CircuitBreakerTest.<Integer>fail()).onErrorResume(e -> Mono.empty()).block();
+        }
+        clock.advanceTimeBy(Duration.ofSeconds(10));
+
+        StepVerifier.create(breaker.protect(fail())).verifyError(IllegalStateException.class);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        clock.advanceTimeBy(Duration.ofSeconds(9));
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void cancelledTrialReturnsPermit() {
+        final CircuitBreaker breaker = CircuitBreaker.builder("downstream")
+                .windowSize(4)
+                .minimumCalls(1)
+                .openDuration(Duration.ofSeconds(1))
+                .halfOpenCalls(1)
+                .clock(clock)
+                .build();
+        breaker.protect(CircuitBreakerTest.<Integer>fail()).onErrorResume(e -> Mono.empty()).block();
+        clock.advanceTimeBy(Duration.ofSeconds(1));
+
+        breaker.protect(Mono.never()).subscribe().dispose();
+
+        StepVerifier.create(breaker.protect(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void callAdmittedWhileClosedIsNotCountedAsTrial() {
+        final CircuitBreaker breaker = breaker();
+        final Sinks.One<String> slow = Sinks.one();
+        final StepVerifier old = StepVerifier.create(breaker.protect(slow.asMono())).expectNext("late").expectComplete().verifyLater();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(CircuitBreakerTest.<Integer>fail()).onErrorResume(e -> Mono.empty()).block();
+        }
+        clock.advanceTimeBy(Duration.ofSeconds(10));
+
+        final Sinks.One<String> trial = Sinks.one();
+        final StepVerifier trial1 = StepVerifier.create(breaker.protect(trial.asMono())).expectNext("a").expectComplete().verifyLater();
+        // 열리기 전에 허용받은 호출이 HALF_OPEN 중에 성공해도 시험 성공으로 세지 않는다.
+        slow.tryEmitValue("late");
+        old.verify();
+        trial.tryEmitValue("a");
+        trial1.verify();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        StepVerifier.create(breaker.protect(Mono.just("b"))).expectNext("b").verifyComplete();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void cancelledNonTrialDoesNotAddPermits() {
+        final CircuitBreaker breaker = breaker();
+        final Disposable old = breaker.protect(Mono.never()).subscribe();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(CircuitBreakerTest.<Integer>fail()).onErrorResume(e -> Mono.empty()).block();
+        }
+        clock.advanceTimeBy(Duration.ofSeconds(10));
+        breaker.protect(Mono.never()).subscribe();
+        breaker.protect(Mono.never()).subscribe();
+
+        old.dispose();
+
+        StepVerifier.create(breaker.protect(Mono.just("c"))).verifyError(CallNotPermittedException.class);
+    }
+
+    @Test
+    void minimumCallsMustFitInWindow() {
+        assertThatThrownBy(() -> CircuitBreaker.builder("downstream").windowSize(4).minimumCalls(5).build())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CircuitBreaker.builder("downstream").minimumCalls(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        final CircuitBreaker breaker = CircuitBreaker.builder("downstream")
+                .windowSize(4)
+                .minimumCalls(4)
+                .failureRateThreshold(0.75)
+                .clock(clock)
+                .build();
+
+        breaker.protect(fail()).onErrorResume(e -> Mono.empty()).block();
+        breaker.protect(fail()).onErrorResume(e -> Mono.empty()).block();
+        for (int i = 0; i < 4; i++) {
+            breaker.protect(Mono.just(i)).block();
+        }
+        assertThat(breaker.failureRate()).isZero();
+        breaker.protect(fail()).onErrorResume(e -> Mono.empty()).block();
+        breaker.protect(fail()).onErrorResume(e -> Mono.empty()).block();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.failureRate()).isEqualTo(0.5);
+    }
+
+    @Test
+    void concurrentResultsAreAllRecorded() {
+        final CircuitBreaker breaker = CircuitBreaker.builder("downstream")
+                .windowSize(64)
+                .minimumCalls(64)
+                .failureRateThreshold(1)
+                .clock(clock)
+                .build();
+
+        Flux.range(0, 64)
+                .flatMap(i -> breaker.protect(i % 4 == 0 ? CircuitBreakerTest.<Integer>fail() : Mono.just(i))
+                        .onErrorResume(e -> Mono.empty())
+                        .subscribeOn(Schedulers.parallel()))
+                .blockLast();
+
+        assertThat(breaker.failureRate()).isEqualTo(0.25);
+    }
+}
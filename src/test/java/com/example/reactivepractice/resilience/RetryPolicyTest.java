@@ -0,0 +1,176 @@
+package com.example.reactivepractice.resilience;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RetryPolicyTest {
+
+    // 앞의 failures 번 구독은 에러, 그 다음은 성공하는 원본
+    static Flux<String> failing(AtomicInteger subscriptions, int failures) {
+        return Flux.defer(() -> subscriptions.incrementAndGet() <= failures
+                ? Flux.error(new IllegalStateException("brownout"))
+                : Flux.just("ok"));
+    }
+
+    @Test
+    void backsOffExponentially() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> RetryPolicy.builder()
+                        .maxAttempts(5)
+                        .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                        .jitter(0)
+                        .build()
+                        .apply(failing(subscriptions, 3)))
+                .expectSubscription()
+                .then(() -> assertThat(subscriptions).hasValue(1))
+                .expectNoEvent(Duration.ofMillis(100))
+                .then(() -> assertThat(subscriptions).hasValue(2))
+                .expectNoEvent(Duration.ofMillis(200))
+                .then(() -> assertThat(subscriptions).hasValue(3))
+                .expectNoEvent(Duration.ofMillis(399))
+                .then(() -> assertThat(subscriptions).hasValue(3))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNext("ok")
+                .verifyComplete();
+    }
+
+    @Test
+    void backoffIsCappedAndJittered() {
+        final RetryPolicy lowest = RetryPolicy.builder()
+                .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                .jitter(0.5)
+                .random(() -> 0.999999)
+                .build();
+        final RetryPolicy full = RetryPolicy.builder()
+                .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                .jitter(0.5)
+                .random(() -> 0)
+                .build();
+
+        assertThat(full.backoff(0)).isEqualTo(Duration.ofMillis(100));
+        assertThat(full.backoff(3)).isEqualTo(Duration.ofMillis(800));
+        assertThat(full.backoff(4)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(full.backoff(100)).isEqualTo(Duration.ofSeconds(1));
+        assertThat(lowest.backoff(3)).isEqualTo(Duration.ofMillis(401));
+        assertThat(lowest.backoff(0)).isEqualTo(Duration.ofMillis(100));
+    }
+
+    @Test
+    void exhaustsAfterMaxAttempts() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> RetryPolicy.builder()
+                        .maxAttempts(2)
+                        .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                        .jitter(0)
+                        .build()
+                        .apply(failing(subscriptions, 10)))
+                .thenAwait(Duration.ofMillis(300))
+                .verifyErrorMatches(Exceptions::isRetryExhausted);
+        assertThat(subscriptions).hasValue(3);
+    }
+
+    @Test
+    void budgetStopsRetriesUntilRefilled() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+        final RetryBudget budget = new RetryBudget(2, Duration.ofSeconds(10));
+
+        StepVerifier.withVirtualTime(() -> RetryPolicy.builder()
+                        .maxAttempts(10)
+                        .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                        .jitter(0)
+                        .budget(budget)
+                        .build()
+                        .apply(failing(subscriptions, 10)))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(300))
+                .expectErrorSatisfies(error -> assertThat(error)
+                        .isInstanceOf(RetryBudgetExhaustedException.class)
+                        .hasCauseInstanceOf(IllegalStateException.class))
+                .verify();
+        assertThat(subscriptions).hasValue(3);
+
+        // 예산은 파이프라인들이 공유하므로, 토큰이 차기 전에는 다른 구독도 재시도하지 않는다.
+        subscriptions.set(0);
+        StepVerifier.withVirtualTime(() -> RetryPolicy.builder()
+                        .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                        .jitter(0)
+                        .budget(budget)
+                        .build()
+                        .apply(failing(subscriptions, 1)))
+                .expectError(RetryBudgetExhaustedException.class)
+                .verify();
+        assertThat(subscriptions).hasValue(1);
+    }
+
+    @Test
+    void budgetRefillsOverTime() {
+        final RetryBudget budget = new RetryBudget(2, Duration.ofSeconds(10));
+
+        assertThat(budget.tryAcquire(0)).isTrue();
+        assertThat(budget.tryAcquire(0)).isTrue();
+        assertThat(budget.tryAcquire(0)).isFalse();
+        assertThat(budget.available(9_999)).isZero();
+        assertThat(budget.available(10_000)).isEqualTo(1);
+        assertThat(budget.tryAcquire(10_000)).isTrue();
+        assertThat(budget.available(1_000_000)).isEqualTo(2);
+    }
+
+    @Test
+    void budgetRejectsSubMillisecondRefill() {
+        assertThatThrownBy(() -> new RetryBudget(2, Duration.ofNanos(500_000)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new RetryBudget(2, Duration.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(new RetryBudget(2, Duration.ofMillis(1)).available(0)).isEqualTo(2);
+    }
+
+    @Test
+    void resumesFromLastEmittedOffset() {
+        final List<Long> subscribedFrom = new ArrayList<>();
+        final AtomicInteger failures = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> RetryPolicy.builder()
+                        .backoff(Duration.ofMillis(100), Duration.ofSeconds(1))
+                        .jitter(0)
+                        .build()
+                        .resumeFrom(0, offset -> {
+                            subscribedFrom.add(offset);
+                            return Flux.range((int) offset, 5 - (int) offset)
+                                    .map(i -> {
+                                        if (i == 3 && failures.getAndIncrement() == 0) {
+                                            throw new IllegalStateException("boom");
+                                        }
+                                        return i;
+                                    });
+                        }))
+                .expectNext(0, 1, 2)
+                .expectNoEvent(Duration.ofMillis(100))
+                .expectNext(3, 4)
+                .verifyComplete();
+        assertThat(subscribedFrom).containsExactly(0L, 3L);
+    }
+
+    @Test
+    void doesNotRetryUnmatchedErrors() {
+        final AtomicInteger subscriptions = new AtomicInteger();
+
+        StepVerifier.create(RetryPolicy.builder()
+                        .retryOn(error -> !(error instanceof IllegalStateException))
+                        .build()
+                        .apply(failing(subscriptions, 1)))
+                .verifyError(IllegalStateException.class);
+        assertThat(subscriptions).hasValue(1);
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.reactivepractice.scheduler;
+
+import com.example.reactivepractice.scheduler.SchedulerProperties.BlockingType;
+import com.example.reactivepractice.support.PipelineHarness;
+import com.example.reactivepractice.support.PipelineRun;
+import com.example.reactivepractice.support.PipelineScenarios;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulerProfileTest {
+
+    final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(SchedulerConfiguration.class);
+
+    // blocking 에서 동시에 돈 스레드 이름들
+    Set<String> blockingThreads(SchedulerProfile profile, int calls) {
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        Flux.range(0, calls)
+                .flatMap(i -> Mono.fromCallable(() -> {
+                    threads.add(Thread.currentThread().getName());
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(20));
+                    return i;
+                }).subscribeOn(profile.blocking()), calls)
+                .blockLast(Duration.ofSeconds(10));
+        return threads;
+    }
+
+    @Test
+    void bindsPropertiesIntoNamedSchedulers() {
+        contextRunner
+                .withPropertyValues("reactive.schedulers.cpu-parallelism=2", "reactive.schedulers.blocking-max-threads=3")
+                .run(context -> {
+                    final SchedulerProfile profile = context.getBean(SchedulerProfile.class);
+                    assertThat(profile.blockingType()).isEqualTo(BlockingType.BOUNDED_ELASTIC);
+                    assertThat(profile.cpu().toString()).contains("cpu");
+                    assertThat(profile.timer().toString()).contains("timer");
+                    assertThat(blockingThreads(profile, 12)).hasSizeLessThanOrEqualTo(3);
+                });
+    }
+
+    @Test
+    void schedulersAreDisposedWithTheContext() {
+        final SchedulerProfile[] profile = new SchedulerProfile[1];
+        contextRunner.run(context -> profile[0] = context.getBean(SchedulerProfile.class));
+
+        assertThat(profile[0].cpu().isDisposed()).isTrue();
+        assertThat(profile[0].blocking().isDisposed()).isTrue();
+        assertThat(profile[0].timer().isDisposed()).isTrue();
+    }
+
+    @Test
+    void virtualFallsBackToBoundedElasticWithoutVirtualThreads() {
+        contextRunner
+                .withPropertyValues("reactive.schedulers.blocking=virtual")
+                .run(context -> {
+                    final SchedulerProfile profile = context.getBean(SchedulerProfile.class);
+                    if (SchedulerProfile.virtualThreadsAvailable()) {
+                        assertThat(profile.blockingType()).isEqualTo(BlockingType.VIRTUAL);
+                        // 스레드 수 상한 없이 호출마다 virtual thread 가 생긴다.
+                        assertThat(blockingThreads(profile, 200)).hasSizeGreaterThan(100);
+                    } else {
+                        assertThat(profile.blockingType()).isEqualTo(BlockingType.BOUNDED_ELASTIC);
+                        assertThat(blockingThreads(profile, 12)).isNotEmpty();
+                    }
+                });
+    }
+
+    @Test
+    void runsHarnessScenariosOnProfileSchedulers() {
+        final SchedulerProperties properties = new SchedulerProperties();
+        try (SchedulerProfile profile = SchedulerProfile.from(properties)) {
+            final PipelineRun<String> run = PipelineHarness.real(profile, PipelineScenarios.subscribeOnPublishOn(), Duration.ofSeconds(5));
+
+            assertThat(run.values()).containsExactly("hello");
+            assertThat(run.stageThreads("publish")).allMatch(thread -> thread.startsWith("blocking"));
+            assertThat(run.stageThreads("delayed")).allMatch(thread -> thread.startsWith("timer"));
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.reactivepractice.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountMinSketchTest {
+
+    // 작은 번호일수록 자주 나오는 zipf 비슷한 분포
+    static String skewed(Random random, int cardinality) {
+        return "fruit-" + (int) Math.floor(Math.pow(cardinality, random.nextDouble()) - 1);
+    }
+
+    @Test
+    void neverUnderestimatesAndStaysWithinBound() {
+        final CountMinSketch sketch = CountMinSketch.withError(0.001, 0.99);
+        final Map<String, Long> exact = new HashMap<>();
+        final Random random = new Random(11);
+        for (int i = 0; i < 500_000; i++) {
+            final String fruit = skewed(random, 100_000);
+            sketch.add(fruit, 1L);
+            exact.merge(fruit, 1L, Long::sum);
+        }
+
+        long withinBound = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            final long estimate = sketch.estimate(entry.getKey());
+            assertThat(estimate).isGreaterThanOrEqualTo(entry.getValue());
+            if (estimate - entry.getValue() <= sketch.errorBound()) {
+                withinBound++;
+            }
+        }
+        assertThat((double) withinBound / exact.size()).isGreaterThanOrEqualTo(sketch.confidence());
+        assertThat(sketch.total()).isEqualTo(500_000);
+    }
+
+    @Test
+    void dimensionsFollowRequestedError() {
+        final CountMinSketch sketch = CountMinSketch.withError(0.001, 0.99);
+
+        assertThat(sketch.width()).isEqualTo(4096).isGreaterThanOrEqualTo((int) Math.ceil(Math.E / 0.001));
+        assertThat(sketch.depth()).isEqualTo(5);
+        assertThat(sketch.estimate("never-added")).isZero();
+    }
+
+    @Test
+    void heavyHittersFindMostFrequentValues() {
+        final HeavyHitters heavyHitters = new HeavyHitters(5, CountMinSketch.withError(0.0005, 0.99));
+        final Map<String, Long> exact = new HashMap<>();
+        final Random random = new Random(3);
+        for (int i = 0; i < 200_000; i++) {
+            final String fruit = skewed(random, 50_000);
+            heavyHitters.add(fruit);
+            exact.merge(fruit, 1L, Long::sum);
+        }
+
+        assertThat(heavyHitters.top().keySet()).containsExactly("fruit-0", "fruit-1", "fruit-2", "fruit-3", "fruit-4");
+        heavyHitters.top().forEach((fruit, count) ->
+                assertThat(count).isBetween(exact.get(fruit), exact.get(fruit) + heavyHitters.sketch().errorBound()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.reactivepractice.sketch;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    @Test
+    void estimatesWithinThreeStandardErrors() {
+        for (int cardinality : new int[]{10, 1_000, 100_000, 1_000_000}) {
+            final HyperLogLog sketch = HyperLogLog.withRelativeError(0.01);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.add("fruit-" + i);
+                // 중복은 추정값을 바꾸지 않는다.
+                sketch.add("fruit-" + (i / 2));
+            }
+            final double tolerance = Math.max(1.0, 3 * sketch.relativeError() * cardinality);
+            assertThat((double) sketch.estimate()).as("cardinality %d", cardinality).isCloseTo(cardinality, within(tolerance));
+        }
+    }
+
+    @Test
+    void precisionFollowsRequestedError() {
+        assertThat(HyperLogLog.withRelativeError(0.01).precision()).isEqualTo(14);
+        assertThat(HyperLogLog.withRelativeError(0.01).relativeError()).isLessThanOrEqualTo(0.01);
+        assertThat(HyperLogLog.withRelativeError(0.5).precision()).isEqualTo(HyperLogLog.MIN_PRECISION);
+        assertThat(HyperLogLog.withRelativeError(0.0001).precision()).isEqualTo(HyperLogLog.MAX_PRECISION);
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnion() {
+        final HyperLogLog left = new HyperLogLog(12);
+        final HyperLogLog right = new HyperLogLog(12);
+        final HyperLogLog union = new HyperLogLog(12);
+        for (int i = 0; i < 50_000; i++) {
+            (i % 3 == 0 ? left : right).add("key-" + i);
+            union.add("key-" + i);
+        }
+
+        assertThat(left.copy().merge(right)).isEqualTo(union);
+        assertThatThrownBy(() -> left.merge(new HyperLogLog(10))).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.reactivepractice.support;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * {@link PipelineScenario}가 파이프라인을 만들 때 쓰는 scheduler 들과 stage 기록기.
+ * <p>
+ * 가상 시간 모드에서는 세 scheduler 가 모두 같은 VirtualTimeScheduler 이고, 실제 모드에서는 parallel / boundedElastic 이다.
+ * {@link #mark(String)}는 요소가 그 위치를 지난 시각(구독 시작 기준)과 스레드 이름을 기록한다. 시각은 clock scheduler 로 재므로
+ * 가상 시간에서도 의미가 있다.
+ */
+public final class PipelineContext {
+
+    private final Scheduler parallel;
+    private final Scheduler boundedElastic;
+    private final Scheduler timer;
+    private final Map<String, Stage> stages = new ConcurrentHashMap<>();
+    private volatile long startNanos;
+
+    PipelineContext(Scheduler parallel, Scheduler boundedElastic, Scheduler timer) {
+        this.parallel = parallel;
+        this.boundedElastic = boundedElastic;
+        this.timer = timer;
+    }
+
+    public Scheduler parallel() {
+        return parallel;
+    }
+
+    public Scheduler boundedElastic() {
+        return boundedElastic;
+    }
+
+    /**
+     * delayElements, interval 같은 시간 연산자에 넘길 scheduler.
+     */
+    public Scheduler timer() {
+        return timer;
+    }
+
+    /**
+     * {@code flux.transform(ctx.mark("publish"))}. 이 위치를 지나는 onNext 마다 시각과 스레드를 남긴다.
+     */
+    public <T> Function<Flux<T>, Flux<T>> mark(String stage) {
+        final Stage recorder = stages.computeIfAbsent(stage, name -> new Stage());
+        return flux -> flux.doOnNext(value -> recorder.record(elapsedNanos(), Thread.currentThread().getName()));
+    }
+
+    void start() {
+        startNanos = timer.now(TimeUnit.NANOSECONDS);
+    }
+
+    long elapsedNanos() {
+        return timer.now(TimeUnit.NANOSECONDS) - startNanos;
+    }
+
+    List<Duration> times(String stage) {
+        final Stage recorder = stages.get(stage);
+        return recorder == null ? Collections.emptyList() : recorder.times();
+    }
+
+    Set<String> threads(String stage) {
+        final Stage recorder = stages.get(stage);
+        return recorder == null ? Collections.emptySet() : recorder.threads();
+    }
+
+    Set<String> stageNames() {
+        return stages.keySet();
+    }
+
+    private static final class Stage {
+        private final List<Long> nanos = new ArrayList<>();
+        private final Set<String> threads = new LinkedHashSet<>();
+
+        synchronized void record(long elapsedNanos, String thread) {
+            nanos.add(elapsedNanos);
+            threads.add(thread);
+        }
+
+        synchronized List<Duration> times() {
+            final List<Duration> times = new ArrayList<>(nanos.size());
+            nanos.forEach(value -> times.add(Duration.ofNanos(value)));
+            return times;
+        }
+
+        synchronized Set<String> threads() {
+            return new LinkedHashSet<>(threads);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.reactivepractice.support;
+
+import com.example.reactivepractice.scheduler.SchedulerProfile;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Thread.sleep / CountDownLatch 없이 scheduler 를 쓰는 파이프라인을 끝까지 돌리는 테스트 도구.
+ * <p>
+ * {@link #virtual}은 VirtualTimeScheduler 를 기본 scheduler 로 바꿔 끼우고, 파이프라인이 끝날 때까지 가상 시간을 진행시킨다.
+ * delayElements(1초)가 있어도 바로 끝난다. {@link #real}은 같은 시나리오를 실제 scheduler 에서 돌려 지연을 잰다.
+ * 벤치마크(PipelineLatencyBenchmark)도 같은 시나리오를 {@link #real}로 돌린다.
+ */
+public final class PipelineHarness {
+
+    static final Duration STEP = Duration.ofMillis(10);
+    static final Duration MAX_VIRTUAL_TIME = Duration.ofHours(1);
+
+    private PipelineHarness() {
+    }
+
+    /**
+     * 가상 시간으로 끝까지 돌린다. MAX_VIRTUAL_TIME 안에 끝나지 않으면 IllegalStateException.
+     */
+    public static <T> PipelineRun<T> virtual(PipelineScenario<T> scenario) {
+        final VirtualTimeScheduler clock = VirtualTimeScheduler.getOrSet();
+        try {
+            final PipelineContext context = new PipelineContext(clock, clock, clock);
+            final AtomicReference<List<T>> values = new AtomicReference<>();
+            final AtomicReference<Throwable> error = new AtomicReference<>();
+            final long[] finishedAt = {-1};
+
+            context.start();
+            Flux.from(scenario.build(context))
+                    .collectList()
+                    .doOnTerminate(() -> finishedAt[0] = context.elapsedNanos())
+                    .subscribe(values::set, error::set);
+
+            long advanced = 0;
+            while (finishedAt[0] < 0 && advanced < MAX_VIRTUAL_TIME.toNanos()) {
+                clock.advanceTimeBy(STEP);
+                advanced += STEP.toNanos();
+            }
+            if (error.get() != null) {
+                throw new IllegalStateException("Scenario failed", error.get());
+            }
+            if (finishedAt[0] < 0) {
+                throw new IllegalStateException("Scenario did not complete within " + MAX_VIRTUAL_TIME + " of virtual time");
+            }
+            return new PipelineRun<>(values.get(), Duration.ofNanos(finishedAt[0]), context);
+        } finally {
+            VirtualTimeScheduler.reset();
+        }
+    }
+
+    /**
+     * 실제 scheduler 에서 돌리고 끝날 때까지 기다린다.
+     */
+    public static <T> PipelineRun<T> real(PipelineScenario<T> scenario, Duration timeout) {
+        return run(new PipelineContext(Schedulers.parallel(), Schedulers.boundedElastic(), Schedulers.parallel()), scenario, timeout);
+    }
+
+    /**
+     * {@link SchedulerProfile}의 cpu / blocking / timer 로 돌린다.
+     */
+    public static <T> PipelineRun<T> real(SchedulerProfile profile, PipelineScenario<T> scenario, Duration timeout) {
+        return run(new PipelineContext(profile.cpu(), profile.blocking(), profile.timer()), scenario, timeout);
+    }
+
+    private static <T> PipelineRun<T> run(PipelineContext context, PipelineScenario<T> scenario, Duration timeout) {
+        context.start();
+        final List<T> values = Flux.from(scenario.build(context)).collectList().block(timeout);
+        return new PipelineRun<>(values, Duration.ofNanos(context.elapsedNanos()), context);
+    }
+}
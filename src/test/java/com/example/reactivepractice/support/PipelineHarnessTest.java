@@ -0,0 +1,61 @@
+package com.example.reactivepractice.support;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PipelineHarnessTest {
+
+    @Test
+    void virtualRunSkipsDelaysAndRecordsStageTimes() {
+        final long started = System.nanoTime();
+
+        final PipelineRun<Long> run = PipelineHarness.virtual(context -> Flux.interval(Duration.ofMinutes(1), context.timer())
+                .take(3)
+                .transform(context.mark("tick"))
+                .delayElements(Duration.ofSeconds(30), context.timer())
+                .transform(context.mark("delayed")));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+        assertThat(run.values()).containsExactly(0L, 1L, 2L);
+        assertThat(run.stageTimes("tick")).containsExactly(Duration.ofMinutes(1), Duration.ofMinutes(2), Duration.ofMinutes(3));
+        assertThat(run.stageTimes("delayed")).containsExactly(
+                Duration.ofSeconds(90), Duration.ofSeconds(150), Duration.ofSeconds(210));
+        assertThat(run.elapsed()).isEqualTo(Duration.ofSeconds(210));
+    }
+
+    @Test
+    void defaultSchedulersAreVirtualDuringRunAndRestoredAfter() {
+        // 시나리오가 scheduler 를 넘기지 않은 delayElements 도 가상 시간으로 돈다.
+        final PipelineRun<Integer> run = PipelineHarness.virtual(context -> Flux.just(1, 2).delayElements(Duration.ofSeconds(10)));
+
+        assertThat(run.elapsed()).isEqualTo(Duration.ofSeconds(20));
+        assertThat(Schedulers.parallel()).isNotInstanceOf(VirtualTimeScheduler.class);
+    }
+
+    @Test
+    void virtualRunFailsWhenScenarioNeverCompletes() {
+        assertThatThrownBy(() -> PipelineHarness.virtual(context -> Flux.never()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("did not complete");
+        assertThatThrownBy(() -> PipelineHarness.virtual(context -> Flux.error(new IllegalArgumentException("boom"))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void realRunUsesRealSchedulers() {
+        final PipelineRun<String> run = PipelineHarness.real(PipelineScenarios.subscribeOnPublishOn(), Duration.ofSeconds(5));
+
+        assertThat(run.values()).containsExactly("hello");
+        assertThat(run.stageThreads("publish")).allMatch(thread -> thread.startsWith("boundedElastic"));
+        assertThat(run.stageThreads("delayed")).allMatch(thread -> thread.startsWith("parallel"));
+        assertThat(run.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(500));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.reactivepractice.support;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * {@link PipelineHarness}로 한 번 실행한 결과. 시간은 가상 시간 모드면 가상 시간, 실제 모드면 벽시계 시간이다.
+ */
+public final class PipelineRun<T> {
+
+    private final List<T> values;
+    private final Duration elapsed;
+    private final PipelineContext context;
+
+    PipelineRun(List<T> values, Duration elapsed, PipelineContext context) {
+        this.values = values;
+        this.elapsed = elapsed;
+        this.context = context;
+    }
+
+    public List<T> values() {
+        return values;
+    }
+
+    /**
+     * 구독부터 완료까지 걸린 시간.
+     */
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    /**
+     * stage 를 지난 요소들의 시각. (구독 시작 기준, 지난 순서)
+     */
+    public List<Duration> stageTimes(String stage) {
+        return context.times(stage);
+    }
+
+    /**
+     * stage 를 지날 때의 스레드 이름들. 가상 시간 모드에서는 시간을 진행시킨 스레드 하나뿐이다.
+     */
+    public Set<String> stageThreads(String stage) {
+        return context.threads(stage);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("PipelineRun{elapsed=").append(elapsed);
+        for (String stage : context.stageNames()) {
+            builder.append(", ").append(stage).append('=').append(stageTimes(stage)).append(stageThreads(stage));
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.reactivepractice.support;
+
+import org.reactivestreams.Publisher;
+
+/**
+ * {@link PipelineHarness}로 가상 시간 / 실제 scheduler 양쪽에서 돌릴 수 있는 파이프라인.
+ * scheduler 는 직접 고르지 말고 {@link PipelineContext}에서 받아 쓴다.
+ */
+@FunctionalInterface
+public interface PipelineScenario<T> {
+
+    Publisher<T> build(PipelineContext context);
+}
@@ -0,0 +1,74 @@
+package com.example.reactivepractice.support;
+
+import com.example.reactivepractice.event.EventBus;
+import com.example.reactivepractice.event.EventBus.BackpressureStrategy;
+import com.example.reactivepractice.fruit.FruitInfo;
+import com.example.reactivepractice.fruit.ParallelFruitAggregator;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 예제 테스트(Processor, ReactiveFruit)와 PipelineLatencyBenchmark 가 함께 쓰는 시나리오들.
+ */
+public final class PipelineScenarios {
+
+    public static final List<List<String>> BASKETS = Arrays.asList(
+            Arrays.asList("kiwi", "orange", "lemon", "orange", "lemon", "kiwi"),
+            Arrays.asList("banana", "lemon", "lemon", "kiwi"),
+            Arrays.asList("strawberry", "orange", "lemon", "grape", "strawberry"));
+
+    private PipelineScenarios() {
+    }
+
+    /**
+     * Processor.Emitter_Processor_V2: 대문자로 바꾸고 WORLD 가 들어간 것만 1초 간격으로 내보낸다.
+     */
+    public static PipelineScenario<String> emitterUpperCase() {
+        return context -> {
+            final EventBus<String> emitter = EventBus.multicast(BackpressureStrategy.BUFFER, 16);
+            final Flux<String> pipeline = emitter.events()
+                    .publishOn(context.boundedElastic())
+                    .map(String::toUpperCase)
+                    .filter(s -> s.contains("WORLD"))
+                    .transform(context.mark("filtered"))
+                    .delayElements(Duration.ofMillis(1000), context.timer())
+                    .transform(context.mark("delayed"));
+            // 구독한 뒤에 emit 해야 multicast 에서 잃어버리지 않는다.
+            return pipeline.doOnSubscribe(subscription -> context.boundedElastic().schedule(() -> {
+                emitter.emit("Hello World!");
+                emitter.emit("Goodbye World");
+                emitter.emit("Again");
+                emitter.complete();
+            }));
+        };
+    }
+
+    /**
+     * ReactiveFruit.Flux_SubscribeOn_PublishOn
+     */
+    public static PipelineScenario<String> subscribeOnPublishOn() {
+        return context -> Flux.just("hello")
+                .transform(context.mark("just"))
+                .publishOn(context.boundedElastic())
+                .transform(context.mark("publish"))
+                .delayElements(Duration.ofMillis(500), context.timer())
+                .transform(context.mark("delayed"))
+                .subscribeOn(context.boundedElastic());
+    }
+
+    /**
+     * ReactiveFruit.Fruit_Parallel: 바구니별 결과 다음에 전체 합계.
+     */
+    public static PipelineScenario<FruitInfo> fruitParallel(List<List<String>> baskets) {
+        return context -> {
+            final Flux<List<String>> basketFlux = Flux.fromIterable(baskets);
+            return ParallelFruitAggregator.perBasket(basketFlux, 4, context.parallel())
+                    .transform(context.mark("perBasket"))
+                    .concatWith(ParallelFruitAggregator.total(basketFlux, 4, context.parallel()))
+                    .transform(context.mark("total"));
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.reactivepractice.web;
+
+import com.example.reactivepractice.fruit.FruitAggregator;
+import com.example.reactivepractice.fruit.FruitInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FruitHandlerTest {
+
+    final WebTestClient client = WebTestClient.bindToRouterFunction(new FruitRouter().fruitRoutes(new FruitHandler()))
+            .handlerStrategies(HandlerStrategies.builder().codecs(FruitRouter::configureCodecs).build())
+            .configureClient()
+            .responseTimeout(Duration.ofSeconds(30))
+            .build();
+
+    static List<String> basket(Random random, int size, int cardinality) {
+        final List<String> basket = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            basket.add("fruit-" + random.nextInt(cardinality));
+        }
+        return basket;
+    }
+
+    Flux<FruitInfo> post(Flux<List<String>> baskets) {
+        return client.post()
+                .uri("/fruits/baskets")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(baskets.map(Basket::new), Basket.class)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(FruitInfo.class)
+                .getResponseBody();
+    }
+
+    @Test
+    void returnsOneResultPerBasket() {
+        final List<String> basket1 = List.of("kiwi", "orange", "lemon", "orange", "lemon", "kiwi");
+        final List<String> basket2 = List.of("banana", "lemon", "lemon", "kiwi");
+
+        StepVerifier.create(post(Flux.just(basket1, basket2)))
+                .expectNext(FruitAggregator.summarize(basket1))
+                .expectNext(FruitAggregator.summarize(basket2))
+                .verifyComplete();
+    }
+
+    @Test
+    void streamsResultBeforeUploadCompletes() {
+        final Sinks.Many<List<String>> upload = Sinks.many().unicast().onBackpressureBuffer();
+        upload.tryEmitNext(List.of("apple", "apple", "pear"));
+
+        StepVerifier.create(post(upload.asFlux()))
+                .assertNext(info -> assertThat(info.getCountFruits()).containsEntry("apple", 2L))
+                .then(() -> upload.tryEmitNext(List.of("grape")))
+                .assertNext(info -> assertThat(info.getDistinctFruits()).containsExactly("grape"))
+                .then(upload::tryEmitComplete)
+                .verifyComplete();
+    }
+
+    // 바구니를 NDJSON 으로 쓴 뒤 네트워크에서처럼 작은 조각으로 나눠 보낸다. 바구니 하나를 DataBuffer 하나로 보내면
+    // decoder 가 한도를 재지 않는다.
+    Flux<FruitInfo> postInChunks(List<List<String>> baskets, int chunkSize) throws JsonProcessingException {
+        final ObjectMapper mapper = new ObjectMapper();
+        final StringBuilder ndjson = new StringBuilder();
+        for (List<String> basket : baskets) {
+            ndjson.append(mapper.writeValueAsString(new Basket(basket))).append('\n');
+        }
+        final byte[] bytes = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        final DefaultDataBufferFactory buffers = new DefaultDataBufferFactory();
+        final Flux<DataBuffer> chunks = Flux.range(0, (bytes.length + chunkSize - 1) / chunkSize)
+                .map(i -> buffers.wrap(Arrays.copyOfRange(bytes, i * chunkSize, Math.min(bytes.length, (i + 1) * chunkSize))));
+        return client.post()
+                .uri("/fruits/baskets")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .body(chunks, DataBuffer.class)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(FruitInfo.class)
+                .getResponseBody();
+    }
+
+    @Test
+    void acceptsBasketsLargerThanDefaultCodecLimit() throws JsonProcessingException {
+        final Random random = new Random(7);
+        // 한 줄이 1MB 를 넘는다. codec 기본 한도(256KB)로는 DataBufferLimitException 이 난다.
+        final List<String> large = basket(random, 100_000, 1_000);
+        final List<String> small = List.of("kiwi", "kiwi");
+
+        StepVerifier.create(postInChunks(List.of(large, small, large), 8_192))
+                .expectNext(FruitAggregator.summarize(large))
+                .expectNext(FruitAggregator.summarize(small))
+                .expectNext(FruitAggregator.summarize(large))
+                .verifyComplete();
+    }
+
+    // -Dfruit.load.baskets=1000000 처럼 늘려서 로컬 부하 테스트로 쓴다.
+    @Test
+    void throughput() {
+        final int basketCount = Integer.getInteger("fruit.load.baskets", 5_000);
+        final Random random = new Random(42);
+        final AtomicLong fruits = new AtomicLong();
+        final Flux<List<String>> baskets = Flux.range(0, basketCount)
+                .map(i -> basket(random, 50, 200))
+                .doOnNext(basket -> fruits.addAndGet(basket.size()));
+
+        final long start = System.nanoTime();
+        final Long results = post(baskets).count().block();
+        final double seconds = (System.nanoTime() - start) / 1e9;
+
+        assertThat(results).isEqualTo(basketCount);
+        System.out.printf("%d baskets (%d fruits) in %.2fs: %.0f baskets/s%n", basketCount, fruits.get(), seconds, basketCount / seconds);
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.reactivepractice.web;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TickStreamTest {
+
+    final VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+    final AtomicInteger upstreamSubscriptions = new AtomicInteger();
+    final AtomicInteger upstreamCancels = new AtomicInteger();
+    final TickStream ticks = new TickStream(Flux.interval(Duration.ofMillis(100), clock)
+            .map(tick -> new Tick("100ms", tick))
+            .doOnSubscribe(s -> upstreamSubscriptions.incrementAndGet())
+            .doOnCancel(upstreamCancels::incrementAndGet));
+
+    @Test
+    void clientsShareOneUpstream() {
+        final LongAdder received = new LongAdder();
+        final List<Disposable> clients = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            clients.add(ticks.subscribe(TickStream.Policy.LATEST, 1).subscribe(tick -> received.increment()));
+        }
+
+        clock.advanceTimeBy(Duration.ofSeconds(1));
+
+        assertThat(upstreamSubscriptions).hasValue(1);
+        assertThat(received.sum()).isEqualTo(10_000L * 10);
+
+        clients.forEach(Disposable::dispose);
+        assertThat(upstreamCancels).hasValue(1);
+        ticks.subscribe(TickStream.Policy.LATEST, 1).subscribe().dispose();
+        assertThat(upstreamSubscriptions).hasValue(2);
+    }
+
+    @Test
+    void latestKeepsOnlyNewestTick() {
+        StepVerifier.create(ticks.subscribe(TickStream.Policy.LATEST, 1), 0)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(500)))
+                .thenRequest(1)
+                .expectNext(new Tick("100ms", 4))
+                .thenRequest(1)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(100)))
+                .expectNext(new Tick("100ms", 5))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void dropDiscardsTicksWithoutDemand() {
+        StepVerifier.create(ticks.subscribe(TickStream.Policy.DROP, 1), 0)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(500)))
+                .thenRequest(1)
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(100)))
+                .expectNext(new Tick("100ms", 5))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void bufferDisconnectsWhenFull() {
+        StepVerifier.create(ticks.subscribe(TickStream.Policy.BUFFER, 4), 0)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(400)))
+                .thenRequest(4)
+                .expectNextCount(4)
+                // 틱 5개(버퍼 4 + merge 에 미리 받은 1)까지는 들고 있다가, 6번째에서 요청하지 않아도 바로 끊긴다.
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(500)))
+                .expectNoEvent(Duration.ZERO)
+                .then(() -> clock.advanceTimeBy(Duration.ofMillis(100)))
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+        assertThat(upstreamSubscriptions).hasValue(1);
+        assertThat(upstreamCancels).hasValue(1);
+    }
+
+    @Test
+    void slowClientDoesNotSlowOthers() {
+        final BaseSubscriber<Tick> slow = new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                // 요청하지 않는 클라이언트
+            }
+        };
+        ticks.subscribe(TickStream.Policy.BUFFER, 2).subscribe(slow);
+
+        StepVerifier.create(ticks.subscribe(TickStream.Policy.BUFFER, 2))
+                .then(() -> clock.advanceTimeBy(Duration.ofSeconds(1)))
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+        slow.dispose();
+    }
+
+    @Test
+    void servesServerSentEvents() {
+        final TickStream realTime = new TickStream(Schedulers.parallel(), Duration.ofMillis(30), Duration.ofMillis(20));
+        final WebTestClient client = WebTestClient.bindToRouterFunction(new TickRouter().tickRoutes(new TickHandler(realTime)))
+                .build();
+
+        final Flux<ServerSentEvent<Tick>> events = client.get()
+                .uri("/ticks?policy=drop")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<Tick>>() {
+                })
+                .getResponseBody();
+
+        StepVerifier.create(events.take(3))
+                .thenConsumeWhile(event -> "tick".equals(event.event()) && event.data() != null)
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        client.get().uri("/ticks?policy=nope").exchange().expectStatus().isBadRequest();
+        client.get().uri("/ticks?policy=buffer&buffer=0").exchange().expectStatus().isBadRequest();
+    }
+}